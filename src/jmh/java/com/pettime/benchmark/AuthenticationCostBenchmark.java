@@ -0,0 +1,70 @@
+package com.pettime.benchmark;
+
+import com.pettime.config.JwtConfig;
+import com.pettime.config.TokenProperties;
+import com.pettime.model.UserRole;
+import com.pettime.security.TokenService;
+import com.pettime.service.cache.CachedUser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request authentication cost on one core: HTTP Basic (BCrypt) versus bearer token (HMAC).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class AuthenticationCostBenchmark {
+
+    private static final String PASSWORD = "s3cret-password";
+
+    private BCryptPasswordEncoder passwordEncoder;
+    private String hash;
+    private JwtDecoder decoder;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        passwordEncoder = new BCryptPasswordEncoder();
+        hash = passwordEncoder.encode(PASSWORD);
+
+        TokenProperties properties = new TokenProperties();
+        properties.setSecret(Base64.getEncoder()
+                .encodeToString("benchmark-only-pettime-token-signing-key".getBytes(StandardCharsets.UTF_8)));
+        JwtConfig config = new JwtConfig();
+        SecretKey key = config.tokenSigningKey(properties);
+        decoder = config.jwtDecoder(key, properties);
+        token = new TokenService(config.jwtEncoder(key), key, properties)
+                .issue(new CachedUser(1L, "Bench", "bench@pettime.ca", UserRole.CLIENT))
+                .getAccessToken();
+    }
+
+    @Benchmark
+    public boolean httpBasic() {
+        return passwordEncoder.matches(PASSWORD, hash);
+    }
+
+    @Benchmark
+    public Jwt bearerToken() {
+        return decoder.decode(token);
+    }
+}
@@ -0,0 +1,67 @@
+package com.pettime.benchmark;
+
+import com.pettime.config.PostgresSchemaInitializer;
+import com.pettime.config.SchedulingProperties;
+import com.pettime.config.UserCacheProperties;
+import com.pettime.metrics.AppointmentMetrics;
+import com.pettime.service.PetService;
+import com.pettime.service.cache.UserLookupCache;
+import com.pettime.service.impl.AppointmentServiceImpl;
+import com.pettime.service.scheduling.AppointmentIntervalIndex;
+import com.pettime.service.scheduling.AvailabilityEngine;
+import com.pettime.service.scheduling.BookingCoordinator;
+import com.pettime.service.scheduling.PendingExpiryScheduler;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * Minimal Spring context for benchmarks: JPA repositories and the booking
+ * service on an in-memory H2 database, without web, security or Firebase.
+ * (FR) Contexte Spring minimal pour les benchmarks, sur une base H2 en mémoire.
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration
+@EntityScan("com.pettime.model")
+@EnableJpaRepositories("com.pettime.repository")
+@Import({
+        AppointmentServiceImpl.class,
+        AppointmentIntervalIndex.class,
+        BookingCoordinator.class,
+        AvailabilityEngine.class,
+        PostgresSchemaInitializer.class,
+        SchedulingProperties.class,
+        UserLookupCache.class,
+        UserCacheProperties.class,
+        AppointmentMetrics.class,
+        PendingExpiryScheduler.class,
+        PetService.class
+})
+public class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    /**
+     * Starts a context on its own H2 database.
+     */
+    public static ConfigurableApplicationContext start(String databaseName) {
+        return new SpringApplicationBuilder(BenchmarkContext.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run(
+                        "--spring.profiles.active=jmh",
+                        "--spring.datasource.url=jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN"
+                );
+    }
+}
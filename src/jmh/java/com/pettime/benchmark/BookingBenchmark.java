@@ -0,0 +1,68 @@
+package com.pettime.benchmark;
+
+import com.pettime.model.Appointment;
+import com.pettime.model.UserRole;
+import com.pettime.repository.PetRepository;
+import com.pettime.repository.UserRepository;
+import com.pettime.service.AppointmentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AppointmentServiceImpl.create end to end against H2: lookups, index check,
+ * locked overlap query and insert. Every call books the next free hour.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private AppointmentService appointmentService;
+    private Long petId;
+    private Long petshopId;
+    private LocalDateTime base;
+    private final AtomicLong nextSlot = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("booking");
+        appointmentService = context.getBean(AppointmentService.class);
+
+        UserRepository users = context.getBean(UserRepository.class);
+        PetRepository pets = context.getBean(PetRepository.class);
+
+        petshopId = Fixtures.saveUser(users, "shop@bench.ca", UserRole.PETSHOP).getId();
+        petId = Fixtures.savePet(pets, Fixtures.saveUser(users, "owner@bench.ca", UserRole.CLIENT)).getId();
+        base = LocalDateTime.now().plusDays(1).withNano(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Appointment create() {
+        LocalDateTime start = base.plusHours(nextSlot.getAndIncrement());
+        return appointmentService.create(petId, petshopId, start, start.plusHours(1));
+    }
+}
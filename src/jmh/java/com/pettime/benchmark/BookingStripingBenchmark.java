@@ -0,0 +1,69 @@
+package com.pettime.benchmark;
+
+import com.pettime.config.SchedulingProperties;
+import com.pettime.service.scheduling.BookingCoordinator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * BookingCoordinator under 4 threads: each booking petshop of its own, or all the same petshop.
+ * The critical section burns a fixed amount of CPU in place of the overlap check and insert.
+ * With striping, distinctPetshops should scale with the threads while samePetshop stays serialized.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class BookingStripingBenchmark {
+
+    private static final long CRITICAL_SECTION_TOKENS = 1_000;
+    private static final Long SHARED_PETSHOP = 1L;
+
+    private final AtomicLong nextPetshop = new AtomicLong();
+    private BookingCoordinator coordinator;
+
+    /**
+     * The petshop booked by one benchmark thread; small consecutive ids land on distinct stripes.
+     */
+    @State(Scope.Thread)
+    public static class OwnPetshop {
+        private Long petshopId;
+
+        @Setup(Level.Trial)
+        public void setUp(BookingStripingBenchmark benchmark) {
+            petshopId = benchmark.nextPetshop.incrementAndGet();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        coordinator = new BookingCoordinator(new SchedulingProperties());
+    }
+
+    @Benchmark
+    public void distinctPetshops(OwnPetshop own) {
+        coordinator.withPetshopLock(own.petshopId, () -> Blackhole.consumeCPU(CRITICAL_SECTION_TOKENS));
+    }
+
+    @Benchmark
+    public void samePetshop() {
+        coordinator.withPetshopLock(SHARED_PETSHOP, () -> Blackhole.consumeCPU(CRITICAL_SECTION_TOKENS));
+    }
+}
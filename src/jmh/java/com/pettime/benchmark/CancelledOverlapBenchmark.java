@@ -0,0 +1,108 @@
+package com.pettime.benchmark;
+
+import com.pettime.model.Appointment;
+import com.pettime.model.AppointmentStatus;
+import com.pettime.model.Pet;
+import com.pettime.model.User;
+import com.pettime.model.UserRole;
+import com.pettime.repository.AppointmentRepository;
+import com.pettime.repository.PetRepository;
+import com.pettime.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overlap checks on a calendar of {@value #ACTIVE} active appointments buried
+ * under {@code cancelled} cancelled ones covering the same hours.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CancelledOverlapBenchmark {
+
+    private static final int ACTIVE = 1_000;
+    private static final int BATCH = 5_000;
+
+    @Param({"0", "10000", "100000"})
+    public int cancelled;
+
+    private ConfigurableApplicationContext context;
+    private AppointmentRepository appointments;
+    private Long petshopId;
+    private LocalDateTime base;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("cancelled" + cancelled);
+        appointments = context.getBean(AppointmentRepository.class);
+
+        UserRepository users = context.getBean(UserRepository.class);
+        PetRepository pets = context.getBean(PetRepository.class);
+
+        User petshop = Fixtures.saveUser(users, "shop@bench.ca", UserRole.PETSHOP);
+        Pet pet = Fixtures.savePet(pets, Fixtures.saveUser(users, "owner@bench.ca", UserRole.CLIENT));
+        petshopId = petshop.getId();
+        base = LocalDateTime.now().plusDays(1).withNano(0);
+
+        List<Appointment> calendar = new ArrayList<>(BATCH);
+        for (int i = 0; i < ACTIVE; i++) {
+            // One-hour bookings with a one-hour gap, as in OverlapQueryBenchmark.
+            calendar.add(appointment(pet, petshop, base.plusHours(2L * i), AppointmentStatus.CONFIRMED));
+        }
+        appointments.saveAll(calendar);
+        calendar.clear();
+
+        for (int i = 0; i < cancelled; i++) {
+            // Cancelled rows fill both the booked hours and the gaps between them.
+            calendar.add(appointment(pet, petshop, base.plusHours(i % (2L * ACTIVE)), AppointmentStatus.CANCELLED));
+            if (calendar.size() == BATCH) {
+                appointments.saveAll(calendar);
+                calendar.clear();
+            }
+        }
+        appointments.saveAll(calendar);
+    }
+
+    private static Appointment appointment(Pet pet, User petshop, LocalDateTime start, AppointmentStatus status) {
+        return Appointment.builder()
+                .pet(pet)
+                .petshop(petshop)
+                .startTime(start)
+                .endTime(start.plusHours(1))
+                .status(status)
+                .paid(false)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean existsOverlapping() {
+        LocalDateTime start = base.plusMinutes(30L * ThreadLocalRandom.current().nextInt(ACTIVE * 4));
+        return appointments.existsOverlappingAppointment(petshopId, start, start.plusHours(1));
+    }
+}
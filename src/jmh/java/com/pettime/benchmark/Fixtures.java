@@ -0,0 +1,35 @@
+package com.pettime.benchmark;
+
+import com.pettime.model.Pet;
+import com.pettime.model.User;
+import com.pettime.model.UserRole;
+import com.pettime.repository.PetRepository;
+import com.pettime.repository.UserRepository;
+
+/**
+ * Shared benchmark data.
+ */
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    static User saveUser(UserRepository users, String email, UserRole role) {
+        return users.save(User.builder()
+                .name("Bench " + email)
+                .email(email)
+                .password("$2a$10$benchmarkbenchmarkbenchmarkbenchmarkbenchmarkbenchma")
+                .role(role)
+                .build());
+    }
+
+    static Pet savePet(PetRepository pets, User owner) {
+        return pets.save(Pet.builder()
+                .name("Rex")
+                .species("Dog")
+                .breed("Labrador")
+                .age(4)
+                .owner(owner)
+                .build());
+    }
+}
@@ -0,0 +1,107 @@
+package com.pettime.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares a JMH JSON result with a baseline and fails on regressions.
+ * (FR) Compare un résultat JMH JSON à une référence et échoue en cas de régression.
+
+ * Usage: {@code JmhRegressionCheck <result.json> <baseline.json> <threshold>}
+ * where threshold is the tolerated slowdown as a fraction (0.10 = 10 %).
+ * Benchmarks are matched by name and parameters; throughput modes must not
+ * drop, time modes must not rise, by more than the threshold. Benchmarks
+ * missing from either side are reported and ignored.
+ */
+public final class JmhRegressionCheck {
+
+    private JmhRegressionCheck() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("usage: JmhRegressionCheck <result.json> <baseline.json> <threshold>");
+            System.exit(2);
+        }
+
+        File resultFile = new File(args[0]);
+        File baselineFile = new File(args[1]);
+        double threshold = Double.parseDouble(args[2]);
+
+        if (!baselineFile.isFile()) {
+            System.out.printf("No JMH baseline at %s; copy %s there to enable regression checks.%n",
+                    baselineFile, resultFile);
+            return;
+        }
+
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, JsonNode> results = index(mapper.readTree(resultFile));
+        Map<String, JsonNode> baseline = index(mapper.readTree(baselineFile));
+
+        List<String> regressions = compare(results, baseline, threshold);
+
+        if (!regressions.isEmpty()) {
+            System.err.printf("%d benchmark(s) regressed by more than %.0f%%:%n", regressions.size(), threshold * 100);
+            regressions.forEach(line -> System.err.println("  " + line));
+            System.exit(1);
+        }
+        System.out.printf("No JMH regression above %.0f%% (%d benchmarks compared).%n",
+                threshold * 100, results.size());
+    }
+
+    static List<String> compare(Map<String, JsonNode> results, Map<String, JsonNode> baseline, double threshold) {
+        List<String> regressions = new ArrayList<>();
+
+        results.forEach((key, result) -> {
+            JsonNode reference = baseline.get(key);
+            if (reference == null) {
+                System.out.println("New benchmark (no baseline): " + key);
+                return;
+            }
+
+            double now = result.path("primaryMetric").path("score").asDouble();
+            double before = reference.path("primaryMetric").path("score").asDouble();
+            if (before <= 0) {
+                return;
+            }
+
+            boolean higherIsBetter = "thrpt".equals(result.path("mode").asText());
+            double change = higherIsBetter ? (before - now) / before : (now - before) / before;
+
+            if (change > threshold) {
+                regressions.add(String.format("%s: %.3f -> %.3f %s (%.1f%% worse)",
+                        key, before, now, result.path("primaryMetric").path("scoreUnit").asText(), change * 100));
+            }
+        });
+
+        baseline.keySet().stream()
+                .filter(key -> !results.containsKey(key))
+                .forEach(key -> System.out.println("Benchmark missing from this run: " + key));
+
+        return regressions;
+    }
+
+    private static Map<String, JsonNode> index(JsonNode runs) {
+        Map<String, JsonNode> byKey = new LinkedHashMap<>();
+        for (JsonNode run : runs) {
+            StringBuilder key = new StringBuilder(run.path("benchmark").asText())
+                    .append(" [").append(run.path("mode").asText()).append(']');
+
+            Iterator<Map.Entry<String, JsonNode>> params = run.path("params").fields();
+            while (params.hasNext()) {
+                Map.Entry<String, JsonNode> param = params.next();
+                key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+            byKey.put(key.toString(), run);
+        }
+        return byKey;
+    }
+}
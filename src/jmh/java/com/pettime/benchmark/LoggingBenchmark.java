@@ -0,0 +1,81 @@
+package com.pettime.benchmark;
+
+import com.pettime.dto.OffsetPageDto;
+import com.pettime.dto.PetResponseDto;
+import com.pettime.model.User;
+import com.pettime.model.UserRole;
+import com.pettime.repository.PetRepository;
+import com.pettime.repository.UserRepository;
+import com.pettime.service.PetService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PetService reads with their log lines enabled (DEBUG) or disabled (INFO),
+ * written through the async JSON pipeline of logback-spring.xml.
+ * Run with -prof gc to see that disabled, guarded log calls allocate nothing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class LoggingBenchmark {
+
+    @Param({"INFO", "DEBUG"})
+    private String serviceLogLevel;
+
+    private ConfigurableApplicationContext context;
+    private PetService petService;
+    private Long petId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("logging");
+        context.getBean(LoggingSystem.class).setLogLevel("com.pettime.service", LogLevel.valueOf(serviceLogLevel));
+
+        petService = context.getBean(PetService.class);
+
+        PetRepository pets = context.getBean(PetRepository.class);
+        User owner = Fixtures.saveUser(context.getBean(UserRepository.class), "owner@bench.ca", UserRole.CLIENT);
+        petId = Fixtures.savePet(pets, owner).getId();
+        for (int i = 0; i < 19; i++) {
+            Fixtures.savePet(pets, owner);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<PetResponseDto> findById() {
+        return petService.findById(petId);
+    }
+
+    @Benchmark
+    public OffsetPageDto<PetResponseDto> findPage() {
+        return petService.findPage(0, 20);
+    }
+}
@@ -0,0 +1,128 @@
+package com.pettime.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pettime.dto.AppointmentResponseDto;
+import com.pettime.dto.PetResponseDto;
+import com.pettime.dto.UserRequestDto;
+import com.pettime.dto.UserResponseDto;
+import com.pettime.mapper.UserMapper;
+import com.pettime.model.Appointment;
+import com.pettime.model.AppointmentStatus;
+import com.pettime.model.Pet;
+import com.pettime.model.User;
+import com.pettime.model.UserRole;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-DTO mapping, JSON serialization of the DTOs and request validation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+
+    private User user;
+    private Pet pet;
+    private Appointment appointment;
+
+    private UserResponseDto userDto;
+    private PetResponseDto petDto;
+    private AppointmentResponseDto appointmentDto;
+    private UserRequestDto userRequest;
+
+    private ObjectMapper objectMapper;
+    private Validator validator;
+
+    @Setup
+    public void setUp() {
+        user = User.builder()
+                .id(1L)
+                .name("Jean Dupont")
+                .email("jean@client.ca")
+                .password("$2a$10$hash")
+                .role(UserRole.CLIENT)
+                .build();
+        pet = Pet.builder()
+                .id(2L)
+                .name("Rex")
+                .species("Dog")
+                .breed("Labrador")
+                .age(4)
+                .owner(user)
+                .build();
+        LocalDateTime start = LocalDateTime.of(2030, 1, 7, 10, 0);
+        appointment = Appointment.builder()
+                .id(3L)
+                .pet(pet)
+                .petshop(User.builder().id(4L).build())
+                .startTime(start)
+                .endTime(start.plusHours(1))
+                .status(AppointmentStatus.PENDING)
+                .paid(false)
+                .build();
+
+        userDto = UserMapper.toResponseDto(user);
+        petDto = PetResponseDto.fromEntity(pet);
+        appointmentDto = AppointmentResponseDto.fromEntity(appointment);
+        userRequest = new UserRequestDto("Jean Dupont", "jean@client.ca", "s3cret-password");
+
+        // Same configuration Spring Boot applies to the application's ObjectMapper.
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        validator = Validation.buildDefaultValidatorFactory().getValidator();
+    }
+
+    @Benchmark
+    public UserResponseDto mapUser() {
+        return UserMapper.toResponseDto(user);
+    }
+
+    @Benchmark
+    public PetResponseDto mapPet() {
+        return PetResponseDto.fromEntity(pet);
+    }
+
+    @Benchmark
+    public AppointmentResponseDto mapAppointment() {
+        return AppointmentResponseDto.fromEntity(appointment);
+    }
+
+    @Benchmark
+    public byte[] serializeUser() throws Exception {
+        return objectMapper.writeValueAsBytes(userDto);
+    }
+
+    @Benchmark
+    public byte[] serializePet() throws Exception {
+        return objectMapper.writeValueAsBytes(petDto);
+    }
+
+    @Benchmark
+    public byte[] serializeAppointment() throws Exception {
+        return objectMapper.writeValueAsBytes(appointmentDto);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserRequestDto>> validateUserRequest() {
+        return validator.validate(userRequest);
+    }
+}
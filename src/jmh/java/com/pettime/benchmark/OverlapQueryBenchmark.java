@@ -0,0 +1,101 @@
+package com.pettime.benchmark;
+
+import com.pettime.model.Appointment;
+import com.pettime.model.AppointmentStatus;
+import com.pettime.model.Pet;
+import com.pettime.model.User;
+import com.pettime.model.UserRole;
+import com.pettime.repository.AppointmentRepository;
+import com.pettime.repository.PetRepository;
+import com.pettime.repository.UserRepository;
+import com.pettime.repository.projection.AppointmentWindow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overlap queries on a petshop calendar holding {@code density} appointments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OverlapQueryBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int density;
+
+    private ConfigurableApplicationContext context;
+    private AppointmentRepository appointments;
+    private Long petshopId;
+    private LocalDateTime base;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("overlap" + density);
+        appointments = context.getBean(AppointmentRepository.class);
+
+        UserRepository users = context.getBean(UserRepository.class);
+        PetRepository pets = context.getBean(PetRepository.class);
+
+        User petshop = Fixtures.saveUser(users, "shop@bench.ca", UserRole.PETSHOP);
+        Pet pet = Fixtures.savePet(pets, Fixtures.saveUser(users, "owner@bench.ca", UserRole.CLIENT));
+        petshopId = petshop.getId();
+        base = LocalDateTime.now().plusDays(1).withNano(0);
+
+        List<Appointment> calendar = new ArrayList<>(density);
+        for (int i = 0; i < density; i++) {
+            // One-hour bookings with a one-hour gap, so probes hit both busy and free time.
+            LocalDateTime start = base.plusHours(2L * i);
+            calendar.add(Appointment.builder()
+                    .pet(pet)
+                    .petshop(petshop)
+                    .startTime(start)
+                    .endTime(start.plusHours(1))
+                    .status(AppointmentStatus.PENDING)
+                    .paid(false)
+                    .build());
+        }
+        appointments.saveAll(calendar);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private LocalDateTime randomProbe() {
+        return base.plusMinutes(30L * ThreadLocalRandom.current().nextInt(density * 4));
+    }
+
+    @Benchmark
+    public boolean existsOverlapping() {
+        LocalDateTime start = randomProbe();
+        return appointments.existsOverlappingAppointment(petshopId, start, start.plusHours(1));
+    }
+
+    @Benchmark
+    public List<AppointmentWindow> findOverlappingWindows() {
+        LocalDateTime start = randomProbe();
+        return appointments.findOverlappingWindows(petshopId, start, start.plusHours(3));
+    }
+}
@@ -0,0 +1,56 @@
+package com.pettime.config;
+
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import com.pettime.security.TokenService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.util.Base64;
+
+/**
+ * 🔑 HMAC signing and verification of the API tokens.
+ * (FR) Signature et vérification HMAC des jetons de l'API.
+ */
+@Configuration
+public class JwtConfig {
+
+    private static final int MIN_SECRET_BYTES = 32;
+
+    @Bean
+    public SecretKey tokenSigningKey(TokenProperties properties) {
+        if (properties.getSecret() == null || properties.getSecret().isBlank()) {
+            throw new IllegalStateException("app.security.token.secret must be set");
+        }
+
+        byte[] secret = Base64.getDecoder().decode(properties.getSecret());
+        if (secret.length < MIN_SECRET_BYTES) {
+            throw new IllegalStateException(
+                    "app.security.token.secret must decode to at least " + MIN_SECRET_BYTES + " bytes");
+        }
+        return new SecretKeySpec(secret, "HmacSHA256");
+    }
+
+    @Bean
+    public JwtEncoder jwtEncoder(SecretKey tokenSigningKey) {
+        return new NimbusJwtEncoder(new ImmutableSecret<>(tokenSigningKey));
+    }
+
+    /**
+     * Decoder used by the resource server: accepts access tokens only.
+     */
+    @Bean
+    public JwtDecoder jwtDecoder(SecretKey tokenSigningKey, TokenProperties properties) {
+        NimbusJwtDecoder decoder = NimbusJwtDecoder.withSecretKey(tokenSigningKey)
+                .macAlgorithm(MacAlgorithm.HS256)
+                .build();
+        decoder.setJwtValidator(TokenService.validatorFor(properties.getIssuer(), TokenService.ACCESS));
+        return decoder;
+    }
+}
@@ -0,0 +1,47 @@
+package com.pettime.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Limits applied to login attempts before any password check.
+ * (FR) Limites appliquées aux tentatives de connexion avant toute vérification de mot de passe.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.security.login-throttle")
+@Getter
+@Setter
+public class LoginThrottleProperties {
+
+    private Duration window = Duration.ofMinutes(1);
+
+    /**
+     * Attempts allowed per client address within the window.
+     */
+    private int maxAttemptsPerAddress = 30;
+
+    /**
+     * Attempts allowed per account (email) within the window.
+     */
+    private int maxAttemptsPerAccount = 10;
+
+    /**
+     * Count-min sketch rows.
+     */
+    private int sketchDepth = 4;
+
+    /**
+     * Distinct client addresses per window the address sketch is sized for (2 MiB at the default).
+     */
+    private int expectedAddressesPerWindow = 250_000;
+
+    /**
+     * Distinct emails per window the account sketch is sized for (2 MiB at the default).
+     * A random-email flood is bounded by the attacking addresses × maxAttemptsPerAddress.
+     */
+    private int expectedAccountsPerWindow = 250_000;
+}
@@ -1,14 +1,60 @@
 package com.pettime.config;
 
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
+import java.util.function.IntToLongFunction;
+
+@Slf4j
 @Configuration
 public class PasswordConfig {
 
+    private static final String CALIBRATION_PASSWORD = "calibration-Password-1";
+    private static final int CALIBRATION_SAMPLES = 3;
+
     @Bean
-    public BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BCryptPasswordEncoder passwordEncoder(PasswordHashingProperties properties) {
+        if (properties.getStrength() != null) {
+            return new BCryptPasswordEncoder(properties.getStrength());
+        }
+
+        int strength = calibrateStrength(properties, PasswordConfig::measureHashNanos);
+        log.info("BCrypt strength calibrated to {} (target {} ms per hash)",
+                strength, properties.getTargetHashTime().toMillis());
+
+        return new BCryptPasswordEncoder(strength);
+    }
+
+    /**
+     * Picks the lowest strength whose hash takes at least the target time.
+     * Each strength step doubles the work, so a single measurement at the
+     * minimum strength is enough to extrapolate.
+     */
+    static int calibrateStrength(PasswordHashingProperties properties, IntToLongFunction hashNanos) {
+        int min = properties.getMinStrength();
+        long measured = Math.max(1, hashNanos.applyAsLong(min));
+        long target = properties.getTargetHashTime().toNanos();
+
+        int strength = min;
+        while (measured < target && strength < properties.getMaxStrength()) {
+            measured *= 2;
+            strength++;
+        }
+        return strength;
+    }
+
+    private static long measureHashNanos(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        encoder.encode(CALIBRATION_PASSWORD); // warm-up
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < CALIBRATION_SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(CALIBRATION_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
     }
 }
@@ -0,0 +1,50 @@
+package com.pettime.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * BCrypt cost calibration and hashing executor sizing.
+ * (FR) Calibrage du coût BCrypt et dimensionnement de l'exécuteur de hachage.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.security.password")
+@Getter
+@Setter
+public class PasswordHashingProperties {
+
+    /**
+     * Hashing latency the BCrypt strength is calibrated to at startup.
+     */
+    private Duration targetHashTime = Duration.ofMillis(250);
+
+    /**
+     * Bounds of the calibrated strength (log2 of the rounds).
+     */
+    private int minStrength = 10;
+    private int maxStrength = 14;
+
+    /**
+     * Fixed strength; skips calibration when set.
+     */
+    private Integer strength;
+
+    /**
+     * Threads dedicated to hashing; defaults to half the available cores.
+     */
+    private int poolSize = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    /**
+     * Hash requests allowed to wait for a thread before new ones are rejected.
+     */
+    private int queueCapacity = 64;
+
+    /**
+     * Longest a caller waits for its hash before the request is rejected.
+     */
+    private Duration maxWait = Duration.ofSeconds(2);
+}
@@ -0,0 +1,64 @@
+package com.pettime.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Settings of the Stripe payment webhook and of the confirmation batcher behind it.
+ * (FR) Paramètres du webhook de paiement Stripe et du regroupement des confirmations.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.stripe.webhook")
+@Getter
+@Setter
+public class PaymentWebhookProperties {
+
+    /**
+     * Signing secret of the webhook endpoint (whsec_...). Every event is rejected while it is blank.
+     */
+    private String secret;
+
+    /**
+     * Events signed longer ago than this are rejected, which bounds replays.
+     */
+    private Duration tolerance = Duration.ofMinutes(5);
+
+    /**
+     * Event ids remembered for deduplication; the oldest are evicted first.
+     */
+    private long idempotencyMaximumSize = 200_000;
+
+    /**
+     * How long an event id is remembered. Stripe retries a delivery for up to three days.
+     */
+    private Duration idempotencyRetention = Duration.ofDays(3);
+
+    /**
+     * Confirmations waiting for the batcher; deliveries are answered 503 once it is full.
+     */
+    private int queueCapacity = 50_000;
+
+    /**
+     * How long the batcher collects confirmations before writing them.
+     */
+    private Duration flushInterval = Duration.ofMillis(5);
+
+    /**
+     * Upper bound on appointments confirmed by one UPDATE.
+     */
+    private int maxBatchSize = 500;
+
+    /**
+     * Attempts per batch before its deliveries are answered 503, for Stripe to redeliver them.
+     */
+    private int maxAttempts = 5;
+
+    /**
+     * Delay between two attempts of a failed batch.
+     */
+    private Duration retryDelay = Duration.ofSeconds(1);
+}
@@ -0,0 +1,191 @@
+package com.pettime.config;
+
+import com.pettime.model.User;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Applies PostgreSQL-only schema objects that JPA annotations cannot express.
+ * (FR) Applique les objets de schéma propres à PostgreSQL non exprimables en JPA.
+
+ * Runs after Hibernate has created or updated the tables. Every statement is
+ * idempotent. On any other database (H2 in tests) nothing is executed and
+ * the application keeps its portable behavior.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class PostgresSchemaInitializer implements InitializingBean {
+
+    /**
+     * Name of the exclusion constraint preventing overlapping active appointments
+     * of one-at-a-time petshops (appointments.exclusive).
+     */
+    public static final String APPOINTMENT_OVERLAP_CONSTRAINT = "appointments_no_exclusive_overlap";
+
+    /**
+     * Earlier constraints with a wider predicate; dropped on startup.
+     */
+    static final List<String> LEGACY_APPOINTMENT_OVERLAP_CONSTRAINTS =
+            List.of("appointments_no_overlap", "appointments_no_active_overlap");
+
+    /**
+     * Partial index serving the overlap queries; cancelled and completed rows are not in it.
+     */
+    public static final String ACTIVE_APPOINTMENT_INDEX = "idx_appointments_active_petshop_time";
+
+    /**
+     * Partial index on end_time for the CONFIRMED rows scanned by the lifecycle job.
+     */
+    public static final String CONFIRMED_END_INDEX = "idx_appointments_confirmed_end";
+
+    /**
+     * Unique index making emails case-insensitively unique.
+     */
+    public static final String USER_EMAIL_LOWER_INDEX = "ux_users_email_lower";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SchedulingProperties schedulingProperties;
+
+    private volatile boolean exclusionConstraintActive;
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!isPostgres()) {
+            if (schedulingProperties.getConflictMode() == SchedulingProperties.ConflictMode.EXCLUSION_CONSTRAINT) {
+                log.warn("Exclusion-constraint scheduling requires PostgreSQL; using application-level overlap checks");
+            }
+            return;
+        }
+
+        alignAppointmentSequence();
+        applyUserEmailIndexes();
+        applyPartialAppointmentIndexes();
+
+        if (schedulingProperties.getConflictMode() == SchedulingProperties.ConflictMode.EXCLUSION_CONSTRAINT) {
+            exclusionConstraintActive = applyAppointmentExclusionConstraint();
+        }
+    }
+
+    /**
+     * Whether overlaps are rejected by the database itself.
+     * (FR) Indique si les chevauchements sont rejetés par la base de données.
+     */
+    public boolean isExclusionConstraintActive() {
+        return exclusionConstraintActive;
+    }
+
+    /**
+     * Moves appointments_seq past ids created while the table used IDENTITY,
+     * leaving room for one pooled allocation. Never moves the sequence backwards.
+     */
+    private void alignAppointmentSequence() {
+        try {
+            jdbcTemplate.execute("""
+                    SELECT setval('appointments_seq', GREATEST(
+                        (SELECT COALESCE(MAX(id), 0) FROM appointments) + 50,
+                        (SELECT last_value FROM appointments_seq)
+                    ))
+                    """);
+        } catch (DataAccessException ex) {
+            log.error("Could not align appointments_seq with existing appointment ids", ex);
+        }
+    }
+
+    /**
+     * Drops unnamed unique constraints on users.email left by earlier schemas, so a
+     * duplicate always reports uk_users_email, and adds the lower(email) unique index.
+     */
+    private void applyUserEmailIndexes() {
+        try {
+            jdbcTemplate.execute("""
+                    DO $$
+                    DECLARE legacy record;
+                    BEGIN
+                        IF EXISTS (SELECT 1 FROM pg_constraint WHERE conname = '%1$s') THEN
+                            FOR legacy IN
+                                SELECT con.conname
+                                FROM pg_constraint con
+                                JOIN pg_attribute att
+                                    ON att.attrelid = con.conrelid AND att.attnum = ALL (con.conkey)
+                                WHERE con.conrelid = 'users'::regclass
+                                  AND con.contype = 'u'
+                                  AND con.conname <> '%1$s'
+                                  AND cardinality(con.conkey) = 1
+                                  AND att.attname = 'email'
+                            LOOP
+                                EXECUTE format('ALTER TABLE users DROP CONSTRAINT %%I', legacy.conname);
+                            END LOOP;
+                        END IF;
+                    END $$
+                    """.formatted(User.EMAIL_CONSTRAINT));
+            jdbcTemplate.execute(
+                    "CREATE UNIQUE INDEX IF NOT EXISTS " + USER_EMAIL_LOWER_INDEX + " ON users (lower(email))"
+            );
+        } catch (DataAccessException ex) {
+            log.error("Could not apply user email indexes; emails remain unique case-sensitively only", ex);
+        }
+    }
+
+    private void applyPartialAppointmentIndexes() {
+        try {
+            jdbcTemplate.execute("""
+                    CREATE INDEX IF NOT EXISTS %s
+                        ON appointments (petshop_id, start_time, end_time)
+                        WHERE status IN ('PENDING', 'CONFIRMED')
+                    """.formatted(ACTIVE_APPOINTMENT_INDEX));
+            jdbcTemplate.execute(
+                    "CREATE INDEX IF NOT EXISTS " + CONFIRMED_END_INDEX
+                            + " ON appointments (end_time) WHERE status = 'CONFIRMED'"
+            );
+        } catch (DataAccessException ex) {
+            log.error("Could not create partial appointment indexes", ex);
+        }
+    }
+
+    private boolean applyAppointmentExclusionConstraint() {
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS btree_gist");
+            jdbcTemplate.execute("""
+                    ALTER TABLE appointments
+                        ADD COLUMN IF NOT EXISTS slot tsrange
+                        GENERATED ALWAYS AS (tsrange(start_time, end_time, '[)')) STORED
+                    """);
+            LEGACY_APPOINTMENT_OVERLAP_CONSTRAINTS.forEach(legacy ->
+                    jdbcTemplate.execute("ALTER TABLE appointments DROP CONSTRAINT IF EXISTS " + legacy));
+            jdbcTemplate.execute("""
+                    DO $$
+                    BEGIN
+                        IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = '%1$s') THEN
+                            ALTER TABLE appointments
+                                ADD CONSTRAINT %1$s
+                                EXCLUDE USING gist (petshop_id WITH =, slot WITH &&)
+                                WHERE (exclusive AND status IN ('PENDING', 'CONFIRMED'));
+                        END IF;
+                    END $$
+                    """.formatted(APPOINTMENT_OVERLAP_CONSTRAINT));
+
+            log.info("Appointment overlaps are enforced by constraint {}", APPOINTMENT_OVERLAP_CONSTRAINT);
+            return true;
+        } catch (DataAccessException ex) {
+            log.error("Could not install appointment exclusion constraint; using application-level overlap checks", ex);
+            return false;
+        }
+    }
+
+    private boolean isPostgres() {
+        String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName()
+        );
+        return "PostgreSQL".equalsIgnoreCase(product);
+    }
+}
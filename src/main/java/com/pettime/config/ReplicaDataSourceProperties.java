@@ -0,0 +1,45 @@
+package com.pettime.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Read replica used for read-only transactions.
+ * (FR) Réplique en lecture utilisée pour les transactions en lecture seule.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.datasource.replica")
+@Getter
+@Setter
+public class ReplicaDataSourceProperties {
+
+    /**
+     * Routes read-only transactions to the replica; when false everything uses spring.datasource.
+     */
+    private boolean enabled = false;
+
+    private String url;
+    private String username;
+    private String password;
+    private String driverClassName;
+    private int maximumPoolSize = 10;
+
+    /**
+     * Reads go back to the primary while the replica is further behind than this.
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    /**
+     * After a client's write commits, its reads stay on the primary for this long.
+     */
+    private Duration stickyWindow = Duration.ofSeconds(5);
+
+    /**
+     * How often the replica lag is measured.
+     */
+    private Duration lagCheckInterval = Duration.ofSeconds(2);
+}
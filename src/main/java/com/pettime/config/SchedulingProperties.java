@@ -0,0 +1,141 @@
+package com.pettime.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Tuning knobs for the appointment booking path.
+ * (FR) Paramètres du processus de réservation des rendez-vous.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.scheduling")
+@Getter
+@Setter
+public class SchedulingProperties {
+
+    /**
+     * Number of lock stripes used to serialize bookings of the same petshop.
+     * Rounded up to a power of two.
+     */
+    private int lockStripes = 256;
+
+    /**
+     * How overlapping bookings are prevented.
+     */
+    private ConflictMode conflictMode = ConflictMode.APPLICATION;
+
+    /**
+     * Business hours used by the availability search.
+     */
+    private LocalTime openingTime = LocalTime.of(9, 0);
+    private LocalTime closingTime = LocalTime.of(18, 0);
+    private Set<DayOfWeek> closedDays = EnumSet.of(DayOfWeek.SUNDAY);
+
+    /**
+     * Free slots start on multiples of this step, counted from midnight.
+     */
+    private Duration slotGranularity = Duration.ofMinutes(15);
+
+    /**
+     * Upper bounds for a single availability search.
+     */
+    private int maxAvailabilityResults = 100;
+    private Duration maxAvailabilityRange = Duration.ofDays(31);
+
+    /**
+     * In-memory petshop calendars are reloaded after this delay, so changes made
+     * by other instances or by bulk statements are picked up.
+     */
+    private Duration intervalIndexTtl = Duration.ofSeconds(30);
+
+    /**
+     * Background transition of finished appointments to COMPLETED.
+     */
+    private Lifecycle lifecycle = new Lifecycle();
+
+    /**
+     * Cancellation of PENDING appointments whose payment never arrived.
+     */
+    private PendingExpiry pendingExpiry = new PendingExpiry();
+
+    @Getter
+    @Setter
+    public static class Lifecycle {
+
+        private boolean enabled = true;
+
+        /**
+         * Delay between the end of one run and the start of the next.
+         */
+        private Duration interval = Duration.ofMinutes(5);
+
+        /**
+         * Rows updated per statement; each chunk commits on its own.
+         */
+        private int chunkSize = 500;
+
+        /**
+         * Upper bound on chunks per run, so one run never monopolizes the pool.
+         */
+        private int maxChunksPerRun = 200;
+
+        /**
+         * Time after endTime before an appointment counts as finished.
+         */
+        private Duration grace = Duration.ofMinutes(15);
+
+        /**
+         * Statement timeout of a single chunk.
+         */
+        private Duration chunkTimeout = Duration.ofSeconds(5);
+    }
+
+    @Getter
+    @Setter
+    public static class PendingExpiry {
+
+        private boolean enabled = true;
+
+        /**
+         * How long an unpaid appointment holds its slot after creation.
+         */
+        private Duration ttl = Duration.ofMinutes(15);
+
+        /**
+         * Resolution of the timing wheel.
+         */
+        private Duration tick = Duration.ofSeconds(1);
+
+        /**
+         * Maximum ids per cancel statement.
+         */
+        private int batchSize = 500;
+
+        /**
+         * Timer slots allocated up front; the wheel grows as needed.
+         */
+        private int initialCapacity = 4096;
+    }
+
+    public enum ConflictMode {
+
+        /**
+         * Overlap query followed by insert, serialized per petshop in the JVM.
+         */
+        APPLICATION,
+
+        /**
+         * PostgreSQL exclusion constraint on the appointments table; no pre-check.
+         * Falls back to APPLICATION on other databases.
+         */
+        EXCLUSION_CONSTRAINT
+    }
+}
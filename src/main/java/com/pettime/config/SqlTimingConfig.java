@@ -0,0 +1,81 @@
+package com.pettime.config;
+
+import com.pettime.metrics.RepositoryMethodTracker;
+import com.pettime.metrics.SqlTimingListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import javax.sql.DataSource;
+
+/**
+ * Wires JDBC statement timing: a proxy around the DataSource and a
+ * repository-method tracker on every Spring Data repository.
+ * (FR) Met en place le chronométrage JDBC : proxy du DataSource et suivi des méthodes de repository.
+
+ * Only the application DataSource (bean "dataSource") is wrapped; pools
+ * sitting behind it, such as the read-replica routing pools, are not, so
+ * each statement is timed once.
+
+ * Disabled with app.sql.timing.enabled=false, in which case nothing is
+ * wrapped and statements reach the pool directly.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.sql.timing", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SqlTimingConfig {
+
+    private static final String APPLICATION_DATA_SOURCE = "dataSource";
+
+    @Bean
+    public SqlTimingListener sqlTimingListener(SqlTimingProperties properties, MeterRegistry meterRegistry) {
+        return new SqlTimingListener(properties, meterRegistry);
+    }
+
+    @Bean
+    public static BeanPostProcessor sqlTimingDataSourcePostProcessor(
+            ObjectProvider<SqlTimingListener> listener,
+            ObjectProvider<SqlTimingProperties> properties
+    ) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource
+                        || !APPLICATION_DATA_SOURCE.equals(beanName)) {
+                    return bean;
+                }
+
+                SqlTimingListener timingListener = listener.getObject();
+                ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(dataSource)
+                        .name(beanName)
+                        .listener(timingListener);
+
+                if (properties.getObject().isCountRows()) {
+                    builder.proxyResultSet().methodListener(timingListener);
+                }
+                return builder.build();
+            }
+        };
+    }
+
+    @Bean
+    public static BeanPostProcessor repositoryMethodTrackerPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, information) -> proxyFactory.addAdvice(
+                                    new RepositoryMethodTracker(information.getRepositoryInterface()))
+                    ));
+                }
+                return bean;
+            }
+        };
+    }
+}
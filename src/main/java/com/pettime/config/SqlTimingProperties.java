@@ -0,0 +1,39 @@
+package com.pettime.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * JDBC statement timing and slow-query logging.
+ * (FR) Chronométrage des requêtes JDBC et journal des requêtes lentes.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.sql.timing")
+@Getter
+@Setter
+public class SqlTimingProperties {
+
+    /**
+     * Wraps the DataSource in a timing proxy; when false the driver is used directly.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Statements at or above this execution time are candidates for the slow-query log.
+     */
+    private Duration slowThreshold = Duration.ofMillis(200);
+
+    /**
+     * Fraction of slow statements actually logged (0.0 to 1.0).
+     */
+    private double slowSampleRate = 1.0;
+
+    /**
+     * Counts rows read from each result set; costs one check per ResultSet call.
+     */
+    private boolean countRows = true;
+}
@@ -0,0 +1,30 @@
+package com.pettime.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Settings of the signed access and refresh tokens.
+ * (FR) Paramètres des jetons d'accès et de rafraîchissement signés.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.security.token")
+@Getter
+@Setter
+public class TokenProperties {
+
+    /**
+     * Base64-encoded HMAC-SHA256 key, at least 32 bytes once decoded.
+     */
+    private String secret;
+
+    private String issuer = "pettime";
+
+    private Duration accessTokenTtl = Duration.ofMinutes(15);
+
+    private Duration refreshTokenTtl = Duration.ofDays(7);
+}
@@ -0,0 +1,30 @@
+package com.pettime.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Sizing of the in-process user lookup cache.
+ * (FR) Dimensionnement du cache local de recherche des utilisateurs.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.cache.users")
+@Getter
+@Setter
+public class UserCacheProperties {
+
+    /**
+     * Maximum number of users kept per cache (by id and by email).
+     */
+    private long maximumSize = 10_000;
+
+    /**
+     * Entries are reloaded from the database after this delay, as a safety net
+     * for changes made outside this instance.
+     */
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+}
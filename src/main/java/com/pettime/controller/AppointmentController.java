@@ -1,19 +1,32 @@
 package com.pettime.controller;
 
+import com.pettime.dto.AppointmentBatchRequestDto;
+import com.pettime.dto.AppointmentBatchResponseDto;
+import com.pettime.dto.AppointmentBatchResultDto;
 import com.pettime.dto.AppointmentRequestDto;
 import com.pettime.dto.AppointmentResponseDto;
+import com.pettime.dto.AvailableSlotDto;
 import com.pettime.model.Appointment;
 import com.pettime.service.AppointmentService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
 @RestController
 @RequestMapping("/appointments")
 @RequiredArgsConstructor
@@ -48,4 +61,55 @@ public class AppointmentController {
                 .status(HttpStatus.CREATED)
                 .body(response);
     }
+
+    @Operation(
+            summary = "Create appointments in batch",
+            description = "Books several slots at once and reports success or conflict for each slot"
+    )
+    @PostMapping("/batch")
+    public ResponseEntity<AppointmentBatchResponseDto> createBatch(
+            @Valid @RequestBody AppointmentBatchRequestDto request
+    ) {
+
+        List<AppointmentBatchResultDto> results =
+                appointmentService.createBatch(request.getSlots());
+
+        return ResponseEntity.ok(AppointmentBatchResponseDto.of(results));
+    }
+
+    @Operation(
+            summary = "Cancel appointment",
+            description = "Cancels an appointment and frees its slot immediately"
+    )
+    @PostMapping("/{id}/cancel")
+    public ResponseEntity<AppointmentResponseDto> cancel(@PathVariable Long id) {
+
+        Appointment appointment = appointmentService.cancel(id);
+
+        return ResponseEntity.ok(AppointmentResponseDto.fromEntity(appointment));
+    }
+
+    @Operation(
+            summary = "Search availability",
+            description = "Returns the first free slots of a petshop within business hours"
+    )
+    @GetMapping("/availability")
+    public ResponseEntity<List<AvailableSlotDto>> findAvailability(
+            @RequestParam Long petshopId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "60") long durationMinutes,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+
+        List<AvailableSlotDto> slots = appointmentService.findAvailability(
+                petshopId,
+                from,
+                to,
+                Duration.ofMinutes(durationMinutes),
+                limit
+        );
+
+        return ResponseEntity.ok(slots);
+    }
 }
@@ -0,0 +1,54 @@
+package com.pettime.controller;
+
+import com.pettime.dto.LoginRequestDto;
+import com.pettime.dto.RefreshTokenRequestDto;
+import com.pettime.dto.TokenResponseDto;
+import com.pettime.service.AuthService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST Controller for login and token refresh.
+ * (FR) Contrôleur REST pour la connexion et le rafraîchissement des jetons.
+ */
+@RestController
+@RequestMapping("/api/auth")
+@RequiredArgsConstructor
+@Tag(
+        name = "Authentication",
+        description = "Token issuance for API clients"
+)
+public class AuthController {
+
+    private final AuthService authService;
+
+    @Operation(
+            summary = "Login",
+            description = "Verifies email and password and returns an access token and a refresh token"
+    )
+    @PostMapping(value = "/login", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<TokenResponseDto> login(
+            @Valid @RequestBody LoginRequestDto request,
+            HttpServletRequest httpRequest
+    ) {
+        return ResponseEntity.ok(authService.login(request, httpRequest.getRemoteAddr()));
+    }
+
+    @Operation(
+            summary = "Refresh tokens",
+            description = "Exchanges a refresh token for a new access token and refresh token"
+    )
+    @PostMapping(value = "/refresh", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<TokenResponseDto> refresh(@Valid @RequestBody RefreshTokenRequestDto request) {
+        return ResponseEntity.ok(authService.refresh(request));
+    }
+}
@@ -0,0 +1,69 @@
+package com.pettime.controller;
+
+import com.pettime.service.ExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * REST Controller for full-table NDJSON exports (analytics sync).
+ * (FR) Contrôleur REST pour les exports NDJSON complets (synchronisation analytique).
+ */
+@RestController
+@RequestMapping("/api/export")
+@RequiredArgsConstructor
+@Tag(
+        name = "Export",
+        description = "Streaming exports of users, pets and appointments"
+)
+public class ExportController {
+
+    /**
+     * Newline-delimited JSON, one document per row.
+     */
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    private final ExportService exportService;
+
+    @Operation(
+            summary = "Export users",
+            description = "Streams every user as one JSON document per line"
+    )
+    @GetMapping(value = "/users", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        return ndjson(exportService::exportUsers);
+    }
+
+    @Operation(
+            summary = "Export pets",
+            description = "Streams every pet as one JSON document per line"
+    )
+    @GetMapping(value = "/pets", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportPets() {
+        return ndjson(exportService::exportPets);
+    }
+
+    @Operation(
+            summary = "Export appointments",
+            description = "Streams every appointment as one JSON document per line"
+    )
+    @GetMapping(value = "/appointments", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportAppointments() {
+        return ndjson(exportService::exportAppointments);
+    }
+
+    /**
+     * The body runs on an async thread, so each export opens its own read-only transaction.
+     */
+    private ResponseEntity<StreamingResponseBody> ndjson(StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                .body(body);
+    }
+}
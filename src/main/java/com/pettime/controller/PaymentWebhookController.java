@@ -0,0 +1,50 @@
+package com.pettime.controller;
+
+import com.pettime.security.WebhookSignatureVerifier;
+import com.pettime.service.payment.PaymentWebhookService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * REST Controller receiving Stripe payment events.
+ * (FR) Contrôleur REST recevant les événements de paiement Stripe.
+
+ * The body is read as a raw string because the signature covers the exact bytes sent.
+ */
+@RestController
+@RequestMapping("/api/payments")
+@RequiredArgsConstructor
+@Tag(
+        name = "Payments",
+        description = "Payment provider callbacks"
+)
+public class PaymentWebhookController {
+
+    private final PaymentWebhookService paymentWebhookService;
+
+    @Operation(
+            summary = "Stripe webhook",
+            description = "Verifies the Stripe signature and answers once the appointment confirmation is "
+                    + "committed; redelivered events are acknowledged without effect"
+    )
+    @PostMapping(value = "/webhook", produces = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<ResponseEntity<Map<String, String>>> receive(
+            @RequestBody String payload,
+            @RequestHeader(value = WebhookSignatureVerifier.HEADER, required = false) String signature
+    ) {
+        return paymentWebhookService.receive(payload, signature)
+                .thenApply(outcome -> ResponseEntity.ok(Map.of("outcome", outcome.name().toLowerCase(Locale.ROOT))));
+    }
+}
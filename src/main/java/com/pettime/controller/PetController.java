@@ -1,4 +1,58 @@
 package com.pettime.controller;
 
+import com.pettime.dto.CursorPageDto;
+import com.pettime.dto.OffsetPageDto;
+import com.pettime.dto.PetResponseDto;
+import com.pettime.service.PetService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST Controller for managing pets.
+ * (FR) Contrôleur REST pour la gestion des animaux.
+ */
+@RestController
+@RequestMapping("/api/pets")
+@RequiredArgsConstructor
+@Tag(
+        name = "Pets",
+        description = "Operations related to pet management"
+)
 public class PetController {
+
+    private final PetService petService;
+
+    /**
+     * Retrieve pets page by page, ordered by id.
+     */
+    @Operation(
+            summary = "List pets",
+            description = "Retrieves pets with cursor pagination; pass nextCursor to get the following page"
+    )
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<CursorPageDto<PetResponseDto>> getAllPets(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(petService.findAfter(cursor, size));
+    }
+
+    /**
+     * Retrieve pets by page number, with totals (admin UIs).
+     */
+    @Operation(
+            summary = "List pets by page",
+            description = "Retrieves pets with offset pagination and total counts"
+    )
+    @GetMapping(value = "/page", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<OffsetPageDto<PetResponseDto>> getPetsPage(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(petService.findPage(page, size));
+    }
 }
@@ -1,5 +1,7 @@
 package com.pettime.controller;
 
+import com.pettime.dto.CursorPageDto;
+import com.pettime.dto.OffsetPageDto;
 import com.pettime.dto.UserRequestDto;
 import com.pettime.dto.UserResponseDto;
 import com.pettime.service.UserService;
@@ -12,8 +14,6 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 /**
  * REST Controller for managing users.
  * (FR) Contrôleur REST pour la gestion des utilisateurs.
@@ -30,15 +30,33 @@ public class UserController {
     private final UserService userService;
 
     /**
-     * Retrieve all users.
+     * Retrieve users page by page, ordered by id.
      */
     @Operation(
             summary = "List users",
-            description = "Retrieves all registered users"
+            description = "Retrieves users with cursor pagination; pass nextCursor to get the following page"
     )
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<UserResponseDto>> getAllUsers() {
-        return ResponseEntity.ok(userService.findAll());
+    public ResponseEntity<CursorPageDto<UserResponseDto>> getAllUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(userService.findAfter(cursor, size));
+    }
+
+    /**
+     * Retrieve users by page number, with totals (admin UIs).
+     */
+    @Operation(
+            summary = "List users by page",
+            description = "Retrieves users with offset pagination and total counts"
+    )
+    @GetMapping(value = "/page", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<OffsetPageDto<UserResponseDto>> getUsersPage(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(userService.findPage(page, size));
     }
 
     /**
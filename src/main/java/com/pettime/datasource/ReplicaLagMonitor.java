@@ -0,0 +1,101 @@
+package com.pettime.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how far the replica is behind the primary.
+ * (FR) Mesure le retard de la réplique sur le primaire.
+
+ * On PostgreSQL the lag is the age of the last replayed transaction, or zero
+ * when everything received has been replayed. Other databases (H2 stand-ins)
+ * report zero. A failed probe marks the replica unusable until the next
+ * successful one. Published as datasource.replica.lag (seconds).
+ */
+@Slf4j
+public class ReplicaLagMonitor implements DisposableBean {
+
+    private static final String POSTGRES_LAG_QUERY = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() THEN 0
+                WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+            END
+            """;
+
+    private final DataSource replica;
+    private final long maxLagMillis;
+    private final ScheduledExecutorService scheduler;
+
+    private volatile long lagMillis;
+    private volatile boolean reachable = true;
+
+    public ReplicaLagMonitor(DataSource replica, Duration maxLag, Duration checkInterval, MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.maxLagMillis = maxLag.toMillis();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("datasource.replica.lag", this, monitor -> monitor.lagMillis / 1000.0)
+                .description("Replication lag of the read replica")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+
+        scheduler.scheduleWithFixedDelay(this::check, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Whether reads may go to the replica right now.
+     * (FR) Indique si les lectures peuvent aller vers la réplique.
+     */
+    public boolean isReplicaUsable() {
+        return reachable && lagMillis <= maxLagMillis;
+    }
+
+    void check() {
+        try (Connection connection = replica.getConnection()) {
+            lagMillis = measureLagMillis(connection);
+            if (!reachable) {
+                log.info("Read replica reachable again, lag {} ms", lagMillis);
+            }
+            reachable = true;
+        } catch (SQLException | RuntimeException ex) {
+            if (reachable) {
+                log.warn("Read replica unreachable; reads fall back to the primary", ex);
+            }
+            reachable = false;
+        }
+    }
+
+    private static long measureLagMillis(Connection connection) throws SQLException {
+        if (!"PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName())) {
+            return 0;
+        }
+
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(POSTGRES_LAG_QUERY)) {
+            resultSet.next();
+            return Math.round(resultSet.getDouble(1) * 1000);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,19 @@
+package com.pettime.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AppointmentBatchRequestDto {
+
+    @NotEmpty(message = "At least one slot is required")
+    @Size(max = 500, message = "A batch can contain at most 500 slots")
+    private List<@Valid AppointmentRequestDto> slots;
+}
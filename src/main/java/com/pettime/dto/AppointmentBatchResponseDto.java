@@ -0,0 +1,28 @@
+package com.pettime.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AppointmentBatchResponseDto {
+
+    private int created;
+    private int rejected;
+    private List<AppointmentBatchResultDto> results;
+
+    public static AppointmentBatchResponseDto of(List<AppointmentBatchResultDto> results) {
+        int created = (int) results.stream()
+                .filter(result -> AppointmentBatchResultDto.CREATED.equals(result.getStatus()))
+                .count();
+
+        return AppointmentBatchResponseDto.builder()
+                .created(created)
+                .rejected(results.size() - created)
+                .results(results)
+                .build();
+    }
+}
@@ -0,0 +1,42 @@
+package com.pettime.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+/**
+ * Outcome of one slot of a batch booking, in request order.
+ * (FR) Résultat d'un créneau d'une réservation groupée, dans l'ordre de la requête.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AppointmentBatchResultDto {
+
+    public static final String CREATED = "CREATED";
+    public static final String CONFLICT = "CONFLICT";
+    public static final String NOT_FOUND = "NOT_FOUND";
+    public static final String INVALID = "INVALID";
+
+    private int index;
+    private String status;
+    private Long appointmentId;
+    private String message;
+
+    public static AppointmentBatchResultDto created(int index, Long appointmentId) {
+        return AppointmentBatchResultDto.builder()
+                .index(index)
+                .status(CREATED)
+                .appointmentId(appointmentId)
+                .build();
+    }
+
+    public static AppointmentBatchResultDto rejected(int index, String status, String message) {
+        return AppointmentBatchResultDto.builder()
+                .index(index)
+                .status(status)
+                .message(message)
+                .build();
+    }
+}
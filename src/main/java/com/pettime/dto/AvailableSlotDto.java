@@ -0,0 +1,20 @@
+package com.pettime.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AvailableSlotDto {
+
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+
+    /**
+     * Appointments that can still be booked on this slot.
+     */
+    private int remainingCapacity;
+}
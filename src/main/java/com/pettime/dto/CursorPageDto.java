@@ -0,0 +1,23 @@
+package com.pettime.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing.
+ * (FR) Une page d'une liste paginée par curseur.
+
+ * nextCursor is opaque to clients and absent on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CursorPageDto<T> {
+
+    private List<T> items;
+    private String nextCursor;
+}
@@ -0,0 +1,33 @@
+package com.pettime.dto;
+
+import lombok.*;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * One page of an offset-paginated listing, with totals for admin UIs.
+ * (FR) Une page d'une liste paginée par décalage, avec totaux pour l'administration.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OffsetPageDto<T> {
+
+    private List<T> items;
+    private int page;
+    private int size;
+    private long totalElements;
+    private int totalPages;
+
+    public static <T> OffsetPageDto<T> from(Page<T> page) {
+        return OffsetPageDto.<T>builder()
+                .items(page.getContent())
+                .page(page.getNumber())
+                .size(page.getSize())
+                .totalElements(page.getTotalElements())
+                .totalPages(page.getTotalPages())
+                .build();
+    }
+}
@@ -0,0 +1,28 @@
+package com.pettime.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TokenResponseDto {
+
+    private String accessToken;
+    private String refreshToken;
+    private String tokenType;
+
+    /**
+     * Access token lifetime in seconds.
+     */
+    private long expiresIn;
+
+    public static TokenResponseDto bearer(String accessToken, String refreshToken, long expiresIn) {
+        return TokenResponseDto.builder()
+                .accessToken(accessToken)
+                .refreshToken(refreshToken)
+                .tokenType("Bearer")
+                .expiresIn(expiresIn)
+                .build();
+    }
+}
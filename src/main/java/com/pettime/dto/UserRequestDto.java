@@ -1,6 +1,7 @@
 package com.pettime.dto;
 
 import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import lombok.*;
 
@@ -20,4 +21,10 @@ public class UserRequestDto {
 
     @NotBlank(message = "Password is required")
     private String password;
+
+    /**
+     * Simultaneous appointments a petshop can serve; unchanged when omitted.
+     */
+    @Min(value = 1, message = "Capacity must be at least 1")
+    private Integer capacity;
 }
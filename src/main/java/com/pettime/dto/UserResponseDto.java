@@ -14,6 +14,7 @@ public class UserResponseDto {
     private String name;
     private String email;
     private UserRole role;
+    private Integer capacity;
 
     public static UserResponseDto fromEntity(User user) {
         if (user == null) return null;
@@ -22,6 +23,7 @@ public class UserResponseDto {
                 .name(user.getName())
                 .email(user.getEmail())
                 .role(user.getRole())
+                .capacity(user.getCapacity())
                 .build();
     }
 }
@@ -0,0 +1,109 @@
+package com.pettime.exception;
+
+import com.pettime.config.PostgresSchemaInitializer;
+import com.pettime.model.User;
+
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Helpers to recognize which database constraint caused an integrity violation.
+ * (FR) Utilitaires pour identifier la contrainte de base de données violée.
+ */
+public final class ConstraintViolations {
+
+    /**
+     * SQLSTATE of a foreign key violation; H2 reports a missing parent row as 23506.
+     */
+    private static final Set<String> FOREIGN_KEY_STATES = Set.of("23503", "23506");
+
+    /**
+     * SQLSTATE of a row still referenced on delete (H2), or of either side of a foreign key (PostgreSQL).
+     */
+    private static final String STILL_REFERENCED_STATE = "23503";
+
+    /**
+     * PostgreSQL message prefix of the insert/update side of a foreign key violation.
+     */
+    private static final String MISSING_PARENT_MESSAGE = "insert or update on table";
+
+    private ConstraintViolations() {
+    }
+
+    /**
+     * Returns true when the violation comes from a foreign key, e.g. a reference
+     * to a row that does not exist.
+     */
+    public static boolean isForeignKeyViolation(Throwable ex) {
+        for (Throwable current = ex; current != null; current = current.getCause()) {
+            if (current instanceof SQLException sql && FOREIGN_KEY_STATES.contains(sql.getSQLState())) {
+                return true;
+            }
+
+            if (current.getCause() == current) {
+                break;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns true when the violation comes from deleting (or re-keying) a row
+     * that other rows still reference, e.g. a user who still owns pets.
+     */
+    public static boolean isStillReferenced(Throwable ex) {
+        for (Throwable current = ex; current != null; current = current.getCause()) {
+            if (current instanceof SQLException sql && STILL_REFERENCED_STATE.equals(sql.getSQLState())) {
+                String message = sql.getMessage();
+                return message == null || !message.toLowerCase(Locale.ROOT).contains(MISSING_PARENT_MESSAGE);
+            }
+
+            if (current.getCause() == current) {
+                break;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns true when the violation comes from the unique email constraint
+     * or the case-insensitive email index.
+     */
+    public static boolean isEmailTaken(Throwable ex) {
+        return isViolationOf(ex, User.EMAIL_CONSTRAINT)
+                || isViolationOf(ex, PostgresSchemaInitializer.USER_EMAIL_LOWER_INDEX);
+    }
+
+    /**
+     * Returns true when the exception, or one of its causes, reports a violation
+     * of the given constraint, either by constraint name or in the driver message.
+     *
+     * @param ex             the exception raised by the persistence layer
+     * @param constraintName the constraint name, as declared in the schema
+     */
+    public static boolean isViolationOf(Throwable ex, String constraintName) {
+        String expected = constraintName.toLowerCase(Locale.ROOT);
+
+        for (Throwable current = ex; current != null; current = current.getCause()) {
+            if (current instanceof org.hibernate.exception.ConstraintViolationException violation
+                    && violation.getConstraintName() != null
+                    && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(expected)) {
+                return true;
+            }
+
+            String message = current.getMessage();
+            if (message != null && message.toLowerCase(Locale.ROOT).contains(expected)) {
+                return true;
+            }
+
+            if (current.getCause() == current) {
+                break;
+            }
+        }
+
+        return false;
+    }
+}
@@ -1,25 +1,46 @@
 package com.pettime.exception;
 
+import com.pettime.config.PostgresSchemaInitializer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * Global exception handler for PetTime API.
  * (FR) Gestionnaire global des exceptions pour l’API PetTime.
+
+ * Every outcome is counted as api.errors{exception, status}.
  */
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private final MeterRegistry meterRegistry;
+
+    // Web slice tests run without metrics auto-configuration
+    public GlobalExceptionHandler(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+    }
+
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<Map<String, Object>> handleResourceNotFound(
             ResourceNotFoundException ex
     ) {
+        countError(ex, HttpStatus.NOT_FOUND);
+
         Map<String, Object> error = new HashMap<>();
         error.put("timestamp", Instant.now());
         error.put("status", HttpStatus.NOT_FOUND.value());
@@ -33,6 +54,8 @@ public class GlobalExceptionHandler {
     public ResponseEntity<Map<String, Object>> handleAppointmentConflict(
             AppointmentConflictException ex
     ) {
+        countError(ex, HttpStatus.CONFLICT);
+
         Map<String, Object> error = new HashMap<>();
         error.put("timestamp", Instant.now());
         error.put("status", HttpStatus.CONFLICT.value());
@@ -42,10 +65,183 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
     }
 
+    @ExceptionHandler(EmailAlreadyExistsException.class)
+    public ResponseEntity<Map<String, Object>> handleEmailAlreadyExists(
+            EmailAlreadyExistsException ex
+    ) {
+        countError(ex, HttpStatus.CONFLICT);
+
+        Map<String, Object> error = new HashMap<>();
+        error.put("timestamp", Instant.now());
+        error.put("status", HttpStatus.CONFLICT.value());
+        error.put("error", "Conflict");
+        error.put("message", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    @ExceptionHandler(InvalidUserDataException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidData(
+            InvalidUserDataException ex
+    ) {
+        countError(ex, HttpStatus.BAD_REQUEST);
+
+        Map<String, Object> error = new HashMap<>();
+        error.put("timestamp", Instant.now());
+        error.put("status", HttpStatus.BAD_REQUEST.value());
+        error.put("error", "Bad Request");
+        error.put("message", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    @ExceptionHandler(InvalidWebhookException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidWebhook(
+            InvalidWebhookException ex
+    ) {
+        countError(ex, HttpStatus.BAD_REQUEST);
+
+        Map<String, Object> error = new HashMap<>();
+        error.put("timestamp", Instant.now());
+        error.put("status", HttpStatus.BAD_REQUEST.value());
+        error.put("error", "Bad Request");
+        error.put("message", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    @ExceptionHandler(InvalidCredentialsException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidCredentials(
+            InvalidCredentialsException ex
+    ) {
+        countError(ex, HttpStatus.UNAUTHORIZED);
+
+        Map<String, Object> error = new HashMap<>();
+        error.put("timestamp", Instant.now());
+        error.put("status", HttpStatus.UNAUTHORIZED.value());
+        error.put("error", "Unauthorized");
+        error.put("message", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
+    }
+
+    @ExceptionHandler(HashingCapacityExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleHashingCapacityExceeded(
+            HashingCapacityExceededException ex
+    ) {
+        countError(ex, HttpStatus.TOO_MANY_REQUESTS);
+
+        Map<String, Object> error = new HashMap<>();
+        error.put("timestamp", Instant.now());
+        error.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        error.put("error", "Too Many Requests");
+        error.put("message", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+    }
+
+    @ExceptionHandler(LoginThrottledException.class)
+    public ResponseEntity<Map<String, Object>> handleLoginThrottled(
+            LoginThrottledException ex
+    ) {
+        countError(ex, HttpStatus.TOO_MANY_REQUESTS);
+
+        Map<String, Object> error = new HashMap<>();
+        error.put("timestamp", Instant.now());
+        error.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        error.put("error", "Too Many Requests");
+        error.put("message", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(error);
+    }
+
+    /**
+     * The payment event was not applied: Stripe redelivers it after a 503.
+     */
+    @ExceptionHandler({PaymentBacklogFullException.class, PaymentConfirmationFailedException.class})
+    public ResponseEntity<Map<String, Object>> handlePaymentNotApplied(
+            BusinessException ex
+    ) {
+        countError(ex, HttpStatus.SERVICE_UNAVAILABLE);
+
+        Map<String, Object> error = new HashMap<>();
+        error.put("timestamp", Instant.now());
+        error.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        error.put("error", "Service Unavailable");
+        error.put("message", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+    }
+
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ResponseEntity<Map<String, Object>> handleValidation(
+            MethodArgumentNotValidException ex
+    ) {
+        countError(ex, HttpStatus.BAD_REQUEST);
+
+        String message = ex.getBindingResult().getAllErrors().stream()
+                .map(DefaultMessageSourceResolvable::getDefaultMessage)
+                .collect(Collectors.joining("; "));
+
+        Map<String, Object> error = new HashMap<>();
+        error.put("timestamp", Instant.now());
+        error.put("status", HttpStatus.BAD_REQUEST.value());
+        error.put("error", "Bad Request");
+        error.put("message", message);
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    /**
+     * Only the constraints that mean "already taken" or "still in use" become
+     * 409: deleting a row that other rows reference is a conflict with the
+     * current state, while inserting a reference to a missing row is bad
+     * input (400). NOT NULL, check and unknown violations are bugs and go to
+     * the generic handler.
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<Map<String, Object>> handleDataIntegrityViolation(
+            DataIntegrityViolationException ex
+    ) {
+        HttpStatus status;
+        String message;
+        if (ConstraintViolations.isViolationOf(ex, PostgresSchemaInitializer.APPOINTMENT_OVERLAP_CONSTRAINT)) {
+            status = HttpStatus.CONFLICT;
+            message = new AppointmentConflictException().getMessage();
+        } else if (ConstraintViolations.isEmailTaken(ex)) {
+            status = HttpStatus.CONFLICT;
+            message = "Email already exists";
+        } else if (ConstraintViolations.isStillReferenced(ex)) {
+            status = HttpStatus.CONFLICT;
+            message = "Resource is still referenced by other data";
+        } else if (ConstraintViolations.isForeignKeyViolation(ex)) {
+            status = HttpStatus.BAD_REQUEST;
+            message = "Request references data that does not exist";
+        } else {
+            return handleGenericException(ex);
+        }
+
+        countError(ex, status);
+
+        Map<String, Object> error = new HashMap<>();
+        error.put("timestamp", Instant.now());
+        error.put("status", status.value());
+        error.put("error", status.getReasonPhrase());
+        error.put("message", message);
+
+        return ResponseEntity.status(status).body(error);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handleGenericException(
             Exception ex
     ) {
+        countError(ex, HttpStatus.INTERNAL_SERVER_ERROR);
+
         Map<String, Object> error = new HashMap<>();
         error.put("timestamp", Instant.now());
         error.put("status", HttpStatus.INTERNAL_SERVER_ERROR.value());
@@ -54,4 +250,13 @@ public class GlobalExceptionHandler {
 
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
     }
+
+    private void countError(Exception ex, HttpStatus status) {
+        Counter.builder("api.errors")
+                .description("Requests answered by the global exception handler")
+                .tag("exception", ex.getClass().getSimpleName())
+                .tag("status", String.valueOf(status.value()))
+                .register(meterRegistry)
+                .increment();
+    }
 }
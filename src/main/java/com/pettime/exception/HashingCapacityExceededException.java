@@ -0,0 +1,8 @@
+package com.pettime.exception;
+
+public class HashingCapacityExceededException extends BusinessException {
+
+    public HashingCapacityExceededException() {
+        super("Too many password operations in progress, please retry shortly");
+    }
+}
@@ -0,0 +1,12 @@
+package com.pettime.exception;
+
+public class InvalidCredentialsException extends BusinessException {
+
+    public InvalidCredentialsException() {
+        super("Invalid email or password");
+    }
+
+    public InvalidCredentialsException(String message) {
+        super(message);
+    }
+}
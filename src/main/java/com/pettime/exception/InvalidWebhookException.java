@@ -0,0 +1,8 @@
+package com.pettime.exception;
+
+public class InvalidWebhookException extends BusinessException {
+
+    public InvalidWebhookException(String message) {
+        super(message);
+    }
+}
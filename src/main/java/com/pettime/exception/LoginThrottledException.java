@@ -0,0 +1,8 @@
+package com.pettime.exception;
+
+public class LoginThrottledException extends BusinessException {
+
+    public LoginThrottledException() {
+        super("Too many login attempts, please retry later");
+    }
+}
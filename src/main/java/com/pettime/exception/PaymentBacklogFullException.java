@@ -0,0 +1,8 @@
+package com.pettime.exception;
+
+public class PaymentBacklogFullException extends BusinessException {
+
+    public PaymentBacklogFullException() {
+        super("Too many payment events waiting to be applied, please retry shortly");
+    }
+}
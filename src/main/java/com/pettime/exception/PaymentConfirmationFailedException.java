@@ -0,0 +1,8 @@
+package com.pettime.exception;
+
+public class PaymentConfirmationFailedException extends BusinessException {
+
+    public PaymentConfirmationFailedException(Throwable cause) {
+        super("Payment event could not be applied, please retry shortly", cause);
+    }
+}
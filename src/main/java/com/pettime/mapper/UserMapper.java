@@ -3,6 +3,7 @@ package com.pettime.mapper;
 import com.pettime.dto.UserRequestDto;
 import com.pettime.dto.UserResponseDto;
 import com.pettime.model.User;
+import com.pettime.service.cache.CachedUser;
 
 public class UserMapper {
 
@@ -16,8 +17,9 @@ public class UserMapper {
 
         return User.builder()
                 .name(dto.getName())
-                .email(dto.getEmail())
+                .email(User.normalizeEmail(dto.getEmail()))
                 .password(dto.getPassword())
+                .capacity(dto.getCapacity() != null ? dto.getCapacity() : 1)
                 .build();
     }
 
@@ -30,6 +32,20 @@ public class UserMapper {
                 .id(user.getId())
                 .name(user.getName())
                 .email(user.getEmail())
+                .capacity(user.getCapacity())
+                .build();
+    }
+
+    public static UserResponseDto toResponseDto(CachedUser user) {
+        if (user == null) {
+            return null;
+        }
+
+        return UserResponseDto.builder()
+                .id(user.id())
+                .name(user.name())
+                .email(user.email())
+                .capacity(user.capacity())
                 .build();
     }
 }
\ No newline at end of file
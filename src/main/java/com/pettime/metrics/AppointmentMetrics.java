@@ -0,0 +1,64 @@
+package com.pettime.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Timers for the stages of a booking and counters for booking conflicts.
+ * (FR) Chronomètres des étapes d'une réservation et compteurs de conflits.
+
+ * Meters are registered once, so the booking path only pays for the
+ * recording itself:
+ * - appointment.create.stage{stage=pet_load|petshop_load|overlap_check|save}
+ * - appointment.conflicts{source=index|query|constraint|batch}
+ */
+@Component
+public class AppointmentMetrics {
+
+    public enum Stage {
+        PET_LOAD, PETSHOP_LOAD, OVERLAP_CHECK, SAVE
+    }
+
+    public enum ConflictSource {
+        INDEX, QUERY, CONSTRAINT, BATCH
+    }
+
+    private final Map<Stage, Timer> stageTimers = new EnumMap<>(Stage.class);
+    private final Map<ConflictSource, Counter> conflictCounters = new EnumMap<>(ConflictSource.class);
+
+    public AppointmentMetrics(MeterRegistry meterRegistry) {
+        for (Stage stage : Stage.values()) {
+            stageTimers.put(stage, Timer.builder("appointment.create.stage")
+                    .description("Time spent in each stage of an appointment booking")
+                    .tag("stage", stage.name().toLowerCase(Locale.ROOT))
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+
+        for (ConflictSource source : ConflictSource.values()) {
+            conflictCounters.put(source, Counter.builder("appointment.conflicts")
+                    .description("Bookings rejected because the slot was taken")
+                    .tag("source", source.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Runs one booking stage and records its duration, even when it throws.
+     * (FR) Exécute une étape de réservation et enregistre sa durée.
+     */
+    public <T> T time(Stage stage, Supplier<T> step) {
+        return stageTimers.get(stage).record(step);
+    }
+
+    public void conflict(ConflictSource source) {
+        conflictCounters.get(source).increment();
+    }
+}
@@ -0,0 +1,49 @@
+package com.pettime.metrics;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * Remembers which repository method the current thread is executing.
+ * (FR) Mémorise la méthode de repository exécutée par le thread courant.
+
+ * Added as advice to every Spring Data repository proxy, so JDBC statements
+ * can be attributed to e.g. "AppointmentRepository.existsOverlappingAppointment".
+ * Nested calls restore the outer method on exit.
+ */
+public final class RepositoryMethodTracker implements MethodInterceptor {
+
+    public static final String NONE = "none";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private final String repositoryName;
+
+    public RepositoryMethodTracker(Class<?> repositoryInterface) {
+        this.repositoryName = repositoryInterface.getSimpleName();
+    }
+
+    /**
+     * Repository method running on this thread, or {@link #NONE}.
+     * (FR) Méthode de repository en cours sur ce thread, ou {@link #NONE}.
+     */
+    public static String current() {
+        String method = CURRENT.get();
+        return method != null ? method : NONE;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        String previous = CURRENT.get();
+        CURRENT.set(repositoryName + "." + invocation.getMethod().getName());
+        try {
+            return invocation.proceed();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
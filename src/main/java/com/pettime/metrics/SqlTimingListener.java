@@ -0,0 +1,226 @@
+package com.pettime.metrics;
+
+import com.pettime.config.SqlTimingProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Times every JDBC statement and logs the slow ones.
+ * (FR) Chronomètre chaque requête JDBC et journalise les plus lentes.
+
+ * For each statement:
+ * - execution time goes to sql.statement{method, type}, a histogram timer
+ * - rows read or updated go to sql.statement.rows{method, type}
+ * - statements at or above the threshold are logged at WARN, sampled
+ * "method" is the calling repository method from {@link RepositoryMethodTracker}.
+
+ * Rows of a query are only known once its result set is consumed, so a
+ * query stays pending on its thread until the result set or statement is
+ * closed. Bind parameters are never logged.
+ */
+@Slf4j
+public class SqlTimingListener implements QueryExecutionListener, MethodExecutionListener {
+
+    private static final int MAX_PENDING_PER_THREAD = 256;
+
+    private final MeterRegistry meterRegistry;
+    private final long slowThresholdMillis;
+    private final double slowSampleRate;
+    private final boolean countRows;
+
+    private final ConcurrentMap<MeterKey, StatementMeters> meters = new ConcurrentHashMap<>();
+    private final ThreadLocal<Map<Statement, PendingQuery>> pending = ThreadLocal.withInitial(IdentityHashMap::new);
+
+    public SqlTimingListener(SqlTimingProperties properties, MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.slowThresholdMillis = properties.getSlowThreshold().toMillis();
+        this.slowSampleRate = properties.getSlowSampleRate();
+        this.countRows = properties.isCountRows();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        String sql = sqlOf(queryInfoList);
+        String method = RepositoryMethodTracker.current();
+        long elapsedMillis = execInfo.getElapsedTime();
+
+        StatementMeters statementMeters = metersFor(method, typeOf(sql));
+        statementMeters.duration().record(elapsedMillis, TimeUnit.MILLISECONDS);
+
+        if (countRows && execInfo.getResult() instanceof ResultSet) {
+            Map<Statement, PendingQuery> queries = pending.get();
+            if (queries.size() >= MAX_PENDING_PER_THREAD) {
+                // Result sets leaked by a caller; drop them rather than grow forever
+                queries.clear();
+            }
+            queries.put(execInfo.getStatement(), new PendingQuery(statementMeters, method, sql, elapsedMillis));
+            return;
+        }
+
+        complete(statementMeters, method, sql, elapsedMillis, rowsOf(execInfo.getResult()));
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext context) {
+        if (!"close".equals(context.getMethod().getName())) {
+            return;
+        }
+
+        // Resolved before closing: a closed result set may refuse getStatement()
+        Object target = context.getTarget();
+        if (target instanceof ResultSet resultSet) {
+            finish(statementOf(resultSet));
+        } else if (target instanceof Statement statement) {
+            finish(statement);
+        }
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext context) {
+        if (context.getTarget() instanceof ResultSet resultSet
+                && "next".equals(context.getMethod().getName())
+                && Boolean.TRUE.equals(context.getResult())) {
+            PendingQuery query = pending.get().get(statementOf(resultSet));
+            if (query != null) {
+                query.rows++;
+            }
+        }
+    }
+
+    private void finish(Statement statement) {
+        if (statement == null) {
+            return;
+        }
+        PendingQuery query = pending.get().remove(statement);
+        if (query != null) {
+            complete(query.meters, query.method, query.sql, query.elapsedMillis, query.rows);
+        }
+    }
+
+    private void complete(StatementMeters statementMeters, String method, String sql, long elapsedMillis, long rows) {
+        if (rows >= 0) {
+            statementMeters.rows().record(rows);
+        }
+
+        if (elapsedMillis >= slowThresholdMillis && ThreadLocalRandom.current().nextDouble() < slowSampleRate) {
+            log.warn("Slow SQL: {} ms, {} rows, method={}, sql={}", elapsedMillis, rows, method, sql);
+        }
+    }
+
+    private StatementMeters metersFor(String method, String type) {
+        return meters.computeIfAbsent(new MeterKey(method, type), key -> new StatementMeters(
+                Timer.builder("sql.statement")
+                        .description("JDBC statement execution time")
+                        .tag("method", key.method())
+                        .tag("type", key.type())
+                        .publishPercentileHistogram()
+                        .register(meterRegistry),
+                DistributionSummary.builder("sql.statement.rows")
+                        .description("Rows read or updated by a JDBC statement")
+                        .tag("method", key.method())
+                        .tag("type", key.type())
+                        .publishPercentileHistogram()
+                        .register(meterRegistry)
+        ));
+    }
+
+    private static Statement statementOf(ResultSet resultSet) {
+        try {
+            return resultSet.getStatement();
+        } catch (SQLException ex) {
+            return null;
+        }
+    }
+
+    private static String sqlOf(List<QueryInfo> queryInfoList) {
+        if (queryInfoList.size() == 1) {
+            return queryInfoList.get(0).getQuery();
+        }
+        return queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; "));
+    }
+
+    static String typeOf(String sql) {
+        String trimmed = sql.stripLeading();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+
+        String keyword = trimmed.substring(0, end).toLowerCase(Locale.ROOT);
+        return switch (keyword) {
+            case "select", "with" -> "select";
+            case "insert", "update", "delete", "merge" -> keyword;
+            default -> "other";
+        };
+    }
+
+    /**
+     * Updated row count, summed over a batch; -1 when the driver did not say.
+     */
+    private static long rowsOf(Object result) {
+        if (result instanceof Number count) {
+            return Math.max(count.longValue(), 0);
+        }
+        if (result instanceof int[] counts) {
+            long rows = 0;
+            for (int count : counts) {
+                rows += Math.max(count, 0);
+            }
+            return rows;
+        }
+        if (result instanceof long[] counts) {
+            long rows = 0;
+            for (long count : counts) {
+                rows += Math.max(count, 0);
+            }
+            return rows;
+        }
+        return -1;
+    }
+
+    private record MeterKey(String method, String type) {
+    }
+
+    private record StatementMeters(Timer duration, DistributionSummary rows) {
+    }
+
+    private static final class PendingQuery {
+
+        private final StatementMeters meters;
+        private final String method;
+        private final String sql;
+        private final long elapsedMillis;
+        private long rows;
+
+        private PendingQuery(StatementMeters meters, String method, String sql, long elapsedMillis) {
+            this.meters = meters;
+            this.method = method;
+            this.sql = sql;
+            this.elapsedMillis = elapsedMillis;
+        }
+    }
+}
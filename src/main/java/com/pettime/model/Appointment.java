@@ -3,6 +3,7 @@ package com.pettime.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -13,7 +14,10 @@ import java.time.LocalDateTime;
  * (FR) Représente un rendez-vous planifié entre un animal et une animalerie.
  */
 @Entity
-@Table(name = "appointments")
+@Table(
+        name = "appointments",
+        indexes = @Index(name = "idx_appointments_petshop_time", columnList = "petshop_id, start_time, end_time")
+)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -23,8 +27,13 @@ import java.time.LocalDateTime;
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 public class Appointment {
 
+    /**
+     * Pooled sequence (not IDENTITY) so that inserts can be JDBC-batched.
+     * (FR) Séquence groupée (et non IDENTITY) pour permettre l'insertion par lots JDBC.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "appointments_seq")
+    @SequenceGenerator(name = "appointments_seq", sequenceName = "appointments_seq", allocationSize = 50)
     @EqualsAndHashCode.Include
     private Long id;
 
@@ -49,6 +58,17 @@ public class Appointment {
     @Column(nullable = false)
     private Boolean paid;
 
+    /**
+     * True when the petshop had a capacity of one at booking time. Only exclusive
+     * appointments are covered by the PostgreSQL exclusion constraint; shared-capacity
+     * bookings are counted by the service under the petshop lock.
+     * (FR) Vrai si l'animalerie n'acceptait qu'un rendez-vous à la fois lors de la réservation.
+     */
+    @ColumnDefault("true")
+    @Column(nullable = false)
+    @Builder.Default
+    private Boolean exclusive = true;
+
     @CreationTimestamp
     private LocalDateTime createdAt;
 
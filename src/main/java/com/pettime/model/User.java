@@ -2,23 +2,51 @@ package com.pettime.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
+import java.util.Locale;
 
 /**
  * JPA Entity representing an application user.
  * (FR) Entité JPA représentant un utilisateur de l'application.
+
+ * Cached in the second-level regions "users" (by id) and "users-by-email"
+ * (natural id), sized in hibernate-jcache.conf.
  */
 @Entity
-@Table(name = "users")
+@Table(
+        name = "users",
+        uniqueConstraints = @UniqueConstraint(name = User.EMAIL_CONSTRAINT, columnNames = "email")
+)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+@NaturalIdCache(region = "users-by-email")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class User {
 
+    /**
+     * Unique constraint on email; signups and email changes rely on it instead of a prior lookup.
+     */
+    public static final String EMAIL_CONSTRAINT = "uk_users_email";
+
+    /**
+     * Canonical form of an email: stored, cached and looked up in lower case.
+     * (FR) Forme canonique d'un email : stockée, mise en cache et recherchée en minuscules.
+     */
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.toLowerCase(Locale.ROOT);
+    }
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -26,7 +54,8 @@ public class User {
     @Column(nullable = false)
     private String name;
 
-    @Column(nullable = false, unique = true)
+    @NaturalId(mutable = true)
+    @Column(nullable = false)
     private String email;
 
     @Column(nullable = false)
@@ -36,6 +65,15 @@ public class User {
     @Column(nullable = false)
     private UserRole role;
 
+    /**
+     * Number of appointments a petshop can serve at the same time (e.g. its groomers).
+     * (FR) Nombre de rendez-vous simultanés qu'une animalerie peut accueillir.
+     */
+    @ColumnDefault("1")
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer capacity = 1;
+
     @CreationTimestamp
     private LocalDateTime createdAt;
 
@@ -1,24 +1,193 @@
 package com.pettime.repository;
 
 import com.pettime.model.Appointment;
+import com.pettime.repository.projection.AppointmentWindow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
 
+    /**
+     * Only PENDING and CONFIRMED appointments hold their slot. Written as literals,
+     * not parameters, so PostgreSQL can match the partial index on the same predicate.
+     */
+    String ACTIVE = """
+          AND a.status IN (com.pettime.model.AppointmentStatus.PENDING,
+                           com.pettime.model.AppointmentStatus.CONFIRMED)
+        """;
+
     @Query("""
         SELECT a FROM Appointment a
         WHERE a.petshop.id = :petshopId
           AND a.startTime < :endTime
           AND a.endTime > :startTime
-    """)
+    """ + ACTIVE)
     List<Appointment> findOverlappingAppointments(
             @Param("petshopId") Long petshopId,
             @Param("startTime") LocalDateTime startTime,
             @Param("endTime") LocalDateTime endTime
     );
+
+    @Query("""
+        SELECT a.id FROM Appointment a
+        WHERE a.petshop.id = :petshopId
+          AND a.startTime < :endTime
+          AND a.endTime > :startTime
+    """ + ACTIVE)
+    List<Long> findOverlappingIds(
+            @Param("petshopId") Long petshopId,
+            @Param("startTime") LocalDateTime startTime,
+            @Param("endTime") LocalDateTime endTime,
+            Limit limit
+    );
+
+    /**
+     * Existence check for overlaps with active appointments, issued as a single-row (LIMIT 1) query.
+     * (FR) Vérifie l'existence d'un chevauchement avec un rendez-vous actif, limitée à une ligne.
+     */
+    default boolean existsOverlappingAppointment(
+            Long petshopId,
+            LocalDateTime startTime,
+            LocalDateTime endTime
+    ) {
+        return !findOverlappingIds(petshopId, startTime, endTime, Limit.of(1)).isEmpty();
+    }
+
+    @Query("""
+        SELECT a.id FROM Appointment a
+        WHERE a.petshop.id = :petshopId
+          AND a.exclusive = false
+          AND a.startTime < :endTime
+          AND a.endTime > :startTime
+    """ + ACTIVE)
+    List<Long> findOverlappingSharedIds(
+            @Param("petshopId") Long petshopId,
+            @Param("startTime") LocalDateTime startTime,
+            @Param("endTime") LocalDateTime endTime,
+            Limit limit
+    );
+
+    /**
+     * Existence check for overlaps with active non-exclusive appointments, which the
+     * exclusion constraint does not cover (booked while the petshop had a larger capacity).
+     * (FR) Vérifie l'existence d'un chevauchement avec un rendez-vous actif non exclusif.
+     */
+    default boolean existsOverlappingSharedAppointment(
+            Long petshopId,
+            LocalDateTime startTime,
+            LocalDateTime endTime
+    ) {
+        return !findOverlappingSharedIds(petshopId, startTime, endTime, Limit.of(1)).isEmpty();
+    }
+
+    @Query("""
+        SELECT new com.pettime.repository.projection.AppointmentWindow(a.id, a.startTime, a.endTime)
+        FROM Appointment a
+        WHERE a.petshop.id = :petshopId
+          AND a.startTime < :endTime
+          AND a.endTime > :startTime
+    """ + ACTIVE + """
+        ORDER BY a.startTime
+    """)
+    List<AppointmentWindow> findOverlappingWindows(
+            @Param("petshopId") Long petshopId,
+            @Param("startTime") LocalDateTime startTime,
+            @Param("endTime") LocalDateTime endTime
+    );
+
+    /**
+     * Active exclusive windows still running after the given time; they never overlap each other.
+     * (FR) Créneaux exclusifs actifs se terminant après l'instant donné ; ils ne se chevauchent jamais.
+     */
+    @Query("""
+        SELECT new com.pettime.repository.projection.AppointmentWindow(a.id, a.startTime, a.endTime)
+        FROM Appointment a
+        WHERE a.petshop.id = :petshopId
+          AND a.exclusive = true
+          AND a.endTime > :time
+    """ + ACTIVE)
+    List<AppointmentWindow> findExclusiveWindowsEndingAfter(
+            @Param("petshopId") Long petshopId,
+            @Param("time") LocalDateTime time
+    );
+
+    /**
+     * Streams the windows intersecting [from, to), ordered by start time.
+     * Must be consumed inside a transaction and closed after use.
+     * (FR) Diffuse les créneaux qui croisent [from, to), triés par heure de début.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "256"))
+    @Query("""
+        SELECT new com.pettime.repository.projection.AppointmentWindow(a.id, a.startTime, a.endTime)
+        FROM Appointment a
+        WHERE a.petshop.id = :petshopId
+          AND a.startTime < :to
+          AND a.endTime > :from
+    """ + ACTIVE + """
+        ORDER BY a.startTime
+    """)
+    Stream<AppointmentWindow> streamWindowsBetween(
+            @Param("petshopId") Long petshopId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
+    );
+
+    /**
+     * Streams every appointment with its pet and petshop ordered by id.
+     * Must be consumed inside a transaction and closed after use.
+     * (FR) Diffuse tous les rendez-vous triés par identifiant.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+        SELECT a FROM Appointment a
+        JOIN FETCH a.pet
+        JOIN FETCH a.petshop
+        ORDER BY a.id
+    """)
+    Stream<Appointment> streamAllByOrderByIdAsc();
+
+    /**
+     * PENDING to CONFIRMED and paid, in one statement; returns 0 when the appointment
+     * was no longer pending (e.g. its payment window expired first).
+     * (FR) Passe un rendez-vous PENDING à CONFIRMED en une seule requête.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        UPDATE Appointment a
+           SET a.status = com.pettime.model.AppointmentStatus.CONFIRMED,
+               a.paid = true,
+               a.updatedAt = :now
+         WHERE a.id = :id
+           AND a.status = com.pettime.model.AppointmentStatus.PENDING
+    """)
+    int confirmPending(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /**
+     * PENDING or CONFIRMED to CANCELLED, in one statement; returns 0 when the appointment
+     * was already cancelled or completed, so a concurrent change is never overwritten.
+     * (FR) Annule un rendez-vous PENDING ou CONFIRMED en une seule requête.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        UPDATE Appointment a
+           SET a.status = com.pettime.model.AppointmentStatus.CANCELLED,
+               a.updatedAt = :now
+         WHERE a.id = :id
+           AND a.status IN (com.pettime.model.AppointmentStatus.PENDING,
+                            com.pettime.model.AppointmentStatus.CONFIRMED)
+    """)
+    int cancelActive(@Param("id") Long id, @Param("now") LocalDateTime now);
 }
@@ -1,16 +1,79 @@
 package com.pettime.repository;
 
+import com.pettime.dto.PetResponseDto;
 import com.pettime.model.Pet;
 import com.pettime.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PetRepository extends JpaRepository<Pet, Long> {
 
     List<Pet> findByOwner(User owner);
 
-    List<Pet> findByOwnerId(Long ownerId);
+    /**
+     * Loads a pet together with its owner in one statement.
+     */
+    @EntityGraph(attributePaths = "owner")
+    Optional<Pet> findWithOwnerById(Long id);
+
+    /**
+     * Pets of an owner selected directly as response DTOs, without loading entities.
+     * Results live in the query cache until the pets or users table changes.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("""
+        SELECT new com.pettime.dto.PetResponseDto(p.id, p.name, p.species, p.breed, p.age, o.id, o.name)
+        FROM Pet p
+        JOIN p.owner o
+        WHERE o.id = :ownerId
+        ORDER BY p.id
+    """)
+    List<PetResponseDto> findResponsesByOwnerId(@Param("ownerId") Long ownerId);
+
+    /**
+     * Keyset page selected directly as response DTOs.
+     */
+    @Query("""
+        SELECT new com.pettime.dto.PetResponseDto(p.id, p.name, p.species, p.breed, p.age, o.id, o.name)
+        FROM Pet p
+        JOIN p.owner o
+        WHERE p.id > :cursor
+        ORDER BY p.id
+    """)
+    Slice<PetResponseDto> findResponsesAfter(@Param("cursor") Long cursor, Pageable pageable);
+
+    /**
+     * Offset page selected directly as response DTOs; the count query skips the join.
+     */
+    @Query(
+            value = """
+                SELECT new com.pettime.dto.PetResponseDto(p.id, p.name, p.species, p.breed, p.age, o.id, o.name)
+                FROM Pet p
+                JOIN p.owner o
+            """,
+            countQuery = "SELECT count(p) FROM Pet p"
+    )
+    Page<PetResponseDto> findResponsePage(Pageable pageable);
+
+    /**
+     * Streams every pet with its owner ordered by id, fetched from the cursor in chunks.
+     * Must be consumed inside a transaction and closed after use.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT p FROM Pet p JOIN FETCH p.owner ORDER BY p.id")
+    Stream<Pet> streamAllByOrderByIdAsc();
 }
\ No newline at end of file
@@ -1,13 +1,38 @@
 package com.pettime.repository;
 
 import com.pettime.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface UserRepository extends JpaRepository<User, Long> {
-
-    Optional<User> findByEmail(String email);
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
 
     boolean existsByEmail(String email);
+
+    /**
+     * Capacity of a petshop read from its row; a query, so never served by the second-level cache.
+     */
+    @Query("SELECT u.capacity FROM User u WHERE u.id = :id")
+    Optional<Integer> findCapacityById(@Param("id") Long id);
+
+    /**
+     * Keyset page: users with id greater than the cursor, no count query.
+     */
+    Slice<User> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * Streams every user ordered by id, fetched from the cursor in chunks.
+     * Must be consumed inside a transaction and closed after use.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT u FROM User u ORDER BY u.id")
+    Stream<User> streamAllByOrderByIdAsc();
 }
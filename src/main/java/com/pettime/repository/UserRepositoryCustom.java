@@ -0,0 +1,18 @@
+package com.pettime.repository;
+
+import com.pettime.model.User;
+
+import java.util.Optional;
+
+/**
+ * User lookups that Spring Data cannot derive.
+ * (FR) Recherches d'utilisateurs non dérivables par Spring Data.
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * Loads a user by its natural id, served from the natural-id cache when warm.
+     * (FR) Charge un utilisateur par son identifiant naturel, via le cache si possible.
+     */
+    Optional<User> findByEmail(String email);
+}
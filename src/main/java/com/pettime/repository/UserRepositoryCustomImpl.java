@@ -0,0 +1,32 @@
+package com.pettime.repository;
+
+import com.pettime.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Natural-id implementation of {@link UserRepositoryCustom}.
+ * (FR) Implémentation par identifiant naturel de {@link UserRepositoryCustom}.
+
+ * A derived query would always hit the database; the natural-id lookup
+ * resolves email to id through the "users-by-email" region, then the row
+ * through the "users" region.
+ */
+class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // The unwrapped session must outlive this call; without a transaction it is closed right away
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> findByEmail(String email) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(User.normalizeEmail(email));
+    }
+}
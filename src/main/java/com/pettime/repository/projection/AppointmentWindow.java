@@ -0,0 +1,14 @@
+package com.pettime.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lightweight read model of a booked time window, without pet or petshop proxies.
+ * (FR) Modèle de lecture léger d'un créneau réservé, sans proxys animal ou animalerie.
+ */
+public record AppointmentWindow(
+        Long id,
+        LocalDateTime startTime,
+        LocalDateTime endTime
+) {
+}
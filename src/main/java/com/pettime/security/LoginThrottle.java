@@ -0,0 +1,69 @@
+package com.pettime.security;
+
+import com.pettime.config.LoginThrottleProperties;
+import com.pettime.exception.LoginThrottledException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-address and per-account login throttle, checked before any hash comparison.
+ * (FR) Limitation des connexions par adresse et par compte, avant toute comparaison de hachage.
+
+ * Rejected attempts cost two sketch lookups and never reach the password
+ * encoder, so a flood of random credentials cannot pin the CPU.
+ */
+@Component
+public class LoginThrottle {
+
+    private final LoginThrottleProperties properties;
+    private final SlidingWindowSketch attemptsByAddress;
+    private final SlidingWindowSketch attemptsByAccount;
+    private final Counter rejectedByAddress;
+    private final Counter rejectedByAccount;
+    private final LongSupplier clock;
+
+    public LoginThrottle(LoginThrottleProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::currentTimeMillis);
+    }
+
+    LoginThrottle(LoginThrottleProperties properties, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.properties = properties;
+        this.clock = clock;
+
+        long windowMillis = properties.getWindow().toMillis();
+        this.attemptsByAddress = SlidingWindowSketch.forExpectedKeys(
+                windowMillis, properties.getSketchDepth(), properties.getExpectedAddressesPerWindow());
+        this.attemptsByAccount = SlidingWindowSketch.forExpectedKeys(
+                windowMillis, properties.getSketchDepth(), properties.getExpectedAccountsPerWindow());
+
+        this.rejectedByAddress = Counter.builder("auth.login.throttled")
+                .tag("limit", "address")
+                .register(meterRegistry);
+        this.rejectedByAccount = Counter.builder("auth.login.throttled")
+                .tag("limit", "account")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records a login attempt or rejects it with {@link LoginThrottledException}.
+     * (FR) Enregistre une tentative de connexion ou la rejette.
+     */
+    public void acquire(String clientAddress, String email) {
+        long now = clock.getAsLong();
+
+        if (!attemptsByAddress.tryAcquire(String.valueOf(clientAddress), properties.getMaxAttemptsPerAddress(), now)) {
+            rejectedByAddress.increment();
+            throw new LoginThrottledException();
+        }
+
+        String account = email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+        if (!attemptsByAccount.tryAcquire(account, properties.getMaxAttemptsPerAccount(), now)) {
+            rejectedByAccount.increment();
+            throw new LoginThrottledException();
+        }
+    }
+}
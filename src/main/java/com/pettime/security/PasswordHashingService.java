@@ -0,0 +1,167 @@
+package com.pettime.security;
+
+import com.pettime.config.PasswordHashingProperties;
+import com.pettime.exception.HashingCapacityExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs BCrypt on a bounded executor, away from the request threads.
+ * (FR) Exécute BCrypt sur un exécuteur borné, à l'écart des threads de requête.
+
+ * At most {@code poolSize} hashes run at once and at most {@code queueCapacity}
+ * wait; beyond that, or past {@code maxWait}, callers get a
+ * {@link HashingCapacityExceededException} (HTTP 429) instead of piling up.
+ * Published meters:
+ * - password.hashing.queue.depth: tasks waiting for a thread
+ * - password.hashing.wait: time spent in the queue
+ * - password.hashing.duration: BCrypt time, tagged operation=hash|verify
+ * - password.hashing.rejected: calls turned away
+ */
+@Service
+public class PasswordHashingService implements DisposableBean {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+
+    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordHashingProperties properties;
+    private final ThreadPoolExecutor executor;
+    private final int strength;
+
+    private final Timer waitTimer;
+    private final Timer hashTimer;
+    private final Timer verifyTimer;
+    private final Counter rejected;
+
+    public PasswordHashingService(
+            BCryptPasswordEncoder passwordEncoder,
+            PasswordHashingProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.passwordEncoder = passwordEncoder;
+        this.properties = properties;
+        this.executor = new ThreadPoolExecutor(
+                properties.getPoolSize(),
+                properties.getPoolSize(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                hashingThreads(),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.strength = costOf(passwordEncoder.encode("strength-probe"));
+
+        Gauge.builder("password.hashing.queue.depth", executor, e -> e.getQueue().size())
+                .description("Password hashing tasks waiting for a thread")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("password.hashing.wait")
+                .description("Time password hashing tasks spend queued")
+                .register(meterRegistry);
+        this.hashTimer = Timer.builder("password.hashing.duration")
+                .tag("operation", "hash")
+                .register(meterRegistry);
+        this.verifyTimer = Timer.builder("password.hashing.duration")
+                .tag("operation", "verify")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("password.hashing.rejected")
+                .description("Password hashing calls rejected because the executor was saturated")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Hashes a raw password with the calibrated strength.
+     * (FR) Hache un mot de passe avec la force calibrée.
+     */
+    public String hash(String rawPassword) {
+        return run(hashTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Checks a raw password against a stored hash.
+     * (FR) Vérifie un mot de passe par rapport à un hachage enregistré.
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return run(verifyTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * True when the stored hash was made with another cost than the current one.
+     * (FR) Indique si le hachage a été produit avec un autre coût que le coût actuel.
+     */
+    public boolean needsRehash(String encodedPassword) {
+        return encodedPassword != null && costOf(encodedPassword) != strength;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    private <T> T run(Timer timer, Callable<T> operation) {
+        long queuedAt = System.nanoTime();
+        Future<T> future;
+
+        try {
+            future = executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return timer.recordCallable(operation);
+            });
+        } catch (RejectedExecutionException ex) {
+            rejected.increment();
+            throw new HashingCapacityExceededException();
+        }
+
+        try {
+            return future.get(properties.getMaxWait().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            future.cancel(true);
+            rejected.increment();
+            throw new HashingCapacityExceededException();
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", cause);
+        }
+    }
+
+    static int costOf(String encodedPassword) {
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : -1;
+    }
+
+    private static ThreadFactory hashingThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
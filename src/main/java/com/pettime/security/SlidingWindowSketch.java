@@ -0,0 +1,193 @@
+package com.pettime.security;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free sliding-window counter over an unbounded key space, in fixed memory.
+ * (FR) Compteur à fenêtre glissante sans verrou, en mémoire fixe, pour un nombre illimité de clés.
+
+ * Counts live in two count-min sketches, one for the current window and one
+ * for the previous window, used alternately. The estimate for a key is
+ * current + previous × (share of the previous window still inside the sliding
+ * window), taking the minimum over the sketch rows. Collisions can only
+ * overestimate, and concurrent callers overshoot a limit by at most one
+ * each. Memory is fixed by the width, whatever the traffic.
+
+ * Counting uses conservative update: an event raises each of the key's
+ * cells to at most its estimate + 1 instead of incrementing them all, so a
+ * cell only grows as far as its least shared key needs. A flood of distinct
+ * keys, each seen once, then keeps estimates of unrelated keys near zero at
+ * loads where plain increments would push every cell past the limit.
+ * {@link #forExpectedKeys} sizes the width to the number of distinct keys
+ * expected per window.
+
+ * A window rollover is claimed with a CAS on the window's epoch; increments
+ * racing with the reset may be lost, which only makes the limiter lenient
+ * for that instant.
+
+ * Rows need independent hashes, or keys colliding in one row collide in all
+ * of them. Each key gets two 64-bit hashes seeded at random once per
+ * process, and row i uses h1 + i × h2. Without knowing the seeds, nobody
+ * can craft a key that shares the counters of a victim's address or email.
+ */
+public class SlidingWindowSketch {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final long SEED = RANDOM.nextLong();
+    private static final long STEP_SEED = RANDOM.nextLong();
+    private static final int KEYS_PER_CELL = 4;
+    private static final int MAX_WIDTH = 1 << 24;
+
+    private final long windowMillis;
+    private final int depth;
+    private final int widthMask;
+    private final int cellsPerWindow;
+
+    /**
+     * [window parity][row][column], flattened.
+     */
+    private final AtomicIntegerArray cells;
+
+    /**
+     * Epoch (window number) currently held by each of the two windows.
+     */
+    private final AtomicLongArray epochs = new AtomicLongArray(new long[]{-1, -1});
+
+    /**
+     * Creates a sketch wide enough for {@code expectedKeys} distinct keys per window.
+     * (FR) Crée un sketch assez large pour {@code expectedKeys} clés distinctes par fenêtre.
+
+     * Each row gets one cell per {@value #KEYS_PER_CELL} expected keys,
+     * rounded up to a power of two. With conservative update, estimates of
+     * keys outside the flood stay well under small limits up to several
+     * times that rate.
+     */
+    public static SlidingWindowSketch forExpectedKeys(long windowMillis, int depth, int expectedKeys) {
+        if (expectedKeys < 1) {
+            throw new IllegalArgumentException("expectedKeys must be positive");
+        }
+        int cells = Math.max(1, (expectedKeys + KEYS_PER_CELL - 1) / KEYS_PER_CELL);
+        int width = Math.min(MAX_WIDTH, Integer.highestOneBit(cells - 1) << 1);
+        return new SlidingWindowSketch(windowMillis, depth, Math.max(1, width));
+    }
+
+    public SlidingWindowSketch(long windowMillis, int depth, int width) {
+        if (depth < 1 || depth > Long.SIZE) {
+            throw new IllegalArgumentException("depth must be between 1 and 64");
+        }
+        if (width < 1 || Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("width must be a power of two");
+        }
+
+        this.windowMillis = windowMillis;
+        this.depth = depth;
+        this.widthMask = width - 1;
+        this.cellsPerWindow = depth * width;
+        this.cells = new AtomicIntegerArray(2 * cellsPerWindow);
+    }
+
+    /**
+     * Counts one event for the key if its estimate is still under the limit.
+     * (FR) Compte un événement pour la clé si son estimation reste sous la limite.
+     *
+     * @return false when the key already reached {@code limit} in the sliding window
+     */
+    public boolean tryAcquire(String key, int limit, long nowMillis) {
+        long epoch = nowMillis / windowMillis;
+        int current = windowFor(epoch);
+        int previous = epochs.get(current ^ 1) == epoch - 1 ? current ^ 1 : -1;
+        double previousWeight = 1.0 - (double) (nowMillis % windowMillis) / windowMillis;
+
+        long hash = hash(key, SEED);
+        // Odd, so consecutive rows never fold onto the same column sequence
+        long step = hash(key, STEP_SEED) | 1;
+        int previousMin = Integer.MAX_VALUE;
+        if (previous >= 0) {
+            for (int row = 0; row < depth; row++) {
+                previousMin = Math.min(previousMin, cells.get(index(previous, row, column(hash, step, row))));
+            }
+        }
+        double previousShare = previous >= 0 ? previousMin * previousWeight : 0;
+
+        while (true) {
+            int currentMin = Integer.MAX_VALUE;
+            long atMin = 0;
+            for (int row = 0; row < depth; row++) {
+                int count = cells.get(index(current, row, column(hash, step, row)));
+                if (count < currentMin) {
+                    currentMin = count;
+                    atMin = 0;
+                }
+                if (count == currentMin) {
+                    atMin |= 1L << row;
+                }
+            }
+
+            if (currentMin + previousShare >= limit) {
+                return false;
+            }
+
+            // Conservative update: only the cells holding the minimum move up. A cell
+            // moved by a concurrent caller means our reading is stale, so read again.
+            if (raise(current, hash, step, atMin, currentMin)) {
+                return true;
+            }
+        }
+    }
+
+    private boolean raise(int window, long hash, long step, long atMin, int min) {
+        for (int row = 0; row < depth; row++) {
+            if ((atMin & 1L << row) != 0
+                    && !cells.compareAndSet(index(window, row, column(hash, step, row)), min, min + 1)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the window slot for the epoch, resetting it if it held an older epoch.
+     */
+    private int windowFor(long epoch) {
+        int slot = (int) (epoch & 1);
+        long held = epochs.get(slot);
+
+        if (held < epoch && epochs.compareAndSet(slot, held, epoch)) {
+            int base = slot * cellsPerWindow;
+            for (int i = 0; i < cellsPerWindow; i++) {
+                cells.set(base + i, 0);
+            }
+        }
+        return slot;
+    }
+
+    private int column(long hash, long step, int row) {
+        return (int) mix(hash + row * step) & widthMask;
+    }
+
+    /**
+     * Seeded 64-bit hash of the characters; every step is a full avalanche mix.
+     */
+    private static long hash(String key, long seed) {
+        long h = seed ^ key.length();
+        for (int i = 0; i < key.length(); i++) {
+            h = mix(h ^ key.charAt(i));
+        }
+        return h;
+    }
+
+    /**
+     * MurmurHash3 64-bit finalizer.
+     */
+    private static long mix(long h) {
+        h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+        h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+
+    private int index(int window, int row, int column) {
+        return window * cellsPerWindow + row * (widthMask + 1) + column;
+    }
+}
@@ -0,0 +1,117 @@
+package com.pettime.security;
+
+import com.pettime.config.TokenProperties;
+import com.pettime.dto.TokenResponseDto;
+import com.pettime.exception.InvalidCredentialsException;
+import com.pettime.service.cache.CachedUser;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimValidator;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Issues and verifies the HMAC-signed access and refresh tokens.
+ * (FR) Émet et vérifie les jetons d'accès et de rafraîchissement signés par HMAC.
+
+ * Access tokens carry the user id as subject and the {@link com.pettime.model.UserRole}
+ * in the {@code roles} claim, so a request is authenticated with one HMAC check
+ * and no database access. Refresh tokens are only accepted by {@link #verifyRefreshToken}.
+ */
+@Service
+public class TokenService {
+
+    public static final String ACCESS = "access";
+    public static final String REFRESH = "refresh";
+
+    public static final String TYPE_CLAIM = "typ";
+    public static final String ROLES_CLAIM = "roles";
+    public static final String EMAIL_CLAIM = "email";
+
+    private final JwtEncoder jwtEncoder;
+    private final JwtDecoder refreshTokenDecoder;
+    private final TokenProperties properties;
+
+    public TokenService(JwtEncoder jwtEncoder, SecretKey tokenSigningKey, TokenProperties properties) {
+        this.jwtEncoder = jwtEncoder;
+        this.properties = properties;
+
+        NimbusJwtDecoder decoder = NimbusJwtDecoder.withSecretKey(tokenSigningKey)
+                .macAlgorithm(MacAlgorithm.HS256)
+                .build();
+        decoder.setJwtValidator(validatorFor(properties.getIssuer(), REFRESH));
+        this.refreshTokenDecoder = decoder;
+    }
+
+    /**
+     * Accepts tokens from our issuer, not expired, of the given type.
+     * (FR) Accepte les jetons de notre émetteur, non expirés, du type demandé.
+     */
+    public static OAuth2TokenValidator<Jwt> validatorFor(String issuer, String type) {
+        return new DelegatingOAuth2TokenValidator<>(
+                JwtValidators.createDefaultWithIssuer(issuer),
+                new JwtClaimValidator<String>(TYPE_CLAIM, type::equals)
+        );
+    }
+
+    /**
+     * Issues a new access and refresh token pair for the user.
+     * (FR) Émet une nouvelle paire de jetons pour l'utilisateur.
+     */
+    public TokenResponseDto issue(CachedUser user) {
+        Instant now = Instant.now();
+
+        String accessToken = encode(
+                claims(user, ACCESS, now, properties.getAccessTokenTtl())
+                        .claim(EMAIL_CLAIM, user.email())
+                        .claim(ROLES_CLAIM, user.role() != null ? List.of(user.role().name()) : List.of())
+        );
+        String refreshToken = encode(
+                claims(user, REFRESH, now, properties.getRefreshTokenTtl())
+                        .id(UUID.randomUUID().toString())
+        );
+
+        return TokenResponseDto.bearer(accessToken, refreshToken, properties.getAccessTokenTtl().toSeconds());
+    }
+
+    /**
+     * Checks a refresh token and returns the id of its user.
+     * (FR) Vérifie un jeton de rafraîchissement et retourne l'id de son utilisateur.
+     */
+    public Long verifyRefreshToken(String refreshToken) {
+        try {
+            return Long.valueOf(refreshTokenDecoder.decode(refreshToken).getSubject());
+        } catch (JwtException | NumberFormatException ex) {
+            throw new InvalidCredentialsException("Invalid refresh token");
+        }
+    }
+
+    private JwtClaimsSet.Builder claims(CachedUser user, String type, Instant now, Duration ttl) {
+        return JwtClaimsSet.builder()
+                .issuer(properties.getIssuer())
+                .issuedAt(now)
+                .expiresAt(now.plus(ttl))
+                .subject(String.valueOf(user.id()))
+                .claim(TYPE_CLAIM, type);
+    }
+
+    private String encode(JwtClaimsSet.Builder claims) {
+        JwsHeader header = JwsHeader.with(MacAlgorithm.HS256).build();
+        return jwtEncoder.encode(JwtEncoderParameters.from(header, claims.build())).getTokenValue();
+    }
+}
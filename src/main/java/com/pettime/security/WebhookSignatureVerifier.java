@@ -0,0 +1,112 @@
+package com.pettime.security;
+
+import com.pettime.config.PaymentWebhookProperties;
+import com.pettime.exception.InvalidWebhookException;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Verifies the {@code Stripe-Signature} header of webhook deliveries.
+ * (FR) Vérifie l'en-tête {@code Stripe-Signature} des appels du webhook.
+
+ * The header reads {@code t=<unix seconds>,v1=<hex>[,v1=<hex>...]}; each v1 is
+ * an HMAC-SHA256 of {@code "<t>.<raw body>"} with the endpoint secret, and more
+ * than one appears while the secret is being rolled. Signatures are compared
+ * in constant time, and timestamps outside the tolerance are rejected so a
+ * captured delivery cannot be replayed later.
+ */
+@Component
+public class WebhookSignatureVerifier {
+
+    public static final String HEADER = "Stripe-Signature";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final SecretKeySpec key;
+    private final Duration tolerance;
+
+    public WebhookSignatureVerifier(PaymentWebhookProperties properties) {
+        String secret = properties.getSecret();
+        this.key = secret == null || secret.isBlank()
+                ? null
+                : new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.tolerance = properties.getTolerance();
+    }
+
+    /**
+     * Throws unless the header carries a valid, recent signature of this payload.
+     * (FR) Lève une exception sauf si l'en-tête porte une signature valide et récente.
+     */
+    public void verify(String payload, String header, Instant now) {
+        if (key == null) {
+            throw new InvalidWebhookException("Webhook signing secret is not configured");
+        }
+        if (payload == null || header == null || header.isBlank()) {
+            throw new InvalidWebhookException("Missing webhook signature");
+        }
+
+        long timestamp = -1;
+        List<String> signatures = new ArrayList<>(2);
+        for (String part : header.split(",")) {
+            int eq = part.indexOf('=');
+            if (eq <= 0) {
+                continue;
+            }
+            String name = part.substring(0, eq).trim();
+            String value = part.substring(eq + 1).trim();
+            if ("t".equals(name)) {
+                try {
+                    timestamp = Long.parseLong(value);
+                } catch (NumberFormatException ex) {
+                    throw new InvalidWebhookException("Malformed webhook signature");
+                }
+            } else if ("v1".equals(name)) {
+                signatures.add(value);
+            }
+        }
+
+        if (timestamp < 0 || signatures.isEmpty()) {
+            throw new InvalidWebhookException("Malformed webhook signature");
+        }
+        if (Duration.between(Instant.ofEpochSecond(timestamp), now).abs().compareTo(tolerance) > 0) {
+            throw new InvalidWebhookException("Webhook signature timestamp is outside the tolerance");
+        }
+
+        byte[] expected = sign(timestamp, payload);
+        for (String signature : signatures) {
+            byte[] candidate;
+            try {
+                candidate = HEX.parseHex(signature);
+            } catch (IllegalArgumentException ex) {
+                continue;
+            }
+            if (MessageDigest.isEqual(expected, candidate)) {
+                return;
+            }
+        }
+
+        throw new InvalidWebhookException("Webhook signature does not match");
+    }
+
+    private byte[] sign(long timestamp, String payload) {
+        try {
+            // Mac instances are not thread-safe and cost a few microseconds to create
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal((timestamp + "." + payload).getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("HmacSHA256 is not available", ex);
+        }
+    }
+}
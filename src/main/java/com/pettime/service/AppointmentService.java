@@ -1,8 +1,13 @@
 package com.pettime.service;
 
+import com.pettime.dto.AppointmentBatchResultDto;
+import com.pettime.dto.AppointmentRequestDto;
+import com.pettime.dto.AvailableSlotDto;
 import com.pettime.model.Appointment;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * Appointment Domain Contract
@@ -11,13 +16,14 @@ import java.time.LocalDateTime;
  * - PENDING    : Appointment created, awaiting payment
  * - CONFIRMED  : Payment successfully confirmed
  * - CANCELLED  : Appointment cancelled by client or petshop
- * - COMPLETED  : Appointment finished after end time (optional future state)
+ * - COMPLETED  : Confirmed appointment finished; set in bulk by AppointmentLifecycleJob
 
  * Invariants:
  * - startTime must be strictly before endTime
  * - petId and petshopId must reference existing entities
  * - petshop must be active to accept new appointments
- * - No time overlap is allowed for appointments of the same petshop
+ * - At any instant, a petshop holds at most "capacity" active (PENDING or
+ *   CONFIRMED) appointments; with the default capacity of 1 no overlap is allowed
  * - On creation:
  *      - status = PENDING
  *      - paid = false
@@ -46,4 +52,59 @@ public interface AppointmentService {
             LocalDateTime startTime,
             LocalDateTime endTime
     );
+
+    /**
+     * Books several slots at once; each slot succeeds or fails independently.
+     * Slots are checked against existing appointments and against each other.
+     *
+     * @param slots the requested slots
+     * @return one result per slot, in request order
+     *
+     * (FR) Réserve plusieurs créneaux à la fois ; chaque créneau réussit ou échoue indépendamment.
+     */
+    List<AppointmentBatchResultDto> createBatch(List<AppointmentRequestDto> slots);
+
+    /**
+     * Cancels an appointment and frees its slot for new bookings.
+     * Cancelling an already cancelled appointment returns it unchanged; a completed
+     * one cannot be cancelled. The status changes in one conditional statement,
+     * so a concurrent payment or completion is never overwritten.
+     *
+     * @param id the appointment identifier
+     * @return the cancelled appointment
+     *
+     * (FR) Annule un rendez-vous et libère immédiatement son créneau.
+     */
+    Appointment cancel(Long id);
+
+    /**
+     * Marks a PENDING appointment as paid and CONFIRMED, stopping its payment window.
+     * Confirming an already confirmed appointment returns it unchanged.
+     *
+     * @param id the appointment identifier
+     * @return the confirmed appointment
+     *
+     * (FR) Confirme le paiement d'un rendez-vous PENDING et arrête son délai d'expiration.
+     */
+    Appointment confirmPayment(Long id);
+
+    /**
+     * Finds the first free slots of a petshop within business hours.
+     *
+     * @param petshopId the petshop identifier
+     * @param from      search start (inclusive)
+     * @param to        search end (exclusive)
+     * @param duration  requested slot length
+     * @param limit     maximum number of slots to return
+     * @return free, non-overlapping slots in chronological order
+     *
+     * (FR) Recherche les premiers créneaux libres d'une animalerie pendant les heures d'ouverture.
+     */
+    List<AvailableSlotDto> findAvailability(
+            Long petshopId,
+            LocalDateTime from,
+            LocalDateTime to,
+            Duration duration,
+            int limit
+    );
 }
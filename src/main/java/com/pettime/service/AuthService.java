@@ -0,0 +1,21 @@
+package com.pettime.service;
+
+import com.pettime.dto.LoginRequestDto;
+import com.pettime.dto.RefreshTokenRequestDto;
+import com.pettime.dto.TokenResponseDto;
+
+public interface AuthService {
+
+    /**
+     * Verifies the password once and issues an access and refresh token.
+     * Attempts over the per-address or per-account limit are rejected first.
+     * (FR) Vérifie le mot de passe une seule fois et émet les jetons.
+     */
+    TokenResponseDto login(LoginRequestDto dto, String clientAddress);
+
+    /**
+     * Exchanges a valid refresh token for a new token pair.
+     * (FR) Échange un jeton de rafraîchissement valide contre une nouvelle paire de jetons.
+     */
+    TokenResponseDto refresh(RefreshTokenRequestDto dto);
+}
@@ -0,0 +1,97 @@
+package com.pettime.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pettime.dto.AppointmentResponseDto;
+import com.pettime.dto.PetResponseDto;
+import com.pettime.mapper.UserMapper;
+import com.pettime.repository.AppointmentRepository;
+import com.pettime.repository.PetRepository;
+import com.pettime.repository.UserRepository;
+import com.pettime.service.export.NdjsonWriter;
+import jakarta.persistence.CacheRetrieveMode;
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.stream.Stream;
+
+/**
+ * Service streaming full-table exports as NDJSON.
+ * (FR) Service diffusant les exports complets des tables au format NDJSON.
+
+ * Rows are read through a database cursor, mapped to their response DTO and
+ * written immediately; the persistence context is cleared every
+ * {@link #CLEAR_EVERY} rows so heap use does not grow with the table size.
+ * The export session bypasses the second-level cache: streaming a whole
+ * table through the users and pets regions would evict the entries the
+ * request path relies on. It is set on the session rather than as a query
+ * hint because Hibernate restores a query's cache mode once the query has
+ * executed, before the streamed rows are read.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExportService {
+
+    static final int CLEAR_EVERY = 500;
+
+    private final UserRepository userRepository;
+    private final PetRepository petRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public long exportUsers(OutputStream out) throws IOException {
+        log.info("Exporting users as NDJSON");
+        bypassSecondLevelCache();
+        try (Stream<?> users = userRepository.streamAllByOrderByIdAsc().map(UserMapper::toResponseDto)) {
+            return write(users, out, "users");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long exportPets(OutputStream out) throws IOException {
+        log.info("Exporting pets as NDJSON");
+        bypassSecondLevelCache();
+        try (Stream<?> pets = petRepository.streamAllByOrderByIdAsc().map(PetResponseDto::fromEntity)) {
+            return write(pets, out, "pets");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long exportAppointments(OutputStream out) throws IOException {
+        log.info("Exporting appointments as NDJSON");
+        bypassSecondLevelCache();
+        try (Stream<?> appointments = appointmentRepository.streamAllByOrderByIdAsc()
+                .map(AppointmentResponseDto::fromEntity)) {
+            return write(appointments, out, "appointments");
+        }
+    }
+
+    private void bypassSecondLevelCache() {
+        entityManager.setProperty(SpecHints.HINT_SPEC_CACHE_RETRIEVE_MODE, CacheRetrieveMode.BYPASS);
+        entityManager.setProperty(SpecHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+    }
+
+    private long write(Stream<?> rows, OutputStream out, String table) throws IOException {
+        try (NdjsonWriter writer = new NdjsonWriter(objectMapper, out)) {
+            rows.forEachOrdered(row -> {
+                writer.write(row);
+                if (writer.getWritten() % CLEAR_EVERY == 0) {
+                    // Mapped rows are no longer needed; drop the managed entities behind them.
+                    entityManager.clear();
+                }
+            });
+
+            log.info("Exported {} {}", writer.getWritten(), table);
+            return writer.getWritten();
+        }
+    }
+}
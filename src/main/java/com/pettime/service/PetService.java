@@ -1,17 +1,24 @@
 package com.pettime.service;
 
+import com.pettime.dto.CursorPageDto;
+import com.pettime.dto.OffsetPageDto;
 import com.pettime.dto.PetRequestDto;
 import com.pettime.dto.PetResponseDto;
 import com.pettime.exception.InvalidUserDataException;
 import com.pettime.exception.ResourceNotFoundException;
+import com.pettime.mapper.CursorCodec;
 import com.pettime.model.Pet;
-import com.pettime.model.User;
 import com.pettime.repository.PetRepository;
 import com.pettime.repository.UserRepository;
-import jakarta.transaction.Transactional;
+import com.pettime.service.cache.CachedUser;
+import com.pettime.service.cache.UserLookupCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -25,13 +32,31 @@ import java.util.Optional;
 @Slf4j
 public class PetService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final PetRepository petRepository;
     private final UserRepository userRepository;
+    private final UserLookupCache userLookupCache;
 
     private PetResponseDto toResponseDto(Pet pet) {
         return PetResponseDto.fromEntity(pet);
     }
 
+    /**
+     * Builds the response from the cached owner, so the owner proxy is never initialized.
+     */
+    private PetResponseDto toResponseDto(Pet pet, CachedUser owner) {
+        return PetResponseDto.builder()
+                .id(pet.getId())
+                .name(pet.getName())
+                .species(pet.getSpecies())
+                .breed(pet.getBreed())
+                .age(pet.getAge())
+                .ownerId(owner.id())
+                .ownerName(owner.name())
+                .build();
+    }
+
     private void validateRequest(PetRequestDto dto) {
         if (dto == null) {
             throw new InvalidUserDataException("Pet request cannot be null");
@@ -54,8 +79,14 @@ public class PetService {
         }
     }
 
-    private User loadOwner(Long ownerId) {
-        return userRepository.findById(ownerId)
+    private void validatePageSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new InvalidUserDataException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    private CachedUser loadOwner(Long ownerId) {
+        return userLookupCache.findById(ownerId)
                 .orElseThrow(() -> new ResourceNotFoundException("Owner not found with ID: " + ownerId));
     }
 
@@ -63,55 +94,78 @@ public class PetService {
     public PetResponseDto createPet(PetRequestDto dto) {
         validateRequest(dto);
 
-        User owner = loadOwner(dto.getOwnerId());
+        CachedUser owner = loadOwner(dto.getOwnerId());
 
-        log.info("Creating pet '{}' for owner ID: {}", dto.getName(), owner.getId());
+        log.info("Creating pet '{}' for owner ID: {}", dto.getName(), owner.id());
 
         Pet pet = Pet.builder()
                 .name(dto.getName().trim())
                 .species(dto.getSpecies().trim())
                 .breed(dto.getBreed() != null && !dto.getBreed().isBlank() ? dto.getBreed().trim() : null)
                 .age(dto.getAge())
-                .owner(owner)
+                .owner(userRepository.getReferenceById(owner.id()))
                 .build();
 
         Pet saved = petRepository.save(pet);
         log.info("Pet created successfully with ID: {}", saved.getId());
 
-        return toResponseDto(saved);
+        return toResponseDto(saved, owner);
     }
 
-    public List<PetResponseDto> findAll() {
-        log.info("Fetching all pets");
-        return petRepository.findAll()
-                .stream()
-                .map(this::toResponseDto)
-                .toList();
+    @Transactional(readOnly = true)
+    public CursorPageDto<PetResponseDto> findAfter(String cursor, int size) {
+        validatePageSize(size);
+        if (log.isDebugEnabled()) {
+            log.debug("Fetching pets after cursor, page size: {}", size);
+        }
+
+        Slice<PetResponseDto> slice = petRepository
+                .findResponsesAfter(CursorCodec.decode(cursor), PageRequest.of(0, size));
+
+        String nextCursor = slice.hasNext()
+                ? CursorCodec.encode(slice.getContent().get(slice.getNumberOfElements() - 1).getId())
+                : null;
+
+        return new CursorPageDto<>(slice.getContent(), nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public OffsetPageDto<PetResponseDto> findPage(int page, int size) {
+        validatePageSize(size);
+        if (page < 0) {
+            throw new InvalidUserDataException("Page index cannot be negative");
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Fetching pets page {} (size {})", page, size);
+        }
+
+        return OffsetPageDto.from(
+                petRepository.findResponsePage(PageRequest.of(page, size, Sort.by("id")))
+        );
     }
 
+    @Transactional(readOnly = true)
     public Optional<PetResponseDto> findById(Long id) {
-        log.info("Fetching pet by ID: {}", id);
-        return petRepository.findById(id)
+        log.debug("Fetching pet by ID: {}", id);
+        return petRepository.findWithOwnerById(id)
                 .map(this::toResponseDto);
     }
 
+    @Transactional(readOnly = true)
     public List<PetResponseDto> findByOwnerId(Long ownerId) {
-        log.info("Fetching pets by owner ID: {}", ownerId);
+        log.debug("Fetching pets by owner ID: {}", ownerId);
 
-        if (!userRepository.existsById(ownerId)) {
+        if (userLookupCache.findById(ownerId).isEmpty()) {
             throw new ResourceNotFoundException("Owner not found with ID: " + ownerId);
         }
 
-        return petRepository.findByOwnerId(ownerId)
-                .stream()
-                .map(this::toResponseDto)
-                .toList();
+        return petRepository.findResponsesByOwnerId(ownerId);
     }
 
     @Transactional
     public Optional<PetResponseDto> updatePet(Long id, PetRequestDto dto) {
         validateRequest(dto);
-        User owner = loadOwner(dto.getOwnerId());
+        CachedUser owner = loadOwner(dto.getOwnerId());
 
         log.info("Updating pet with ID: {}", id);
 
@@ -121,12 +175,12 @@ public class PetService {
                     existingPet.setSpecies(dto.getSpecies().trim());
                     existingPet.setBreed(dto.getBreed() != null && !dto.getBreed().isBlank() ? dto.getBreed().trim() : null);
                     existingPet.setAge(dto.getAge());
-                    existingPet.setOwner(owner);
+                    existingPet.setOwner(userRepository.getReferenceById(owner.id()));
 
                     Pet updated = petRepository.save(existingPet);
                     log.info("Pet updated successfully with ID: {}", updated.getId());
 
-                    return toResponseDto(updated);
+                    return toResponseDto(updated, owner);
                 });
     }
 
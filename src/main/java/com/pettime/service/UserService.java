@@ -1,14 +1,17 @@
 package com.pettime.service;
 
+import com.pettime.dto.CursorPageDto;
+import com.pettime.dto.OffsetPageDto;
 import com.pettime.dto.UserRequestDto;
 import com.pettime.dto.UserResponseDto;
 
-import java.util.List;
 import java.util.Optional;
 
 public interface UserService {
 
-    List<UserResponseDto> findAll();
+    CursorPageDto<UserResponseDto> findAfter(String cursor, int size);
+
+    OffsetPageDto<UserResponseDto> findPage(int page, int size);
 
     Optional<UserResponseDto> findById(Long id);
 
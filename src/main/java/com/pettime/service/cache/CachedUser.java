@@ -0,0 +1,23 @@
+package com.pettime.service.cache;
+
+import com.pettime.model.User;
+import com.pettime.model.UserRole;
+
+/**
+ * Immutable copy of the user fields served from the lookup cache.
+ * (FR) Copie immuable des champs utilisateur servis par le cache.
+
+ * Entities are mutable and bound to a persistence context, so they are never
+ * shared between requests; callers needing an entity use a reference by id.
+ */
+public record CachedUser(Long id, String name, String email, UserRole role, int capacity) {
+
+    public CachedUser(Long id, String name, String email, UserRole role) {
+        this(id, name, email, role, 1);
+    }
+
+    public static CachedUser of(User user) {
+        int capacity = user.getCapacity() != null ? user.getCapacity() : 1;
+        return new CachedUser(user.getId(), user.getName(), user.getEmail(), user.getRole(), capacity);
+    }
+}
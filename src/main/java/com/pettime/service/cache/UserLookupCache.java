@@ -0,0 +1,124 @@
+package com.pettime.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pettime.config.UserCacheProperties;
+import com.pettime.model.User;
+import com.pettime.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+/**
+ * Read-through cache for user lookups by id and by email.
+ * (FR) Cache en lecture directe pour la recherche des utilisateurs par id et par email.
+
+ * Two bounded Caffeine caches (W-TinyLFU eviction, TTL after write):
+ * - users by id
+ * - user id by email, resolved through the first cache
+ * Missing users are not cached, so a new account is visible immediately.
+ * Writers call {@link #invalidate} with every email the user had; entries are
+ * dropped at once and again when the transaction completes, so a concurrent
+ * reader cannot put back the pre-commit row. Hit, miss and eviction counts are published as
+ * the {@code cache.*} meters tagged {@code cache=users.byId|users.byEmail}.
+ */
+@Component
+public class UserLookupCache {
+
+    private final UserRepository userRepository;
+    private final Cache<Long, CachedUser> usersById;
+    private final Cache<String, Long> userIdsByEmail;
+
+    public UserLookupCache(
+            UserRepository userRepository,
+            UserCacheProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.userRepository = userRepository;
+        this.usersById = newCache(properties);
+        this.userIdsByEmail = newCache(properties);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, usersById, "users.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, userIdsByEmail, "users.byEmail");
+    }
+
+    private static <K, V> Cache<K, V> newCache(UserCacheProperties properties) {
+        return Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the user with this id, loading it on a miss.
+     * (FR) Retourne l'utilisateur correspondant à cet id, chargé en cas d'absence.
+     */
+    public Optional<CachedUser> findById(Long id) {
+        return Optional.ofNullable(usersById.get(id, key -> userRepository.findById(key)
+                .map(CachedUser::of)
+                .orElse(null)));
+    }
+
+    /**
+     * Returns the user with this email, loading it on a miss.
+     * (FR) Retourne l'utilisateur correspondant à cet email, chargé en cas d'absence.
+     */
+    public Optional<CachedUser> findByEmail(String rawEmail) {
+        String email = User.normalizeEmail(rawEmail);
+        Long id = userIdsByEmail.get(email, key -> userRepository.findByEmail(key)
+                .map(user -> cache(user).id())
+                .orElse(null));
+
+        if (id == null) {
+            return Optional.empty();
+        }
+
+        Optional<CachedUser> user = findById(id);
+        if (user.isPresent() && email.equals(user.get().email())) {
+            return user;
+        }
+
+        // The mapping outlived a change made elsewhere: resolve the email again.
+        userIdsByEmail.invalidate(email);
+        return userRepository.findByEmail(email).map(this::cache);
+    }
+
+    /**
+     * Drops the user and the given email keys, now and when the current transaction completes.
+     * (FR) Supprime l'utilisateur et ses emails du cache, immédiatement et en fin de transaction.
+     */
+    public void invalidate(Long id, String... emails) {
+        evict(id, emails);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(id, emails);
+                }
+            });
+        }
+    }
+
+    private void evict(Long id, String... emails) {
+        if (id != null) {
+            usersById.invalidate(id);
+        }
+        for (String email : emails) {
+            if (email != null) {
+                userIdsByEmail.invalidate(email);
+            }
+        }
+    }
+
+    private CachedUser cache(User user) {
+        CachedUser cached = CachedUser.of(user);
+        usersById.put(cached.id(), cached);
+        return cached;
+    }
+}
@@ -0,0 +1,68 @@
+package com.pettime.service.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes one JSON document per line straight to an output stream.
+ * (FR) Écrit un document JSON par ligne directement dans un flux de sortie.
+
+ * Nothing is buffered beyond the generator's own buffer, which is flushed
+ * every {@link #FLUSH_EVERY} rows so the client receives data while the
+ * export is still running. Closing the writer does not close the target.
+ */
+public class NdjsonWriter implements Closeable {
+
+    static final int FLUSH_EVERY = 1_000;
+
+    private final ObjectWriter writer;
+    private final JsonGenerator generator;
+
+    private long written;
+
+    public NdjsonWriter(ObjectMapper objectMapper, OutputStream out) {
+        try {
+            this.writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            this.generator = objectMapper.getFactory().createGenerator(out);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Rows are separated by our own newline, not Jackson's default space.
+            this.generator.setRootValueSeparator(null);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Serializes one row followed by a newline.
+     * (FR) Sérialise une ligne suivie d'un saut de ligne.
+     */
+    public void write(Object row) {
+        try {
+            writer.writeValue(generator, row);
+            generator.writeRaw('\n');
+
+            if (++written % FLUSH_EVERY == 0) {
+                generator.flush();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    public long getWritten() {
+        return written;
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.flush();
+        generator.close();
+    }
+}
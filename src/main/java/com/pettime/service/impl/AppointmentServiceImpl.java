@@ -1,7 +1,17 @@
 package com.pettime.service.impl;
 
+import com.pettime.config.PostgresSchemaInitializer;
+import com.pettime.config.SchedulingProperties;
+import com.pettime.dto.AppointmentBatchResultDto;
+import com.pettime.dto.AppointmentRequestDto;
+import com.pettime.dto.AvailableSlotDto;
 import com.pettime.exception.AppointmentConflictException;
+import com.pettime.exception.ConstraintViolations;
+import com.pettime.exception.InvalidUserDataException;
 import com.pettime.exception.ResourceNotFoundException;
+import com.pettime.metrics.AppointmentMetrics;
+import com.pettime.metrics.AppointmentMetrics.ConflictSource;
+import com.pettime.metrics.AppointmentMetrics.Stage;
 import com.pettime.model.Appointment;
 import com.pettime.model.AppointmentStatus;
 import com.pettime.model.Pet;
@@ -9,12 +19,33 @@ import com.pettime.model.User;
 import com.pettime.repository.AppointmentRepository;
 import com.pettime.repository.PetRepository;
 import com.pettime.repository.UserRepository;
+import com.pettime.repository.projection.AppointmentWindow;
 import com.pettime.service.AppointmentService;
+import com.pettime.service.cache.UserLookupCache;
+import com.pettime.service.scheduling.AppointmentIntervalIndex;
+import com.pettime.service.scheduling.AvailabilityEngine;
+import com.pettime.service.scheduling.BookingCoordinator;
+import com.pettime.service.scheduling.CapacitySweep;
+import com.pettime.service.scheduling.PendingExpiryScheduler;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Implementation of AppointmentService.
@@ -27,6 +58,15 @@ public class AppointmentServiceImpl implements AppointmentService {
     private final AppointmentRepository appointmentRepository;
     private final PetRepository petRepository;
     private final UserRepository userRepository;
+    private final AppointmentIntervalIndex appointmentIntervalIndex;
+    private final BookingCoordinator bookingCoordinator;
+    private final PostgresSchemaInitializer postgresSchemaInitializer;
+    private final AvailabilityEngine availabilityEngine;
+    private final SchedulingProperties schedulingProperties;
+    private final UserLookupCache userLookupCache;
+    private final AppointmentMetrics appointmentMetrics;
+    private final PendingExpiryScheduler pendingExpiryScheduler;
+    private final TransactionOperations transactionOperations;
 
     @Override
     public Appointment create(
@@ -37,42 +77,358 @@ public class AppointmentServiceImpl implements AppointmentService {
     ) {
 
         // 1️⃣ Load pet
-        Pet pet = petRepository.findById(petId)
-                .orElseThrow(() -> new ResourceNotFoundException("Pet not found"));
+        Pet pet = appointmentMetrics.time(Stage.PET_LOAD, () -> petRepository.findById(petId)
+                .orElseThrow(() -> new ResourceNotFoundException("Pet not found")));
 
-        // 2️⃣ Load petshop
-        User petshop = userRepository.findById(petshopId)
-                .orElseThrow(() -> new ResourceNotFoundException("Petshop not found"));
-
-        // 3️⃣ Validate time window
+        // 2️⃣ Validate time window
         if (!startTime.isBefore(endTime)) {
             throw new IllegalArgumentException("startTime must be before endTime");
         }
 
+        // 3️⃣ Check and insert in one transaction, serialized per petshop; the calendar and
+        //    the expiry timer only learn about the booking once it is committed
+        return bookingCoordinator.withPetshopLock(petshopId, () -> {
+            Appointment saved = transactionOperations.execute(status -> book(pet, petshopId, startTime, endTime));
+            appointmentIntervalIndex.register(saved);
+            pendingExpiryScheduler.track(saved);
+
+            return saved;
+        });
+    }
+
+    private Appointment book(Pet pet, Long petshopId, LocalDateTime startTime, LocalDateTime endTime) {
+
+        // 1️⃣ Read the capacity from the petshop row, not from a cache: it picks the booking mode
+        int capacity = appointmentMetrics.time(Stage.PETSHOP_LOAD, () -> userRepository.findCapacityById(petshopId)
+                .orElseThrow(() -> new ResourceNotFoundException("Petshop not found")));
+        boolean exclusive = capacity == 1;
 
-        // 4️⃣ Check overlapping appointments
-        List<Appointment> overlaps =
-                appointmentRepository.findOverlappingAppointments(
-                        petshopId,
-                        startTime,
-                        endTime
-                );
+        // 2️⃣ Build appointment (domain invariant enforced here)
+        Appointment appointment = newPendingAppointment(
+                pet, userRepository.getReferenceById(petshopId), startTime, endTime, exclusive);
 
-        if (!overlaps.isEmpty()) {
+        // 3️⃣ With the exclusion constraint, the insert is the check among exclusive rows;
+        //    shared rows left over from a larger capacity are not covered and are checked first
+        if (exclusive && postgresSchemaInitializer.isExclusionConstraintActive()) {
+            boolean shared = appointmentMetrics.time(Stage.OVERLAP_CHECK,
+                    () -> appointmentRepository.existsOverlappingSharedAppointment(petshopId, startTime, endTime));
+            if (shared) {
+                appointmentMetrics.conflict(ConflictSource.QUERY);
+                throw new AppointmentConflictException();
+            }
+            return insertGuardedByConstraint(appointment);
+        }
+
+        // 4️⃣ Under the lock the calendar holds every exclusive booking of this instance:
+        //    a hit is a conflict, and only a miss costs a query
+        if (exclusive && appointmentIntervalIndex.hasConflict(petshopId, startTime, endTime)) {
+            appointmentMetrics.conflict(ConflictSource.INDEX);
             throw new AppointmentConflictException();
         }
 
-        // 5️⃣ Build appointment (domain invariant enforced here)
-        Appointment appointment = Appointment.builder()
+        // 5️⃣ Otherwise count overlaps in the database and persist
+        boolean full = appointmentMetrics.time(Stage.OVERLAP_CHECK,
+                () -> isFull(petshopId, startTime, endTime, capacity));
+        if (full) {
+            appointmentMetrics.conflict(ConflictSource.QUERY);
+            throw new AppointmentConflictException();
+        }
+
+        return appointmentMetrics.time(Stage.SAVE, () -> appointmentRepository.save(appointment));
+    }
+
+    /**
+     * One-at-a-time petshops only need to know whether any active appointment
+     * overlaps; larger ones sweep the overlapping windows for their peak.
+     */
+    private boolean isFull(Long petshopId, LocalDateTime startTime, LocalDateTime endTime, int capacity) {
+        if (capacity == 1) {
+            return appointmentRepository.existsOverlappingAppointment(petshopId, startTime, endTime);
+        }
+
+        return CapacitySweep.isFull(
+                appointmentRepository.findOverlappingWindows(petshopId, startTime, endTime),
+                startTime,
+                endTime,
+                capacity
+        );
+    }
+
+    @Override
+    public List<AppointmentBatchResultDto> createBatch(List<AppointmentRequestDto> slots) {
+        AppointmentBatchResultDto[] results = new AppointmentBatchResultDto[slots.size()];
+
+        // 1️⃣ Resolve all pets and petshops with one query each
+        Map<Long, Pet> pets = petRepository.findAllById(collectIds(slots, AppointmentRequestDto::getPetId))
+                .stream()
+                .collect(Collectors.toMap(Pet::getId, Function.identity()));
+
+        Map<Long, User> petshops = userRepository.findAllById(collectIds(slots, AppointmentRequestDto::getPetshopId))
+                .stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        // 2️⃣ Validate each slot and group the bookable ones by petshop
+        Map<Long, List<Integer>> slotsByPetshop = new HashMap<>();
+
+        for (int i = 0; i < slots.size(); i++) {
+            AppointmentRequestDto slot = slots.get(i);
+
+            if (slot == null || slot.getPetId() == null || slot.getPetshopId() == null
+                    || slot.getStartTime() == null || slot.getEndTime() == null) {
+                results[i] = AppointmentBatchResultDto.rejected(i, AppointmentBatchResultDto.INVALID,
+                        "petId, petshopId, startTime and endTime are required");
+            } else if (!slot.getStartTime().isBefore(slot.getEndTime())) {
+                results[i] = AppointmentBatchResultDto.rejected(i, AppointmentBatchResultDto.INVALID,
+                        "startTime must be before endTime");
+            } else if (!pets.containsKey(slot.getPetId())) {
+                results[i] = AppointmentBatchResultDto.rejected(i, AppointmentBatchResultDto.NOT_FOUND,
+                        "Pet not found");
+            } else if (!petshops.containsKey(slot.getPetshopId())) {
+                results[i] = AppointmentBatchResultDto.rejected(i, AppointmentBatchResultDto.NOT_FOUND,
+                        "Petshop not found");
+            } else {
+                slotsByPetshop.computeIfAbsent(slot.getPetshopId(), id -> new ArrayList<>()).add(i);
+            }
+        }
+
+        // 3️⃣ Detect conflicts and insert, one petshop at a time
+        slotsByPetshop.forEach((petshopId, indexes) ->
+                bookPetshopBatch(petshops.get(petshopId), indexes, slots, pets, results));
+
+        return Arrays.asList(results);
+    }
+
+    private void bookPetshopBatch(
+            User petshop,
+            List<Integer> indexes,
+            List<AppointmentRequestDto> slots,
+            Map<Long, Pet> pets,
+            AppointmentBatchResultDto[] results
+    ) {
+        LocalDateTime from = indexes.stream()
+                .map(i -> slots.get(i).getStartTime())
+                .min(Comparator.naturalOrder())
+                .orElseThrow();
+        LocalDateTime to = indexes.stream()
+                .map(i -> slots.get(i).getEndTime())
+                .max(Comparator.naturalOrder())
+                .orElseThrow();
+        List<AppointmentWindow> requested = indexes.stream()
+                .map(i -> new AppointmentWindow(null, slots.get(i).getStartTime(), slots.get(i).getEndTime()))
+                .toList();
+
+        bookingCoordinator.withPetshopLock(petshop.getId(), () -> {
+            // Capacity from the petshop row under the lock, as for single bookings
+            Integer capacity = userRepository.findCapacityById(petshop.getId()).orElse(null);
+            if (capacity == null) {
+                indexes.forEach(i -> results[i] = AppointmentBatchResultDto.rejected(
+                        i, AppointmentBatchResultDto.NOT_FOUND, "Petshop not found"));
+                return;
+            }
+
+            // One range query for the whole batch, then one sweep over the booked windows and the batch
+            List<AppointmentWindow> existing =
+                    appointmentRepository.findOverlappingWindows(petshop.getId(), from, to);
+            boolean[] admitted = CapacitySweep.admit(existing, requested, capacity);
+
+            List<Integer> acceptedIndexes = new ArrayList<>();
+            List<Appointment> accepted = new ArrayList<>();
+            for (int k = 0; k < indexes.size(); k++) {
+                int i = indexes.get(k);
+                AppointmentRequestDto slot = slots.get(i);
+
+                if (admitted[k]) {
+                    acceptedIndexes.add(i);
+                    accepted.add(newPendingAppointment(
+                            pets.get(slot.getPetId()), petshop, slot.getStartTime(), slot.getEndTime(), capacity == 1));
+                } else {
+                    appointmentMetrics.conflict(ConflictSource.BATCH);
+                    results[i] = AppointmentBatchResultDto.rejected(i, AppointmentBatchResultDto.CONFLICT,
+                            new AppointmentConflictException().getMessage());
+                }
+            }
+
+            recordBatchResults(acceptedIndexes, insertBatch(accepted), results);
+        });
+    }
+
+    private static void recordBatchResults(
+            List<Integer> acceptedIndexes,
+            List<Appointment> saved,
+            AppointmentBatchResultDto[] results
+    ) {
+        for (int k = 0; k < acceptedIndexes.size(); k++) {
+            int i = acceptedIndexes.get(k);
+            Appointment appointment = saved.get(k);
+            results[i] = appointment != null
+                    ? AppointmentBatchResultDto.created(i, appointment.getId())
+                    : AppointmentBatchResultDto.rejected(i, AppointmentBatchResultDto.CONFLICT,
+                            new AppointmentConflictException().getMessage());
+        }
+    }
+
+    /**
+     * Inserts the appointments in one JDBC batch. If the exclusion constraint rejects
+     * the batch (another node booked one of the slots meanwhile), falls back to one
+     * insert per appointment; rejected ones are returned as null.
+     */
+    private List<Appointment> insertBatch(List<Appointment> appointments) {
+        if (appointments.isEmpty()) {
+            return List.of();
+        }
+
+        List<Appointment> saved;
+        try {
+            saved = appointmentRepository.saveAll(appointments);
+        } catch (DataIntegrityViolationException ex) {
+            if (!ConstraintViolations.isViolationOf(ex, PostgresSchemaInitializer.APPOINTMENT_OVERLAP_CONSTRAINT)) {
+                throw ex;
+            }
+
+            saved = new ArrayList<>(appointments.size());
+            for (Appointment appointment : appointments) {
+                appointment.setId(null);
+                try {
+                    saved.add(insertGuardedByConstraint(appointment));
+                } catch (AppointmentConflictException conflict) {
+                    saved.add(null);
+                }
+            }
+        }
+
+        saved.stream()
+                .filter(Objects::nonNull)
+                .forEach(appointment -> {
+                    appointmentIntervalIndex.register(appointment);
+                    pendingExpiryScheduler.track(appointment);
+                });
+
+        return saved;
+    }
+
+    private static Set<Long> collectIds(
+            List<AppointmentRequestDto> slots,
+            Function<AppointmentRequestDto, Long> id
+    ) {
+        return slots.stream()
+                .filter(Objects::nonNull)
+                .map(id)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
+
+    private static Appointment newPendingAppointment(
+            Pet pet,
+            User petshop,
+            LocalDateTime startTime,
+            LocalDateTime endTime,
+            boolean exclusive
+    ) {
+        return Appointment.builder()
                 .pet(pet)
                 .petshop(petshop)
                 .startTime(startTime)
                 .endTime(endTime)
                 .status(AppointmentStatus.PENDING)
                 .paid(false)
+                .exclusive(exclusive)
                 .build();
+    }
+
+    @Override
+    public Appointment cancel(Long id) {
+
+        // 1️⃣ Conditional update: never overwrites a concurrent payment, completion or expiry
+        int cancelled = appointmentRepository.cancelActive(id, LocalDateTime.now());
+
+        // 2️⃣ Reload the outcome
+        Appointment appointment = appointmentRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Appointment not found"));
+
+        if (cancelled == 0) {
+            // Cancelling twice is a no-op; finished appointments stay as they are
+            if (appointment.getStatus() == AppointmentStatus.COMPLETED) {
+                throw new InvalidUserDataException("Completed appointments cannot be cancelled");
+            }
+            return appointment;
+        }
+
+        // 3️⃣ Only the request that cancelled it frees the slot in the in-memory calendar
+        pendingExpiryScheduler.untrack(id);
+        bookingCoordinator.withPetshopLock(appointment.getPetshop().getId(),
+                () -> appointmentIntervalIndex.release(appointment));
+
+        return appointment;
+    }
+
+    @Override
+    public Appointment confirmPayment(Long id) {
+
+        // 1️⃣ Conditional update: loses cleanly against the expiry of the payment window
+        int confirmed = appointmentRepository.confirmPending(id, LocalDateTime.now());
+        pendingExpiryScheduler.untrack(id);
+
+        // 2️⃣ Reload the outcome; a second confirmation is a no-op
+        Appointment appointment = appointmentRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Appointment not found"));
 
-        // 6️⃣ Persist
-        return appointmentRepository.save(appointment);
+        if (confirmed == 0 && appointment.getStatus() != AppointmentStatus.CONFIRMED) {
+            throw new InvalidUserDataException("Appointment is no longer awaiting payment");
+        }
+
+        return appointment;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AvailableSlotDto> findAvailability(
+            Long petshopId,
+            LocalDateTime from,
+            LocalDateTime to,
+            Duration duration,
+            int limit
+    ) {
+
+        // 1️⃣ Validate the search window
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new InvalidUserDataException("from must be before to");
+        }
+
+        if (Duration.between(from, to).compareTo(schedulingProperties.getMaxAvailabilityRange()) > 0) {
+            throw new InvalidUserDataException(
+                    "Search range cannot exceed " + schedulingProperties.getMaxAvailabilityRange().toDays() + " days");
+        }
+
+        if (duration == null || duration.isNegative() || duration.isZero()) {
+            throw new InvalidUserDataException("duration must be positive");
+        }
+
+        if (limit < 1 || limit > schedulingProperties.getMaxAvailabilityResults()) {
+            throw new InvalidUserDataException(
+                    "limit must be between 1 and " + schedulingProperties.getMaxAvailabilityResults());
+        }
+
+        // 2️⃣ Check petshop and read its capacity
+        int capacity = userLookupCache.findById(petshopId)
+                .orElseThrow(() -> new ResourceNotFoundException("Petshop not found"))
+                .capacity();
+
+        // 3️⃣ Sweep booked windows as they stream from the database
+        try (Stream<AppointmentWindow> booked =
+                     appointmentRepository.streamWindowsBetween(petshopId, from, to)) {
+            return availabilityEngine.findFreeSlots(booked.iterator(), from, to, duration, limit, capacity);
+        }
+    }
+
+    private Appointment insertGuardedByConstraint(Appointment appointment) {
+        try {
+            return appointmentMetrics.time(Stage.SAVE, () -> appointmentRepository.saveAndFlush(appointment));
+        } catch (DataIntegrityViolationException ex) {
+            if (ConstraintViolations.isViolationOf(ex, PostgresSchemaInitializer.APPOINTMENT_OVERLAP_CONSTRAINT)) {
+                appointmentMetrics.conflict(ConflictSource.CONSTRAINT);
+                throw new AppointmentConflictException();
+            }
+            throw ex;
+        }
     }
 }
@@ -0,0 +1,108 @@
+package com.pettime.service.impl;
+
+import com.pettime.dto.LoginRequestDto;
+import com.pettime.dto.RefreshTokenRequestDto;
+import com.pettime.dto.TokenResponseDto;
+import com.pettime.exception.InvalidCredentialsException;
+import com.pettime.model.User;
+import com.pettime.repository.UserRepository;
+import com.pettime.exception.HashingCapacityExceededException;
+import com.pettime.security.LoginThrottle;
+import com.pettime.security.PasswordHashingService;
+import com.pettime.security.TokenService;
+import com.pettime.service.AuthService;
+import com.pettime.service.cache.CachedUser;
+import com.pettime.service.cache.UserLookupCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * Login and token refresh; the only place where BCrypt verifies a password.
+ * (FR) Connexion et rafraîchissement des jetons ; seul endroit où BCrypt vérifie un mot de passe.
+ */
+@Slf4j
+@Service
+public class AuthServiceImpl implements AuthService {
+
+    private final UserRepository userRepository;
+    private final UserLookupCache userLookupCache;
+    private final PasswordHashingService passwordHashingService;
+    private final TokenService tokenService;
+    private final LoginThrottle loginThrottle;
+
+    /**
+     * Hash verified for unknown emails, so both failures cost one BCrypt check.
+     */
+    private final String unknownUserHash;
+
+    public AuthServiceImpl(
+            UserRepository userRepository,
+            UserLookupCache userLookupCache,
+            PasswordHashingService passwordHashingService,
+            TokenService tokenService,
+            LoginThrottle loginThrottle
+    ) {
+        this.userRepository = userRepository;
+        this.userLookupCache = userLookupCache;
+        this.passwordHashingService = passwordHashingService;
+        this.tokenService = tokenService;
+        this.loginThrottle = loginThrottle;
+        this.unknownUserHash = passwordHashingService.hash(UUID.randomUUID().toString());
+    }
+
+    @Override
+    public TokenResponseDto login(LoginRequestDto dto, String clientAddress) {
+        // Throttle before any lookup or hash, so rejected attempts stay cheap
+        String email = User.normalizeEmail(dto.getEmail());
+        loginThrottle.acquire(clientAddress, email);
+
+        User user = userRepository.findByEmail(email).orElse(null);
+
+        if (user == null) {
+            passwordHashingService.matches(dto.getPassword(), unknownUserHash);
+            log.info("Login failed for unknown email");
+            throw new InvalidCredentialsException();
+        }
+
+        if (!passwordHashingService.matches(dto.getPassword(), user.getPassword())) {
+            log.info("Login failed for user ID: {}", user.getId());
+            throw new InvalidCredentialsException();
+        }
+
+        rehashIfCostChanged(user, dto.getPassword());
+
+        log.info("User logged in: {}", user.getId());
+        return tokenService.issue(CachedUser.of(user));
+    }
+
+    @Override
+    public TokenResponseDto refresh(RefreshTokenRequestDto dto) {
+        Long userId = tokenService.verifyRefreshToken(dto.getRefreshToken());
+
+        // Reload the user so deleted accounts and role changes are honored.
+        CachedUser user = userLookupCache.findById(userId)
+                .orElseThrow(() -> new InvalidCredentialsException("Invalid refresh token"));
+
+        return tokenService.issue(user);
+    }
+
+    /**
+     * Re-hashes the password with the current strength after a successful login.
+     * Skipped when the hashing executor is saturated; the next login retries.
+     */
+    private void rehashIfCostChanged(User user, String rawPassword) {
+        if (!passwordHashingService.needsRehash(user.getPassword())) {
+            return;
+        }
+
+        try {
+            user.setPassword(passwordHashingService.hash(rawPassword));
+            userRepository.save(user);
+            log.info("Password re-hashed with current strength for user ID: {}", user.getId());
+        } catch (HashingCapacityExceededException ex) {
+            log.debug("Skipping password re-hash for user ID: {}; hashing executor saturated", user.getId());
+        }
+    }
+}
@@ -1,34 +1,62 @@
 package com.pettime.service.impl;
 
+import com.pettime.dto.CursorPageDto;
+import com.pettime.dto.OffsetPageDto;
 import com.pettime.dto.UserRequestDto;
 import com.pettime.dto.UserResponseDto;
+import com.pettime.exception.ConstraintViolations;
 import com.pettime.exception.EmailAlreadyExistsException;
 import com.pettime.exception.InvalidUserDataException;
 import com.pettime.exception.ResourceNotFoundException;
+import com.pettime.mapper.CursorCodec;
 import com.pettime.mapper.UserMapper;
 import com.pettime.model.User;
 import com.pettime.repository.UserRepository;
+import com.pettime.security.PasswordHashingService;
 import com.pettime.service.UserService;
-import jakarta.transaction.Transactional;
-import lombok.RequiredArgsConstructor;
+import com.pettime.service.cache.CachedUser;
+import com.pettime.service.cache.UserLookupCache;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.List;
 import java.util.Optional;
 
 /**
  * User service implementation with secure password handling,
  * strong validation, DTO safety, logging and correct exception usage.
+
+ * Writes hash the password first and only then open the transaction, so a
+ * BCrypt hash never holds a pooled connection.
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final UserRepository userRepository;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    private final UserLookupCache userLookupCache;
+    private final TransactionTemplate transactionTemplate;
+
+    public UserServiceImpl(
+            UserRepository userRepository,
+            PasswordHashingService passwordHashingService,
+            UserLookupCache userLookupCache,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.userRepository = userRepository;
+        this.passwordHashingService = passwordHashingService;
+        this.userLookupCache = userLookupCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
 
     private UserResponseDto toSafeDto(User user) {
         return UserMapper.toResponseDto(user);
@@ -40,93 +68,154 @@ public class UserServiceImpl implements UserService {
             throw new InvalidUserDataException("Email cannot be empty");
         }
 
-        if (userRepository.existsByEmail(dto.getEmail())) {
-            throw new EmailAlreadyExistsException(dto.getEmail());
-        }
-
         if (dto.getName() == null || dto.getName().isBlank()) {
             throw new InvalidUserDataException("Name cannot be empty");
         }
+
+        if (dto.getCapacity() != null && dto.getCapacity() < 1) {
+            throw new InvalidUserDataException("Capacity must be at least 1");
+        }
+    }
+
+    private void validatePageSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new InvalidUserDataException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
     }
 
-    private void validateUpdate(Long id, UserRequestDto dto) {
+    private User saveUnique(User user, String email) {
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException ex) {
+            if (ConstraintViolations.isEmailTaken(ex)) {
+                throw new EmailAlreadyExistsException(email);
+            }
+            throw ex;
+        }
+    }
+
+    private void validateUpdate(UserRequestDto dto) {
 
         if (dto.getEmail() == null || dto.getEmail().isBlank()) {
             throw new InvalidUserDataException("Email cannot be empty");
         }
 
-        userRepository.findByEmail(dto.getEmail())
-                .ifPresent(existing -> {
-                    if (!existing.getId().equals(id)) {
-                        throw new EmailAlreadyExistsException(dto.getEmail());
-                    }
-                });
-
         if (dto.getName() == null || dto.getName().isBlank()) {
             throw new InvalidUserDataException("Name cannot be empty");
         }
+
+        if (dto.getCapacity() != null && dto.getCapacity() < 1) {
+            throw new InvalidUserDataException("Capacity must be at least 1");
+        }
     }
 
+    @Transactional(readOnly = true)
     @Override
-    public List<UserResponseDto> findAll() {
-        log.info("Fetching all users");
-        return userRepository.findAll()
-                .stream()
-                .map(this::toSafeDto)
-                .toList();
+    public CursorPageDto<UserResponseDto> findAfter(String cursor, int size) {
+        validatePageSize(size);
+        if (log.isDebugEnabled()) {
+            log.debug("Fetching users after cursor, page size: {}", size);
+        }
+
+        Slice<UserResponseDto> slice = userRepository
+                .findByIdGreaterThanOrderByIdAsc(CursorCodec.decode(cursor), PageRequest.of(0, size))
+                .map(this::toSafeDto);
+
+        String nextCursor = slice.hasNext()
+                ? CursorCodec.encode(slice.getContent().get(slice.getNumberOfElements() - 1).getId())
+                : null;
+
+        return new CursorPageDto<>(slice.getContent(), nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public OffsetPageDto<UserResponseDto> findPage(int page, int size) {
+        validatePageSize(size);
+        if (page < 0) {
+            throw new InvalidUserDataException("Page index cannot be negative");
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Fetching users page {} (size {})", page, size);
+        }
+
+        return OffsetPageDto.from(
+                userRepository.findAll(PageRequest.of(page, size, Sort.by("id")))
+                        .map(this::toSafeDto)
+        );
     }
 
     @Override
     public Optional<UserResponseDto> findById(Long id) {
-        log.info("Fetching user by ID: {}", id);
-        return userRepository.findById(id)
-                .map(this::toSafeDto);
+        log.debug("Fetching user by ID: {}", id);
+        return userLookupCache.findById(id)
+                .map(UserMapper::toResponseDto);
     }
 
     @Override
     public Optional<UserResponseDto> findByEmail(String email) {
-        log.info("Fetching user by email: {}", email);
-        return userRepository.findByEmail(email)
-                .map(this::toSafeDto);
+        log.debug("Fetching user by email");
+        return userLookupCache.findByEmail(email)
+                .map(UserMapper::toResponseDto);
     }
 
-    @Transactional
     @Override
     public UserResponseDto createUser(UserRequestDto dto) {
-        log.info("Creating new user: {}", dto.getEmail());
+        log.info("Creating new user");
 
         validateCreate(dto);
 
         User entity = UserMapper.toEntity(dto);
-        entity.setPassword(passwordEncoder.encode(dto.getPassword()));
+        entity.setPassword(passwordHashingService.hash(dto.getPassword()));
 
-        User saved = userRepository.save(entity);
+        // Duplicates are rejected by the unique email constraint: one round trip, no race
+        User saved = transactionTemplate.execute(status -> {
+            User inserted = saveUnique(entity, dto.getEmail());
+            userLookupCache.invalidate(inserted.getId(), inserted.getEmail());
+            return inserted;
+        });
 
         log.info("User created successfully with ID: {}", saved.getId());
         return toSafeDto(saved);
     }
 
-    @Transactional
     @Override
     public Optional<UserResponseDto> updateUser(Long id, UserRequestDto dto) {
         log.info("Updating user ID: {}", id);
 
-        validateUpdate(id, dto);
+        validateUpdate(dto);
+
+        // Unknown ids are answered from the lookup cache, before paying for a password hash
+        if (userLookupCache.findById(id).isEmpty()) {
+            log.warn("User not found for update: {}", id);
+            return Optional.empty();
+        }
+
+        String passwordHash = dto.getPassword() != null && !dto.getPassword().isBlank()
+                ? passwordHashingService.hash(dto.getPassword())
+                : null;
 
-        return userRepository.findById(id)
+        return transactionTemplate.execute(status -> userRepository.findById(id)
                 .map(existing -> {
+                    String previousEmail = existing.getEmail();
+
                     existing.setName(dto.getName());
-                    existing.setEmail(dto.getEmail());
+                    existing.setEmail(User.normalizeEmail(dto.getEmail()));
+
+                    if (dto.getCapacity() != null) {
+                        existing.setCapacity(dto.getCapacity());
+                    }
 
-                    if (dto.getPassword() != null && !dto.getPassword().isBlank()) {
-                        existing.setPassword(passwordEncoder.encode(dto.getPassword()));
+                    if (passwordHash != null) {
+                        existing.setPassword(passwordHash);
                     }
 
-                    User updated = userRepository.save(existing);
+                    User updated = saveUnique(existing, dto.getEmail());
+                    userLookupCache.invalidate(id, previousEmail, updated.getEmail());
                     log.info("User updated successfully: {}", updated.getId());
 
                     return toSafeDto(updated);
-                });
+                }));
     }
 
     @Transactional
@@ -134,11 +223,11 @@ public class UserServiceImpl implements UserService {
     public boolean deleteUser(Long id) {
         log.warn("Deleting user ID: {}", id);
 
-        if (!userRepository.existsById(id)) {
-            throw new ResourceNotFoundException("User not found with ID: " + id);
-        }
+        CachedUser user = userLookupCache.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + id));
 
         userRepository.deleteById(id);
+        userLookupCache.invalidate(id, user.email());
         log.info("User deleted successfully: {}", id);
 
         return true;
@@ -0,0 +1,270 @@
+package com.pettime.service.payment;
+
+import com.pettime.config.PaymentWebhookProperties;
+import com.pettime.exception.PaymentConfirmationFailedException;
+import com.pettime.service.scheduling.PendingExpiryScheduler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies paid webhook events to their appointments in multi-row UPDATEs.
+ * (FR) Applique les paiements reçus par webhook aux rendez-vous par UPDATE multi-lignes.
+
+ * The webhook offers a confirmation to a bounded queue and waits, without
+ * holding its thread, for the batch to commit. One worker thread takes the
+ * first waiting confirmation, keeps collecting for the flush interval (or
+ * until a batch is full) and confirms the whole batch with
+ * UPDATE appointments SET status = 'CONFIRMED', paid = true WHERE status = 'PENDING' AND id IN (...).
+ * The status guard makes redeliveries no-ops and lets an appointment already
+ * cancelled by the payment window stay cancelled; those are logged for a
+ * refund. Accepting a confirmation stops the payment window timer of its
+ * appointment, so a payment waiting in the queue or between two attempts
+ * cannot be overtaken by the expiry. A failed batch is retried a few times,
+ * then its event ids are released and its deliveries fail, so Stripe, which
+ * has not seen them acknowledged, sends them again.
+
+ * Published meters:
+ * - payment.confirmation.batch (timer, one sample per UPDATE)
+ * - payment.confirmation.batch.size (confirmations per UPDATE)
+ * - payment.confirmation.backlog (confirmations waiting)
+ * - payment.confirmation.confirmed / unmatched / failed (counters)
+ */
+@Slf4j
+@Component
+public class PaymentConfirmationBatcher implements InitializingBean, DisposableBean {
+
+    private static final String CONFIRM_PAID = """
+            UPDATE appointments
+               SET status = 'CONFIRMED', paid = true, updated_at = ?
+             WHERE status = 'PENDING' AND id IN (%s)
+            """;
+
+    private static final String SELECT_CANCELLED = "SELECT id FROM appointments WHERE status = 'CANCELLED' AND id IN (%s)";
+
+    private static final long IDLE_POLL_MILLIS = 500;
+
+    /**
+     * A paid appointment, with the event that reported it and the completion its delivery waits on.
+     */
+    public record Confirmation(String eventId, long appointmentId, CompletableFuture<Void> applied) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PendingExpiryScheduler pendingExpiryScheduler;
+    private final WebhookIdempotencyStore idempotencyStore;
+    private final PaymentWebhookProperties properties;
+    private final BlockingQueue<Confirmation> queue;
+    private final ExecutorService worker;
+
+    private final Timer batchTimer;
+    private final DistributionSummary batchSize;
+    private final Counter confirmed;
+    private final Counter unmatched;
+    private final Counter failed;
+
+    private volatile boolean running = true;
+
+    public PaymentConfirmationBatcher(
+            JdbcTemplate jdbcTemplate,
+            PendingExpiryScheduler pendingExpiryScheduler,
+            WebhookIdempotencyStore idempotencyStore,
+            PaymentWebhookProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.pendingExpiryScheduler = pendingExpiryScheduler;
+        this.idempotencyStore = idempotencyStore;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "payment-confirmations");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("payment.confirmation.backlog", queue, BlockingQueue::size)
+                .description("Payment confirmations waiting for the next batch")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("payment.confirmation.batch")
+                .description("Duration of one payment confirmation UPDATE")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("payment.confirmation.batch.size")
+                .description("Payment confirmations applied by one UPDATE")
+                .register(meterRegistry);
+        this.confirmed = Counter.builder("payment.confirmation.confirmed")
+                .description("Appointments moved from PENDING to CONFIRMED by a payment event")
+                .register(meterRegistry);
+        this.unmatched = Counter.builder("payment.confirmation.unmatched")
+                .description("Payment events whose appointment was no longer pending")
+                .register(meterRegistry);
+        this.failed = Counter.builder("payment.confirmation.failed")
+                .description("Payment events given up after every attempt failed")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        worker.execute(this::run);
+    }
+
+    /**
+     * Queues a confirmation without blocking; returns false when the backlog is full.
+     * (FR) Met une confirmation en file sans bloquer ; retourne false si la file est pleine.
+     */
+    public boolean offer(Confirmation confirmation) {
+        if (!running || !queue.offer(confirmation)) {
+            return false;
+        }
+
+        // Paid: the appointment must not expire while its confirmation is pending
+        pendingExpiryScheduler.untrack(confirmation.appointmentId());
+        return true;
+    }
+
+    public int backlog() {
+        return queue.size();
+    }
+
+    private void run() {
+        List<Confirmation> batch = new ArrayList<>(properties.getMaxBatchSize());
+        try {
+            while (running) {
+                Confirmation first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                collect(batch);
+                apply(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Shutting down: write what was already accepted, without waiting for more.
+        if (!batch.isEmpty()) {
+            applyOnce(batch);
+            batch.clear();
+        }
+        while (queue.drainTo(batch, properties.getMaxBatchSize()) > 0) {
+            applyOnce(batch);
+            batch.clear();
+        }
+    }
+
+    private void collect(List<Confirmation> batch) throws InterruptedException {
+        int maxBatchSize = properties.getMaxBatchSize();
+        long deadline = System.nanoTime() + properties.getFlushInterval().toNanos();
+
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatchSize || remaining <= 0) {
+                return;
+            }
+
+            Confirmation next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void apply(List<Confirmation> batch) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                confirm(batch);
+                return;
+            } catch (RuntimeException ex) {
+                if (attempt >= properties.getMaxAttempts()) {
+                    giveUp(batch, ex);
+                    return;
+                }
+                log.warn("Could not apply {} payment confirmations (attempt {}); retrying", batch.size(), attempt, ex);
+                Thread.sleep(properties.getRetryDelay().toMillis());
+            }
+        }
+    }
+
+    private void applyOnce(List<Confirmation> batch) {
+        try {
+            confirm(batch);
+        } catch (RuntimeException ex) {
+            giveUp(batch, ex);
+        }
+    }
+
+    private void confirm(List<Confirmation> batch) {
+        Set<Long> ids = new LinkedHashSet<>();
+        batch.forEach(confirmation -> ids.add(confirmation.appointmentId()));
+
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        Object[] idArgs = ids.toArray();
+
+        Object[] args = new Object[ids.size() + 1];
+        args[0] = LocalDateTime.now();
+        System.arraycopy(idArgs, 0, args, 1, ids.size());
+
+        Timer.Sample sample = Timer.start();
+        int updated = jdbcTemplate.update(CONFIRM_PAID.formatted(placeholders), args);
+        sample.stop(batchTimer);
+
+        batchSize.record(batch.size());
+        confirmed.increment(updated);
+        batch.forEach(confirmation -> confirmation.applied().complete(null));
+
+        if (updated < ids.size()) {
+            // Redeliveries and manual confirmations land here too; only cancelled ones need a refund.
+            unmatched.increment(ids.size() - updated);
+            List<Long> cancelled = jdbcTemplate.queryForList(SELECT_CANCELLED.formatted(placeholders), Long.class, idArgs);
+            if (!cancelled.isEmpty()) {
+                log.warn("Payment received for cancelled appointments {}; a refund is needed", cancelled);
+            }
+        }
+    }
+
+    private void giveUp(List<Confirmation> batch, RuntimeException ex) {
+        failed.increment(batch.size());
+        log.error("Gave up on payment confirmations {}; their deliveries fail and Stripe redelivers them", batch, ex);
+
+        PaymentConfirmationFailedException failure = new PaymentConfirmationFailedException(ex);
+        for (Confirmation confirmation : batch) {
+            idempotencyStore.release(confirmation.eventId(), confirmation.applied());
+            confirmation.applied().completeExceptionally(failure);
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        worker.shutdown();
+        if (!worker.awaitTermination(5, TimeUnit.SECONDS)) {
+            worker.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.pettime.service.payment;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pettime.exception.InvalidWebhookException;
+import com.pettime.exception.PaymentBacklogFullException;
+import com.pettime.exception.PaymentConfirmationFailedException;
+import com.pettime.security.WebhookSignatureVerifier;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Turns Stripe webhook deliveries into queued appointment confirmations.
+ * (FR) Transforme les appels du webhook Stripe en confirmations de rendez-vous en file.
+
+ * A delivery is verified, parsed, deduplicated by event id and offered to
+ * the {@link PaymentConfirmationBatcher}. It is acknowledged only once the
+ * batch holding its confirmation is committed: Stripe keeps every event it
+ * has not seen acknowledged, so a failed batch or a crash with events still
+ * queued ends in a redelivery instead of a lost payment. The request thread
+ * is released while the batch is pending. Paid events are
+ * {@code payment_intent.succeeded} and {@code checkout.session.completed}
+ * with {@code payment_status=paid}; the appointment is read from
+ * {@code metadata.appointmentId} of the event object. Every other event is acknowledged and ignored, so Stripe stops
+ * retrying it. Outcomes are counted as payment.webhook.events{outcome}.
+ */
+@Service
+public class PaymentWebhookService {
+
+    public enum Outcome {
+        ACCEPTED, DUPLICATE, IGNORED
+    }
+
+    static final String APPOINTMENT_ID_KEY = "appointmentId";
+
+    private static final Set<String> PAID_EVENT_TYPES = Set.of(
+            "payment_intent.succeeded",
+            "checkout.session.completed"
+    );
+
+    private final WebhookSignatureVerifier signatureVerifier;
+    private final WebhookIdempotencyStore idempotencyStore;
+    private final PaymentConfirmationBatcher batcher;
+    private final ObjectMapper objectMapper;
+    private final Map<Outcome, Counter> outcomes = new EnumMap<>(Outcome.class);
+
+    public PaymentWebhookService(
+            WebhookSignatureVerifier signatureVerifier,
+            WebhookIdempotencyStore idempotencyStore,
+            PaymentConfirmationBatcher batcher,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry
+    ) {
+        this.signatureVerifier = signatureVerifier;
+        this.idempotencyStore = idempotencyStore;
+        this.batcher = batcher;
+        this.objectMapper = objectMapper;
+
+        for (Outcome outcome : Outcome.values()) {
+            outcomes.put(outcome, Counter.builder("payment.webhook.events")
+                    .description("Verified payment webhook deliveries, by outcome")
+                    .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Verifies one delivery and queues its confirmation; completes with what was done with it
+     * once the confirmation is committed, or with {@link PaymentConfirmationFailedException}.
+     * (FR) Vérifie un appel et met sa confirmation en file ; se termine une fois la confirmation validée.
+     */
+    public CompletableFuture<Outcome> receive(String payload, String signature) {
+        // 1️⃣ Reject anything not signed by Stripe with our secret
+        signatureVerifier.verify(payload, signature, Instant.now());
+
+        // 2️⃣ Keep only paid events that name an appointment
+        JsonNode event = parse(payload);
+        String eventId = event.path("id").asText("");
+        if (eventId.isEmpty()) {
+            throw new InvalidWebhookException("Webhook event has no id");
+        }
+
+        Long appointmentId = paidAppointmentId(event);
+        if (appointmentId == null) {
+            return CompletableFuture.completedFuture(count(Outcome.IGNORED));
+        }
+
+        // 3️⃣ Redeliveries share the outcome of the delivery that claimed the event first
+        CompletableFuture<Void> applied = new CompletableFuture<>();
+        CompletableFuture<Void> claimed = idempotencyStore.claim(eventId, applied);
+        if (claimed != null) {
+            return claimed.thenApply(done -> count(Outcome.DUPLICATE));
+        }
+
+        // 4️⃣ Hand over to the batcher; when it is saturated, Stripe redelivers later
+        if (!batcher.offer(new PaymentConfirmationBatcher.Confirmation(eventId, appointmentId, applied))) {
+            idempotencyStore.release(eventId, applied);
+            PaymentBacklogFullException full = new PaymentBacklogFullException();
+            applied.completeExceptionally(full);
+            throw full;
+        }
+
+        // 5️⃣ Acknowledge once committed; a failure is answered 503 and Stripe redelivers
+        return applied.thenApply(done -> count(Outcome.ACCEPTED));
+    }
+
+    private JsonNode parse(String payload) {
+        try {
+            JsonNode event = objectMapper.readTree(payload);
+            if (event == null || !event.isObject()) {
+                throw new InvalidWebhookException("Webhook payload is not a JSON object");
+            }
+            return event;
+        } catch (JsonProcessingException ex) {
+            throw new InvalidWebhookException("Webhook payload is not valid JSON");
+        }
+    }
+
+    private static Long paidAppointmentId(JsonNode event) {
+        if (!PAID_EVENT_TYPES.contains(event.path("type").asText())) {
+            return null;
+        }
+
+        JsonNode object = event.path("data").path("object");
+        JsonNode paymentStatus = object.path("payment_status");
+        if (!paymentStatus.isMissingNode() && !"paid".equals(paymentStatus.asText())) {
+            return null;
+        }
+
+        String appointmentId = object.path("metadata").path(APPOINTMENT_ID_KEY).asText("");
+        try {
+            return appointmentId.isEmpty() ? null : Long.valueOf(appointmentId);
+        } catch (NumberFormatException ex) {
+            throw new InvalidWebhookException("Webhook metadata has an invalid appointmentId");
+        }
+    }
+
+    private Outcome count(Outcome outcome) {
+        outcomes.get(outcome).increment();
+        return outcome;
+    }
+}
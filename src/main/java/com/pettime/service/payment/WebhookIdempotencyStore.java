@@ -0,0 +1,58 @@
+package com.pettime.service.payment;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pettime.config.PaymentWebhookProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Bounded memory of the webhook event ids already accepted.
+ * (FR) Mémoire bornée des identifiants d'événements de webhook déjà acceptés.
+
+ * Stripe delivers at least once, so the same event id can arrive several
+ * times, sometimes concurrently. Each id maps to the completion of its
+ * confirmation, in a Caffeine cache bounded by size and retention; claiming
+ * one is a single atomic putIfAbsent, and a concurrent redelivery waits for
+ * the same completion instead of being acknowledged early. An id is released
+ * again when its event could not be queued or applied; that delivery is
+ * answered with an error, so Stripe sends it again and it is processed anew.
+ * The confirmation itself is idempotent, so an id evicted early only costs a
+ * redundant no-op UPDATE. Published as the {@code cache.*} meters tagged
+ * {@code cache=payments.webhook.events}.
+ */
+@Component
+public class WebhookIdempotencyStore {
+
+    private final Cache<String, CompletableFuture<Void>> seen;
+
+    public WebhookIdempotencyStore(PaymentWebhookProperties properties, MeterRegistry meterRegistry) {
+        this.seen = Caffeine.newBuilder()
+                .maximumSize(properties.getIdempotencyMaximumSize())
+                .expireAfterWrite(properties.getIdempotencyRetention())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, seen, "payments.webhook.events");
+    }
+
+    /**
+     * Records the event id with the completion of its confirmation; returns null if it had
+     * not been seen yet, otherwise the completion recorded by the first delivery.
+     * (FR) Enregistre l'identifiant ; retourne null s'il était nouveau, sinon la complétion déjà enregistrée.
+     */
+    public CompletableFuture<Void> claim(String eventId, CompletableFuture<Void> applied) {
+        return seen.asMap().putIfAbsent(eventId, applied);
+    }
+
+    /**
+     * Forgets the event id so a later delivery is processed again.
+     * (FR) Oublie l'identifiant pour qu'une livraison ultérieure soit retraitée.
+     */
+    public void release(String eventId, CompletableFuture<Void> applied) {
+        seen.asMap().remove(eventId, applied);
+    }
+}
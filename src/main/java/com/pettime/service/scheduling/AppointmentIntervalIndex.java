@@ -0,0 +1,182 @@
+package com.pettime.service.scheduling;
+
+import com.pettime.config.SchedulingProperties;
+import com.pettime.model.Appointment;
+import com.pettime.repository.AppointmentRepository;
+import com.pettime.repository.projection.AppointmentWindow;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory calendar of exclusive booked windows, one sorted set per petshop.
+ * (FR) Calendrier en mémoire des créneaux exclusifs réservés, un ensemble trié par animalerie.
+
+ * Callers hold the petshop lock of {@link BookingCoordinator}, so a hit is a
+ * conflict and the booking is rejected without a query; a miss still goes to
+ * the authoritative overlap query, which also sees non-exclusive rows.
+ * - a calendar is warmed lazily from the repository on first use, outside
+ *   any map lock, and reloaded once it is older than the configured TTL
+ * - it is kept current once a booking is committed ({@link #register}), on
+ *   cancel ({@link #release}) and on payment expiry ({@link #evict})
+ * - changes made by other instances are only seen after the TTL: a freed
+ *   slot may be refused until then, a taken one is caught by the query
+ * - a load that overlaps a release or eviction is used once but not cached,
+ *   so it cannot bring back a window that was just freed
+
+ * Only exclusive windows are kept: they never overlap each other, so the only
+ * candidate for a conflict is the last window starting before the requested
+ * end: O(log n) per lookup. Non-exclusive rows, left over from a larger
+ * capacity, may overlap and are left to the query.
+ */
+@Component
+public class AppointmentIntervalIndex {
+
+    private final AppointmentRepository appointmentRepository;
+    private final long ttlNanos;
+
+    private final ConcurrentMap<Long, PetshopCalendar> calendars = new ConcurrentHashMap<>();
+
+    /**
+     * Bumped by every release and eviction; a load only caches its result if it stayed unchanged.
+     */
+    private final AtomicLong removals = new AtomicLong();
+
+    public AppointmentIntervalIndex(AppointmentRepository appointmentRepository, SchedulingProperties properties) {
+        this.appointmentRepository = appointmentRepository;
+        this.ttlNanos = properties.getIntervalIndexTtl().toNanos();
+    }
+
+    /**
+     * Returns true when a known exclusive appointment of the petshop overlaps [start, end).
+     * (FR) Indique si un rendez-vous exclusif connu chevauche l'intervalle [start, end).
+     */
+    public boolean hasConflict(Long petshopId, LocalDateTime start, LocalDateTime end) {
+        return calendarFor(petshopId).overlaps(start, end);
+    }
+
+    /**
+     * Records a committed exclusive appointment in its petshop calendar, if already warmed.
+     * (FR) Enregistre un rendez-vous exclusif validé dans le calendrier de l'animalerie.
+     */
+    public void register(Appointment appointment) {
+        if (!Boolean.TRUE.equals(appointment.getExclusive())) {
+            return;
+        }
+
+        PetshopCalendar calendar = calendars.get(appointment.getPetshop().getId());
+        if (calendar != null) {
+            calendar.add(Slot.of(appointment));
+        }
+    }
+
+    /**
+     * Frees the window of a cancelled appointment.
+     * (FR) Libère le créneau d'un rendez-vous annulé.
+     */
+    public void release(Appointment appointment) {
+        removals.incrementAndGet();
+        PetshopCalendar calendar = calendars.get(appointment.getPetshop().getId());
+        if (calendar != null) {
+            calendar.remove(Slot.of(appointment));
+        }
+    }
+
+    /**
+     * Drops the calendar of a petshop; it is warmed again on next use.
+     * (FR) Supprime le calendrier d'une animalerie ; il sera rechargé au prochain accès.
+     */
+    public void evict(Long petshopId) {
+        removals.incrementAndGet();
+        calendars.remove(petshopId);
+    }
+
+    private PetshopCalendar calendarFor(Long petshopId) {
+        long now = System.nanoTime();
+        PetshopCalendar cached = calendars.get(petshopId);
+        if (cached != null && now - cached.loadedAt < ttlNanos) {
+            return cached;
+        }
+
+        // Query without holding a map bin lock, so other petshops never wait on it
+        long removalsBefore = removals.get();
+        PetshopCalendar loaded = load(petshopId, now);
+        if (removals.get() != removalsBefore) {
+            return loaded;
+        }
+
+        if (cached == null) {
+            PetshopCalendar raced = calendars.putIfAbsent(petshopId, loaded);
+            return raced != null ? raced : loaded;
+        }
+        calendars.replace(petshopId, cached, loaded);
+        return loaded;
+    }
+
+    private PetshopCalendar load(Long petshopId, long loadedAt) {
+        PetshopCalendar calendar = new PetshopCalendar(loadedAt);
+        appointmentRepository.findExclusiveWindowsEndingAfter(petshopId, LocalDateTime.now())
+                .forEach(window -> calendar.add(Slot.of(window)));
+        return calendar;
+    }
+
+    /**
+     * Booked window; ordered by start time, then by id.
+     */
+    record Slot(LocalDateTime start, LocalDateTime end, long id) {
+
+        static final Comparator<Slot> ORDER = Comparator
+                .comparing(Slot::start)
+                .thenComparingLong(Slot::id);
+
+        static Slot of(Appointment appointment) {
+            return new Slot(appointment.getStartTime(), appointment.getEndTime(), appointment.getId());
+        }
+
+        static Slot of(AppointmentWindow window) {
+            return new Slot(window.startTime(), window.endTime(), window.id());
+        }
+
+        static Slot probe(LocalDateTime start) {
+            return new Slot(start, start, Long.MIN_VALUE);
+        }
+    }
+
+    private static final class PetshopCalendar {
+
+        private final NavigableSet<Slot> slots = new TreeSet<>(Slot.ORDER);
+        private final long loadedAt;
+
+        PetshopCalendar(long loadedAt) {
+            this.loadedAt = loadedAt;
+        }
+
+        synchronized boolean overlaps(LocalDateTime start, LocalDateTime end) {
+            Slot candidate = slots.lower(Slot.probe(end));
+            return candidate != null && candidate.end().isAfter(start);
+        }
+
+        synchronized void add(Slot slot) {
+            pruneEndedBefore(LocalDateTime.now());
+            slots.add(slot);
+        }
+
+        synchronized void remove(Slot slot) {
+            slots.remove(slot);
+        }
+
+        private void pruneEndedBefore(LocalDateTime now) {
+            Iterator<Slot> iterator = slots.iterator();
+            while (iterator.hasNext() && !iterator.next().end().isAfter(now)) {
+                iterator.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.pettime.service.scheduling;
+
+import com.pettime.config.SchedulingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves finished CONFIRMED appointments to COMPLETED with set-based updates.
+ * (FR) Passe les rendez-vous confirmés terminés à COMPLETED par mises à jour ensemblistes.
+
+ * Each run issues chunked statements of the form
+ * UPDATE appointments SET status = 'COMPLETED' WHERE id IN (SELECT ... LIMIT n),
+ * since PostgreSQL has no UPDATE ... LIMIT. Every chunk is its own short
+ * transaction, and on PostgreSQL the subquery skips rows locked by the booking
+ * path instead of waiting for them; they are picked up by the next run.
+ * Nothing is loaded into the persistence context.
+
+ * Published meters:
+ * - appointment.lifecycle.run (timer, one sample per run)
+ * - appointment.lifecycle.run.rows (rows completed per run)
+ * - appointment.lifecycle.completed (counter)
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.scheduling.lifecycle", name = "enabled", matchIfMissing = true)
+public class AppointmentLifecycleJob implements InitializingBean, DisposableBean {
+
+    private static final String COMPLETE_CHUNK = """
+            UPDATE appointments
+               SET status = 'COMPLETED', updated_at = ?
+             WHERE id IN (
+                   SELECT id FROM appointments
+                    WHERE status = 'CONFIRMED' AND end_time < ?
+                    ORDER BY end_time
+                    LIMIT ?%s)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SchedulingProperties.Lifecycle properties;
+    private final ScheduledExecutorService scheduler;
+
+    private final Timer runTimer;
+    private final DistributionSummary runRows;
+    private final Counter completed;
+
+    private volatile String completeChunkSql;
+
+    public AppointmentLifecycleJob(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            SchedulingProperties schedulingProperties,
+            MeterRegistry meterRegistry
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = schedulingProperties.getLifecycle();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setTimeout((int) Math.max(1, properties.getChunkTimeout().toSeconds()));
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "appointment-lifecycle");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.runTimer = Timer.builder("appointment.lifecycle.run")
+                .description("Duration of one appointment lifecycle run")
+                .register(meterRegistry);
+        this.runRows = DistributionSummary.builder("appointment.lifecycle.run.rows")
+                .description("Appointments completed by one lifecycle run")
+                .register(meterRegistry);
+        this.completed = Counter.builder("appointment.lifecycle.completed")
+                .description("Appointments moved from CONFIRMED to COMPLETED")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        long interval = properties.getInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::runSafely, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    private void runSafely() {
+        try {
+            runOnce();
+        } catch (RuntimeException ex) {
+            // An exception would cancel the schedule; the next run retries.
+            log.error("Appointment lifecycle run failed", ex);
+        }
+    }
+
+    /**
+     * Completes finished appointments chunk by chunk and returns how many were updated.
+     * (FR) Termine les rendez-vous échus par lots et retourne le nombre mis à jour.
+     */
+    public int runOnce() {
+        Timer.Sample sample = Timer.start();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minus(properties.getGrace());
+        int chunkSize = properties.getChunkSize();
+        int total = 0;
+
+        try {
+            for (int chunk = 0; chunk < properties.getMaxChunksPerRun(); chunk++) {
+                Integer updated = transactionTemplate.execute(status ->
+                        jdbcTemplate.update(completeChunkSql(), now, cutoff, chunkSize));
+                int rows = updated != null ? updated : 0;
+                total += rows;
+
+                if (rows < chunkSize) {
+                    break;
+                }
+            }
+        } finally {
+            sample.stop(runTimer);
+            runRows.record(total);
+            completed.increment(total);
+        }
+
+        if (total > 0) {
+            log.info("Completed {} finished appointments", total);
+        }
+
+        return total;
+    }
+
+    private String completeChunkSql() {
+        String sql = completeChunkSql;
+        if (sql == null) {
+            String product = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName()
+            );
+            sql = COMPLETE_CHUNK.formatted("PostgreSQL".equalsIgnoreCase(product) ? " FOR UPDATE SKIP LOCKED" : "");
+            completeChunkSql = sql;
+        }
+        return sql;
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,139 @@
+package com.pettime.service.scheduling;
+
+import com.pettime.config.SchedulingProperties;
+import com.pettime.dto.AvailableSlotDto;
+import com.pettime.repository.projection.AppointmentWindow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Sweep-line search for free slots inside business hours.
+ * (FR) Recherche par balayage des créneaux libres pendant les heures d'ouverture.
+
+ * Walks a cursor forward through [from, to) while consuming the booked
+ * windows in start-time order. Only the windows overlapping the candidate
+ * slot are kept, in a heap ordered by end time, so memory depends on the
+ * petshop capacity rather than on how busy it is, and the walk stops as
+ * soon as enough slots were found.
+
+ * A candidate slot is free when {@link CapacitySweep#peak} over its windows
+ * stays below the capacity. Otherwise the cursor jumps to the earliest end
+ * among those windows: no later start before it can have a free unit.
+ */
+@Component
+@RequiredArgsConstructor
+public class AvailabilityEngine {
+
+    private final SchedulingProperties schedulingProperties;
+
+    /**
+     * Returns up to {@code limit} non-overlapping free slots of {@code duration}
+     * for a petshop serving one appointment at a time.
+     */
+    public List<AvailableSlotDto> findFreeSlots(
+            Iterator<AppointmentWindow> booked,
+            LocalDateTime from,
+            LocalDateTime to,
+            Duration duration,
+            int limit
+    ) {
+        return findFreeSlots(booked, from, to, duration, limit, 1);
+    }
+
+    /**
+     * Returns up to {@code limit} non-overlapping slots of {@code duration}
+     * that still have room for one more appointment.
+     *
+     * @param booked   booked windows intersecting [from, to), ordered by start time
+     * @param from     search start (inclusive)
+     * @param to       search end (exclusive)
+     * @param duration slot length
+     * @param limit    maximum number of slots to return
+     * @param capacity appointments the petshop can serve at the same time
+     */
+    public List<AvailableSlotDto> findFreeSlots(
+            Iterator<AppointmentWindow> booked,
+            LocalDateTime from,
+            LocalDateTime to,
+            Duration duration,
+            int limit,
+            int capacity
+    ) {
+        List<AvailableSlotDto> slots = new ArrayList<>(Math.min(limit, 64));
+
+        AppointmentWindow next = booked.hasNext() ? booked.next() : null;
+        PriorityQueue<AppointmentWindow> overlapping =
+                new PriorityQueue<>(Comparator.comparing(AppointmentWindow::endTime));
+        LocalDateTime cursor = alignUp(from);
+
+        while (slots.size() < limit) {
+            cursor = moveIntoBusinessHours(cursor, to);
+
+            LocalDateTime end = cursor.plus(duration);
+            if (end.isAfter(to)) {
+                break;
+            }
+
+            if (end.isAfter(cursor.toLocalDate().atTime(schedulingProperties.getClosingTime()))) {
+                cursor = openingOf(cursor.toLocalDate().plusDays(1));
+                continue;
+            }
+
+            while (next != null && next.startTime().isBefore(end)) {
+                overlapping.add(next);
+                next = booked.hasNext() ? booked.next() : null;
+            }
+            while (!overlapping.isEmpty() && !overlapping.peek().endTime().isAfter(cursor)) {
+                overlapping.poll();
+            }
+
+            int peak = CapacitySweep.peak(overlapping, cursor, end);
+            if (peak >= capacity) {
+                cursor = alignUp(overlapping.peek().endTime());
+                continue;
+            }
+
+            slots.add(new AvailableSlotDto(cursor, end, capacity - peak));
+            cursor = alignUp(end);
+        }
+
+        return slots;
+    }
+
+    private LocalDateTime moveIntoBusinessHours(LocalDateTime cursor, LocalDateTime to) {
+        while (cursor.isBefore(to)) {
+            LocalDate day = cursor.toLocalDate();
+
+            if (schedulingProperties.getClosedDays().contains(day.getDayOfWeek())
+                    || !cursor.toLocalTime().isBefore(schedulingProperties.getClosingTime())) {
+                cursor = openingOf(day.plusDays(1));
+            } else if (cursor.toLocalTime().isBefore(schedulingProperties.getOpeningTime())) {
+                return openingOf(day);
+            } else {
+                return cursor;
+            }
+        }
+        return cursor;
+    }
+
+    private LocalDateTime openingOf(LocalDate day) {
+        return alignUp(day.atTime(schedulingProperties.getOpeningTime()));
+    }
+
+    private LocalDateTime alignUp(LocalDateTime time) {
+        long step = schedulingProperties.getSlotGranularity().toSeconds();
+        long secondOfDay = time.toLocalTime().toSecondOfDay() + (time.getNano() > 0 ? 1 : 0);
+        long aligned = (secondOfDay + step - 1) / step * step;
+
+        return time.toLocalDate().atStartOfDay().plusSeconds(aligned);
+    }
+}
@@ -0,0 +1,60 @@
+package com.pettime.service.scheduling;
+
+import com.pettime.config.SchedulingProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Serializes the check-then-insert section of bookings per petshop.
+ * (FR) Sérialise la section vérification-puis-insertion des réservations par animalerie.
+
+ * Locks are striped by petshop id: bookings for different petshops run in
+ * parallel, bookings for the same petshop wait only for the short critical
+ * section. The guarantee is per JVM; several nodes need a database-level guard.
+ */
+@Component
+public class BookingCoordinator {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    public BookingCoordinator(SchedulingProperties schedulingProperties) {
+        int size = Integer.highestOneBit(Math.max(1, schedulingProperties.getLockStripes() - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Runs the action while holding the lock stripe of the petshop.
+     * (FR) Exécute l'action en détenant le verrou de l'animalerie.
+     */
+    public <T> T withPetshopLock(Long petshopId, Supplier<T> action) {
+        ReentrantLock lock = stripeFor(petshopId);
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@link #withPetshopLock(Long, Supplier)} for an action without result.
+     */
+    public void withPetshopLock(Long petshopId, Runnable action) {
+        withPetshopLock(petshopId, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private ReentrantLock stripeFor(Long petshopId) {
+        int hash = Long.hashCode(petshopId);
+        return stripes[(hash ^ (hash >>> 16)) & mask];
+    }
+}
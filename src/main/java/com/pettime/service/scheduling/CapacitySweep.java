@@ -0,0 +1,139 @@
+package com.pettime.service.scheduling;
+
+import com.pettime.repository.projection.AppointmentWindow;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+
+/**
+ * Counting sweep over booked windows for petshops serving several appointments at once.
+ * (FR) Balayage par comptage des créneaux réservés pour les animaleries à capacité multiple.
+
+ * The windows are clipped to [from, to); their start and end times are sorted
+ * separately and merged, counting +1 on each start and -1 on each end. An end
+ * equal to a start is consumed first, since windows are half-open.
+ * O(k log k) for k windows, without one query per resource.
+
+ * {@link #admit} runs the same kind of sweep to book a whole batch of
+ * candidate windows against the booked ones at once.
+ */
+public final class CapacitySweep {
+
+    private CapacitySweep() {
+    }
+
+    /**
+     * Highest number of windows booked at the same instant within [from, to).
+     * (FR) Nombre maximal de rendez-vous simultanés dans l'intervalle [from, to).
+     */
+    public static int peak(Collection<AppointmentWindow> windows, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime[] starts = new LocalDateTime[windows.size()];
+        LocalDateTime[] ends = new LocalDateTime[windows.size()];
+        int k = 0;
+
+        for (AppointmentWindow window : windows) {
+            LocalDateTime start = window.startTime().isBefore(from) ? from : window.startTime();
+            LocalDateTime end = window.endTime().isAfter(to) ? to : window.endTime();
+            if (start.isBefore(end)) {
+                starts[k] = start;
+                ends[k] = end;
+                k++;
+            }
+        }
+
+        Arrays.sort(starts, 0, k);
+        Arrays.sort(ends, 0, k);
+
+        int current = 0;
+        int peak = 0;
+        for (int s = 0, e = 0; s < k; ) {
+            if (starts[s].isBefore(ends[e])) {
+                peak = Math.max(peak, ++current);
+                s++;
+            } else {
+                current--;
+                e++;
+            }
+        }
+
+        return peak;
+    }
+
+    /**
+     * Whether one more appointment over [from, to) would exceed {@code capacity}.
+     * (FR) Indique si un rendez-vous supplémentaire dépasserait la capacité.
+     */
+    public static boolean isFull(Collection<AppointmentWindow> windows, LocalDateTime from, LocalDateTime to, int capacity) {
+        return peak(windows, from, to) >= capacity;
+    }
+
+    /**
+     * Admits candidate windows next to the booked ones without exceeding {@code capacity}.
+     * (FR) Admet des créneaux candidats à côté des créneaux réservés sans dépasser la capacité.
+
+     * Booked and candidate windows are merged by start time, booked first on
+     * ties, in one sweep that keeps the running windows ordered by end time.
+     * A candidate is admitted when fewer than {@code capacity} windows run at
+     * its start. A booked window starting while the petshop is already full
+     * pushes out the running candidate that ends last, which leaves the most
+     * room to the candidates after it. Candidates may overlap each other and
+     * booked windows may overlap too. Capacity 1 is exclusive booking.
+     * O((n + m) log(n + m)) for n candidates and m booked windows.
+     *
+     * @return for each candidate, in the given order, whether it was admitted
+     */
+    public static boolean[] admit(List<AppointmentWindow> booked, List<AppointmentWindow> candidates, int capacity) {
+        List<AppointmentWindow> bookedByStart = new ArrayList<>(booked);
+        bookedByStart.sort(Comparator.comparing(AppointmentWindow::startTime));
+
+        Integer[] byStart = new Integer[candidates.size()];
+        for (int i = 0; i < byStart.length; i++) {
+            byStart[i] = i;
+        }
+        Arrays.sort(byStart, Comparator.comparing((Integer i) -> candidates.get(i).startTime()));
+
+        boolean[] admitted = new boolean[candidates.size()];
+        PriorityQueue<LocalDateTime> bookedEnds = new PriorityQueue<>();
+        TreeSet<Integer> running = new TreeSet<>(Comparator
+                .comparing((Integer i) -> candidates.get(i).endTime())
+                .thenComparing(Comparator.naturalOrder()));
+
+        int b = 0;
+        int c = 0;
+        // Booked windows left once every candidate started only matter while candidates still run.
+        while (c < byStart.length || (b < bookedByStart.size() && !running.isEmpty())) {
+            boolean bookedNext = b < bookedByStart.size() && (c == byStart.length
+                    || !bookedByStart.get(b).startTime().isAfter(candidates.get(byStart[c]).startTime()));
+            LocalDateTime now = bookedNext ? bookedByStart.get(b).startTime() : candidates.get(byStart[c]).startTime();
+
+            // Half-open windows: one ending now no longer counts
+            while (!bookedEnds.isEmpty() && !bookedEnds.peek().isAfter(now)) {
+                bookedEnds.poll();
+            }
+            while (!running.isEmpty() && !candidates.get(running.first()).endTime().isAfter(now)) {
+                running.pollFirst();
+            }
+
+            if (bookedNext) {
+                bookedEnds.add(bookedByStart.get(b++).endTime());
+                if (bookedEnds.size() + running.size() > capacity && !running.isEmpty()) {
+                    admitted[running.pollLast()] = false;
+                }
+            } else {
+                int candidate = byStart[c++];
+                if (bookedEnds.size() + running.size() < capacity) {
+                    admitted[candidate] = true;
+                    running.add(candidate);
+                }
+            }
+        }
+
+        return admitted;
+    }
+}
@@ -0,0 +1,300 @@
+package com.pettime.service.scheduling;
+
+import java.util.Arrays;
+
+/**
+ * Hierarchical timing wheel keyed by {@code long} ids, stored in primitive arrays.
+ * (FR) Roue temporelle hiérarchique indexée par identifiants {@code long}, en tableaux primitifs.
+
+ * Four wheels of 256 slots each cover 2^32 ticks. A timer lands in the
+ * lowest wheel whose range contains its deadline; when a lower wheel wraps,
+ * the matching slot of the wheel above is cascaded down. Scheduling and
+ * cancelling are O(1); advancing costs O(1) per tick plus the expired and
+ * cascaded timers.
+
+ * Timers are nodes in parallel arrays (key, deadline, next, prev) linked
+ * into per-slot doubly linked lists; freed nodes are reused. A list head
+ * stores its slot as a negative prev, so unlinking never needs a lookup.
+ * Keys map to nodes through an open-addressing long-to-int table. Together
+ * that is about 50 bytes per timer and no object per timer.
+
+ * Not thread-safe; callers synchronize.
+ */
+public final class HierarchicalTimingWheel {
+
+    private static final int WHEEL_BITS = 8;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_DELAY = (1L << (WHEEL_BITS * LEVELS)) - 1;
+    private static final int NIL = -1;
+    private static final long[] NONE = new long[0];
+
+    private final int[] heads = new int[LEVELS * WHEEL_SIZE];
+    private final KeyIndex index;
+
+    private long[] keys;
+    private long[] deadlines;
+    private int[] next;
+    private int[] prev;
+
+    private int freeHead = NIL;
+    private int allocated;
+    private int size;
+    private long currentTick;
+
+    public HierarchicalTimingWheel(long startTick, int initialCapacity) {
+        int capacity = Math.max(16, initialCapacity);
+        this.currentTick = startTick;
+        this.keys = new long[capacity];
+        this.deadlines = new long[capacity];
+        this.next = new int[capacity];
+        this.prev = new int[capacity];
+        this.index = new KeyIndex(capacity);
+        Arrays.fill(heads, NIL);
+    }
+
+    public long currentTick() {
+        return currentTick;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Schedules {@code key} to expire at {@code deadlineTick}, replacing any earlier timer
+     * for the same key. Deadlines not after the current tick expire on the next tick.
+     */
+    public void schedule(long key, long deadlineTick) {
+        int node = index.get(key);
+        if (node == NIL) {
+            node = allocate();
+            keys[node] = key;
+            index.put(key, node);
+            size++;
+        } else {
+            unlink(node);
+        }
+
+        deadlines[node] = Math.min(Math.max(deadlineTick, currentTick + 1), currentTick + MAX_DELAY);
+        link(node);
+    }
+
+    /**
+     * Removes the timer of {@code key}; returns false when there was none.
+     */
+    public boolean cancel(long key) {
+        int node = index.remove(key);
+        if (node == NIL) {
+            return false;
+        }
+
+        unlink(node);
+        free(node);
+        size--;
+        return true;
+    }
+
+    /**
+     * Moves time forward to {@code toTick} and returns the keys that expired on the way.
+     */
+    public long[] advance(long toTick) {
+        long[] expired = NONE;
+        int count = 0;
+
+        while (currentTick < toTick) {
+            currentTick++;
+
+            // Higher wheels first, so timers they hand down are cascaded again if needed.
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (WHEEL_BITS * level)) - 1)) == 0) {
+                    cascade(level * WHEEL_SIZE + slotOf(currentTick, level));
+                }
+            }
+
+            int bucket = slotOf(currentTick, 0);
+            for (int node = heads[bucket]; node != NIL; ) {
+                int following = next[node];
+                if (count == expired.length) {
+                    expired = Arrays.copyOf(expired, Math.max(16, count * 2));
+                }
+                expired[count++] = keys[node];
+                index.remove(keys[node]);
+                free(node);
+                size--;
+                node = following;
+            }
+            heads[bucket] = NIL;
+        }
+
+        return count == expired.length ? expired : Arrays.copyOf(expired, count);
+    }
+
+    private void cascade(int bucket) {
+        int node = heads[bucket];
+        heads[bucket] = NIL;
+
+        while (node != NIL) {
+            int following = next[node];
+            link(node);
+            node = following;
+        }
+    }
+
+    private void link(int node) {
+        long delay = deadlines[node] - currentTick;
+        int bucket;
+
+        if (delay <= 0) {
+            // Handed down during the tick it is due at; the slot is drained right after.
+            bucket = slotOf(currentTick, 0);
+        } else {
+            int level = 0;
+            while (level < LEVELS - 1 && delay >= 1L << (WHEEL_BITS * (level + 1))) {
+                level++;
+            }
+            bucket = level * WHEEL_SIZE + slotOf(deadlines[node], level);
+        }
+
+        int head = heads[bucket];
+        next[node] = head;
+        prev[node] = -2 - bucket;
+        if (head != NIL) {
+            prev[head] = node;
+        }
+        heads[bucket] = node;
+    }
+
+    private void unlink(int node) {
+        int before = prev[node];
+        int after = next[node];
+
+        if (before >= 0) {
+            next[before] = after;
+        } else {
+            heads[-2 - before] = after;
+        }
+        if (after != NIL) {
+            prev[after] = before;
+        }
+    }
+
+    private int allocate() {
+        if (freeHead != NIL) {
+            int node = freeHead;
+            freeHead = next[node];
+            return node;
+        }
+
+        if (allocated == keys.length) {
+            int capacity = keys.length * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            deadlines = Arrays.copyOf(deadlines, capacity);
+            next = Arrays.copyOf(next, capacity);
+            prev = Arrays.copyOf(prev, capacity);
+        }
+        return allocated++;
+    }
+
+    private void free(int node) {
+        next[node] = freeHead;
+        freeHead = node;
+    }
+
+    private static int slotOf(long tick, int level) {
+        return (int) ((tick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+    }
+
+    /**
+     * Open-addressing long-to-int map with linear probing and backward-shift deletion.
+     */
+    private static final class KeyIndex {
+
+        private long[] keys;
+        private int[] values;
+        private int mask;
+        private int size;
+
+        KeyIndex(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+            keys = new long[capacity];
+            values = new int[capacity];
+            mask = capacity - 1;
+            Arrays.fill(values, NIL);
+        }
+
+        int get(long key) {
+            for (int i = home(key); values[i] != NIL; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return values[i];
+                }
+            }
+            return NIL;
+        }
+
+        /**
+         * Adds a key known to be absent.
+         */
+        void put(long key, int value) {
+            if ((size + 1) * 2 > values.length) {
+                resize();
+            }
+
+            int i = home(key);
+            while (values[i] != NIL) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            values[i] = value;
+            size++;
+        }
+
+        int remove(long key) {
+            int i = home(key);
+            while (values[i] != NIL && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            if (values[i] == NIL) {
+                return NIL;
+            }
+
+            int removed = values[i];
+            int hole = i;
+            for (int j = (i + 1) & mask; values[j] != NIL; j = (j + 1) & mask) {
+                // Move the entry back unless the hole lies before its home slot.
+                if (((j - home(keys[j])) & mask) >= ((j - hole) & mask)) {
+                    keys[hole] = keys[j];
+                    values[hole] = values[j];
+                    hole = j;
+                }
+            }
+            values[hole] = NIL;
+            size--;
+
+            return removed;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+
+            keys = new long[oldKeys.length * 2];
+            values = new int[oldValues.length * 2];
+            mask = values.length - 1;
+            size = 0;
+            Arrays.fill(values, NIL);
+
+            for (int i = 0; i < oldValues.length; i++) {
+                if (oldValues[i] != NIL) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private int home(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+    }
+}
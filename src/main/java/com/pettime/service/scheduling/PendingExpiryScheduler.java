@@ -0,0 +1,222 @@
+package com.pettime.service.scheduling;
+
+import com.pettime.config.SchedulingProperties;
+import com.pettime.model.Appointment;
+import com.pettime.model.AppointmentStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cancels PENDING appointments whose payment did not arrive within the TTL.
+ * (FR) Annule les rendez-vous PENDING dont le paiement n'est pas arrivé à temps.
+
+ * Every unpaid appointment gets a timer in a {@link HierarchicalTimingWheel}
+ * when it is created; confirming the payment or cancelling removes it. On
+ * startup the wheel is rebuilt from the table, streaming ids and creation
+ * times without loading entities. Each tick, the expired ids are cancelled
+ * with one UPDATE per batch, guarded by status and paid so a payment that
+ * raced the timer wins, and the affected petshop calendars are evicted from
+ * the interval index.
+
+ * Published meters:
+ * - appointment.expiry.pending (timers in the wheel)
+ * - appointment.expiry.expired (appointments cancelled)
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+public class PendingExpiryScheduler implements InitializingBean, DisposableBean {
+
+    private static final String SELECT_UNPAID = """
+            SELECT id, created_at FROM appointments
+             WHERE status = 'PENDING' AND paid = false
+            """;
+
+    private static final String CANCEL_EXPIRED = """
+            UPDATE appointments
+               SET status = 'CANCELLED', updated_at = ?
+             WHERE status = 'PENDING' AND paid = false AND id IN (%s)
+            """;
+
+    private static final String SELECT_PETSHOPS = "SELECT DISTINCT petshop_id FROM appointments WHERE id IN (%s)";
+
+    private static final long RETRY_DELAY_MILLIS = 60_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AppointmentIntervalIndex appointmentIntervalIndex;
+    private final SchedulingProperties.PendingExpiry properties;
+    private final long tickMillis;
+    private final HierarchicalTimingWheel wheel;
+    private final ScheduledExecutorService scheduler;
+    private final Counter expiredCounter;
+
+    public PendingExpiryScheduler(
+            JdbcTemplate jdbcTemplate,
+            AppointmentIntervalIndex appointmentIntervalIndex,
+            SchedulingProperties schedulingProperties,
+            MeterRegistry meterRegistry
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.appointmentIntervalIndex = appointmentIntervalIndex;
+        this.properties = schedulingProperties.getPendingExpiry();
+        this.tickMillis = Math.max(1, properties.getTick().toMillis());
+        this.wheel = new HierarchicalTimingWheel(tickOf(LocalDateTime.now()), properties.getInitialCapacity());
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "pending-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("appointment.expiry.pending", this, PendingExpiryScheduler::pending)
+                .description("Unpaid appointments waiting for payment or expiry")
+                .register(meterRegistry);
+        this.expiredCounter = Counter.builder("appointment.expiry.expired")
+                .description("Unpaid appointments cancelled after their payment window")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        scheduler.execute(this::rebuild);
+        scheduler.scheduleWithFixedDelay(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Starts the payment window of a new unpaid appointment.
+     * (FR) Démarre le délai de paiement d'un nouveau rendez-vous non payé.
+     */
+    public void track(Appointment appointment) {
+        if (!properties.isEnabled()
+                || appointment.getStatus() != AppointmentStatus.PENDING
+                || Boolean.TRUE.equals(appointment.getPaid())) {
+            return;
+        }
+
+        LocalDateTime createdAt = appointment.getCreatedAt() != null ? appointment.getCreatedAt() : LocalDateTime.now();
+        schedule(appointment.getId(), createdAt);
+    }
+
+    /**
+     * Stops the timer of a paid or cancelled appointment.
+     * (FR) Arrête le minuteur d'un rendez-vous payé ou annulé.
+     */
+    public void untrack(Long appointmentId) {
+        synchronized (wheel) {
+            wheel.cancel(appointmentId);
+        }
+    }
+
+    public int pending() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    void rebuild() {
+        try {
+            int[] loaded = new int[1];
+            jdbcTemplate.query(SELECT_UNPAID, (RowCallbackHandler) resultSet -> {
+                Timestamp createdAt = resultSet.getTimestamp(2);
+                schedule(resultSet.getLong(1), createdAt != null ? createdAt.toLocalDateTime() : LocalDateTime.now());
+                loaded[0]++;
+            });
+            log.info("Tracking {} unpaid appointments for expiry", loaded[0]);
+        } catch (DataAccessException ex) {
+            log.error("Could not load unpaid appointments; only new ones will expire", ex);
+        }
+    }
+
+    void tick() {
+        tick(LocalDateTime.now());
+    }
+
+    void tick(LocalDateTime now) {
+        long[] expired;
+        synchronized (wheel) {
+            expired = wheel.advance(tickOf(now));
+        }
+
+        for (int from = 0; from < expired.length; from += properties.getBatchSize()) {
+            long[] batch = Arrays.copyOfRange(expired, from, Math.min(expired.length, from + properties.getBatchSize()));
+            try {
+                expire(batch);
+            } catch (RuntimeException ex) {
+                // An exception would cancel the schedule; retry the batch later instead.
+                log.error("Could not cancel {} expired appointments; retrying", batch.length, ex);
+                retryLater(batch);
+            }
+        }
+    }
+
+    private void expire(long[] ids) {
+        String placeholders = String.join(",", Collections.nCopies(ids.length, "?"));
+        Object[] idArgs = Arrays.stream(ids).boxed().toArray();
+
+        Object[] args = new Object[ids.length + 1];
+        args[0] = LocalDateTime.now();
+        System.arraycopy(idArgs, 0, args, 1, ids.length);
+
+        int cancelled = jdbcTemplate.update(CANCEL_EXPIRED.formatted(placeholders), args);
+        if (cancelled > 0) {
+            jdbcTemplate.queryForList(SELECT_PETSHOPS.formatted(placeholders), Long.class, idArgs)
+                    .forEach(appointmentIntervalIndex::evict);
+            expiredCounter.increment(cancelled);
+            log.info("Cancelled {} unpaid appointments after their payment window", cancelled);
+        }
+    }
+
+    private void retryLater(long[] ids) {
+        long retryTick = tickOf(LocalDateTime.now()) + RETRY_DELAY_MILLIS / tickMillis;
+        synchronized (wheel) {
+            for (long id : ids) {
+                wheel.schedule(id, retryTick);
+            }
+        }
+    }
+
+    private void schedule(long appointmentId, LocalDateTime createdAt) {
+        long deadline = ceilTickOf(createdAt.plus(properties.getTtl()));
+        synchronized (wheel) {
+            wheel.schedule(appointmentId, deadline);
+        }
+    }
+
+    private long tickOf(LocalDateTime time) {
+        return Math.floorDiv(epochMillis(time), tickMillis);
+    }
+
+    private long ceilTickOf(LocalDateTime time) {
+        return Math.floorDiv(epochMillis(time) + tickMillis - 1, tickMillis);
+    }
+
+    private static long epochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,36 @@
+package com.pettime.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the BCrypt strength calibration.
+ * (FR) Tests unitaires pour le calibrage de la force BCrypt.
+ */
+class PasswordConfigTest {
+
+    private static PasswordHashingProperties target(long millis) {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setTargetHashTime(Duration.ofMillis(millis));
+        return properties;
+    }
+
+    @Test
+    @DisplayName("Should raise the strength until the target latency is reached")
+    void shouldRaiseStrengthOnFastHardware() {
+        // 10 ms at strength 10 -> 20, 40, 80, 160 ms: the search stops at the maximum strength 14
+        assertThat(PasswordConfig.calibrateStrength(target(250), strength -> 10_000_000L)).isEqualTo(14);
+        // 70 ms at strength 10 -> 140, 280 ms
+        assertThat(PasswordConfig.calibrateStrength(target(250), strength -> 70_000_000L)).isEqualTo(12);
+    }
+
+    @Test
+    @DisplayName("Should never go below the minimum strength on slow hardware")
+    void shouldKeepMinimumStrengthOnSlowHardware() {
+        assertThat(PasswordConfig.calibrateStrength(target(250), strength -> 400_000_000L)).isEqualTo(10);
+    }
+}
@@ -0,0 +1,119 @@
+package com.pettime.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for ReplicaRoutingDataSource.
+ * (FR) Tests unitaires pour ReplicaRoutingDataSource.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+    private final ReplicaLagMonitor lagMonitor = mock(ReplicaLagMonitor.class);
+
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DataSource primary = mock(DataSource.class);
+        DataSource replica = mock(DataSource.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        when(lagMonitor.isReplicaUsable()).thenReturn(true);
+
+        routing = new ReplicaRoutingDataSource(
+                primary, replica, new ReadYourWritesTracker(Duration.ofMinutes(1)), lagMonitor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        endTransaction();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private void beginTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    private void commit() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        endTransaction();
+    }
+
+    private void endTransaction() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    private void requestFrom(String address) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(address);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @Test
+    @DisplayName("📖 Should send read-only transactions to the replica and writes to the primary")
+    void shouldRouteByReadOnlyFlag() throws Exception {
+        beginTransaction(true);
+        assertThat(routing.getConnection()).isSameAs(replicaConnection);
+        endTransaction();
+
+        beginTransaction(false);
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        endTransaction();
+
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    @DisplayName("✍️ Should keep a client's reads on the primary right after its own write")
+    void shouldReadYourOwnWrites() throws Exception {
+        requestFrom("10.0.0.1");
+        beginTransaction(true);
+        assertThat(routing.getConnection()).isSameAs(replicaConnection);
+        endTransaction();
+
+        beginTransaction(false);
+        routing.getConnection();
+        commit();
+
+        beginTransaction(true);
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        endTransaction();
+
+        requestFrom("10.0.0.2");
+        beginTransaction(true);
+        assertThat(routing.getConnection()).isSameAs(replicaConnection);
+    }
+
+    @Test
+    @DisplayName("🐢 Should fall back to the primary while the replica lags")
+    void shouldFallBackWhenReplicaLags() throws Exception {
+        when(lagMonitor.isReplicaUsable()).thenReturn(false);
+
+        beginTransaction(true);
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+    }
+}
@@ -0,0 +1,65 @@
+package com.pettime.exception;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 🧪 Unit tests for {@link ConstraintViolations}.
+ * (FR) Tests unitaires pour {@link ConstraintViolations}.
+ */
+class ConstraintViolationsTest {
+
+    @Test
+    @DisplayName("Should match the constraint name reported by Hibernate")
+    void shouldMatchHibernateConstraintName() {
+        DataIntegrityViolationException ex = new DataIntegrityViolationException(
+                "could not execute statement",
+                new org.hibernate.exception.ConstraintViolationException(
+                        "could not execute statement", new SQLException("boom"), "APPOINTMENTS_NO_OVERLAP")
+        );
+
+        assertThat(ConstraintViolations.isViolationOf(ex, "appointments_no_overlap")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should fall back to the driver message of a nested cause")
+    void shouldMatchDriverMessage() {
+        DataIntegrityViolationException ex = new DataIntegrityViolationException(
+                "could not execute statement",
+                new SQLException("ERROR: conflicting key value violates exclusion constraint \"appointments_no_overlap\"")
+        );
+
+        assertThat(ConstraintViolations.isViolationOf(ex, "appointments_no_overlap")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should not match an unrelated constraint")
+    void shouldNotMatchOtherConstraint() {
+        DataIntegrityViolationException ex = new DataIntegrityViolationException(
+                "duplicate key value violates unique constraint \"uk_users_email\""
+        );
+
+        assertThat(ConstraintViolations.isViolationOf(ex, "appointments_no_overlap")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should recognize a foreign key violation by its SQLSTATE")
+    void shouldMatchForeignKeyViolation() {
+        DataIntegrityViolationException missingParent = new DataIntegrityViolationException(
+                "could not execute statement",
+                new SQLException("Referential integrity constraint violation", "23506")
+        );
+        DataIntegrityViolationException notNull = new DataIntegrityViolationException(
+                "could not execute statement",
+                new SQLException("NULL not allowed for column \"NAME\"", "23502")
+        );
+
+        assertThat(ConstraintViolations.isForeignKeyViolation(missingParent)).isTrue();
+        assertThat(ConstraintViolations.isForeignKeyViolation(notNull)).isFalse();
+    }
+}
@@ -0,0 +1,68 @@
+package com.pettime.exception;
+
+import com.pettime.config.PostgresSchemaInitializer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 🧪 Status mapping of {@link GlobalExceptionHandler#handleDataIntegrityViolation}.
+ * (FR) Correspondance des statuts pour les violations d'intégrité.
+ */
+class DataIntegrityViolationHandlerTest {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler(
+            new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class));
+
+    private static DataIntegrityViolationException violation(String message, String sqlState) {
+        return new DataIntegrityViolationException("could not execute statement", new SQLException(message, sqlState));
+    }
+
+    @Test
+    @DisplayName("Should answer 409 for the overlap and email constraints")
+    void shouldMapKnownConstraintsToConflict() {
+        DataIntegrityViolationException overlap = violation(
+                "violates exclusion constraint \"" + PostgresSchemaInitializer.APPOINTMENT_OVERLAP_CONSTRAINT + "\"", "23P01");
+        DataIntegrityViolationException email = violation(
+                "duplicate key value violates unique constraint \"" + PostgresSchemaInitializer.USER_EMAIL_LOWER_INDEX + "\"", "23505");
+
+        assertThat(handler.handleDataIntegrityViolation(overlap).getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(handler.handleDataIntegrityViolation(email).getBody())
+                .containsEntry("status", 409)
+                .containsEntry("message", "Email already exists");
+    }
+
+    @Test
+    @DisplayName("Should answer 400 for a missing referenced row and 500 for any other violation")
+    void shouldNotHideOtherViolationsBehindConflict() {
+        DataIntegrityViolationException h2MissingParent = violation("Referential integrity constraint violation", "23506");
+        DataIntegrityViolationException postgresMissingParent = violation(
+                "ERROR: insert or update on table \"pets\" violates foreign key constraint \"fk_pets_owner\"", "23503");
+        DataIntegrityViolationException notNull = violation("NULL not allowed for column \"NAME\"", "23502");
+
+        assertThat(handler.handleDataIntegrityViolation(h2MissingParent).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(handler.handleDataIntegrityViolation(postgresMissingParent).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(handler.handleDataIntegrityViolation(notNull).getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    @Test
+    @DisplayName("Should answer 409 when deleting a row that is still referenced")
+    void shouldMapStillReferencedToConflict() {
+        DataIntegrityViolationException h2 = violation("Referential integrity constraint violation", "23503");
+        DataIntegrityViolationException postgres = violation(
+                "ERROR: update or delete on table \"users\" violates foreign key constraint \"fk_pets_owner\" on table \"pets\"",
+                "23503");
+
+        assertThat(handler.handleDataIntegrityViolation(h2).getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(handler.handleDataIntegrityViolation(postgres).getBody())
+                .containsEntry("status", 409)
+                .containsEntry("message", "Resource is still referenced by other data");
+    }
+}
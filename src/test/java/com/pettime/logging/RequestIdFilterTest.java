@@ -0,0 +1,51 @@
+package com.pettime.logging;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for RequestIdFilter.
+ * (FR) Tests unitaires pour RequestIdFilter.
+ */
+class RequestIdFilterTest {
+
+    private final RequestIdFilter filter = new RequestIdFilter();
+
+    private String runAndCaptureMdc(MockHttpServletRequest request, MockHttpServletResponse response) throws Exception {
+        AtomicReference<String> seen = new AtomicReference<>();
+        filter.doFilter(request, response, (req, res) -> seen.set(MDC.get(RequestIdFilter.MDC_KEY)));
+        return seen.get();
+    }
+
+    @Test
+    @DisplayName("🆔 Should keep a well-formed incoming request id")
+    void shouldKeepIncomingRequestId() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(RequestIdFilter.HEADER, "abc-123");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(runAndCaptureMdc(request, response)).isEqualTo("abc-123");
+        assertThat(response.getHeader(RequestIdFilter.HEADER)).isEqualTo("abc-123");
+        assertThat(MDC.get(RequestIdFilter.MDC_KEY)).isNull();
+    }
+
+    @Test
+    @DisplayName("🎲 Should replace a missing or malformed request id")
+    void shouldGenerateRequestId() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(RequestIdFilter.HEADER, "bad id\r\ninjected");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        String requestId = runAndCaptureMdc(request, response);
+
+        assertThat(requestId).matches("[0-9a-f]{16}");
+        assertThat(response.getHeader(RequestIdFilter.HEADER)).isEqualTo(requestId);
+    }
+}
@@ -0,0 +1,37 @@
+package com.pettime.mapper;
+
+import com.pettime.exception.InvalidUserDataException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorCodecTest {
+
+    @Test
+    @DisplayName("Should round-trip the last id through an opaque token")
+    void shouldRoundTrip() {
+        String cursor = CursorCodec.encode(42L);
+
+        assertThat(cursor).doesNotContain("42");
+        assertThat(CursorCodec.decode(cursor)).isEqualTo(42L);
+    }
+
+    @Test
+    @DisplayName("Should start from the beginning when no cursor is given")
+    void shouldStartFromBeginning() {
+        assertThat(CursorCodec.decode(null)).isZero();
+        assertThat(CursorCodec.decode(" ")).isZero();
+        assertThat(CursorCodec.encode(null)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject tampered cursors")
+    void shouldRejectTamperedCursor() {
+        assertThatThrownBy(() -> CursorCodec.decode("not-a-cursor"))
+                .isInstanceOf(InvalidUserDataException.class);
+        assertThatThrownBy(() -> CursorCodec.decode("%%%"))
+                .isInstanceOf(InvalidUserDataException.class);
+    }
+}
@@ -0,0 +1,45 @@
+package com.pettime.metrics;
+
+import com.pettime.metrics.AppointmentMetrics.ConflictSource;
+import com.pettime.metrics.AppointmentMetrics.Stage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for AppointmentMetrics.
+ * (FR) Tests unitaires pour AppointmentMetrics.
+ */
+class AppointmentMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AppointmentMetrics metrics = new AppointmentMetrics(registry);
+
+    @Test
+    @DisplayName("⏱️ Should time each stage, including stages that throw")
+    void shouldTimeStages() {
+        assertThat(metrics.time(Stage.PET_LOAD, () -> "pet")).isEqualTo("pet");
+        assertThatThrownBy(() -> metrics.time(Stage.SAVE, () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(registry.get("appointment.create.stage").tag("stage", "pet_load").timer().count()).isEqualTo(1);
+        assertThat(registry.get("appointment.create.stage").tag("stage", "save").timer().count()).isEqualTo(1);
+        assertThat(registry.get("appointment.create.stage").tag("stage", "overlap_check").timer().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("🚫 Should count conflicts by source")
+    void shouldCountConflicts() {
+        metrics.conflict(ConflictSource.INDEX);
+        metrics.conflict(ConflictSource.INDEX);
+        metrics.conflict(ConflictSource.CONSTRAINT);
+
+        assertThat(registry.get("appointment.conflicts").tag("source", "index").counter().count()).isEqualTo(2);
+        assertThat(registry.get("appointment.conflicts").tag("source", "constraint").counter().count()).isEqualTo(1);
+        assertThat(registry.get("appointment.conflicts").tag("source", "query").counter().count()).isZero();
+    }
+}
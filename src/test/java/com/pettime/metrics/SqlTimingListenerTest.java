@@ -0,0 +1,112 @@
+package com.pettime.metrics;
+
+import com.pettime.config.SqlTimingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for SqlTimingListener and RepositoryMethodTracker.
+ * (FR) Tests unitaires pour SqlTimingListener et RepositoryMethodTracker.
+ */
+class SqlTimingListenerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SqlTimingListener listener = new SqlTimingListener(new SqlTimingProperties(), registry);
+
+    private static ExecutionInfo execution(Statement statement, Object result, long elapsedMillis) {
+        ExecutionInfo info = new ExecutionInfo();
+        info.setStatement(statement);
+        info.setResult(result);
+        info.setElapsedTime(elapsedMillis);
+        return info;
+    }
+
+    private static MethodExecutionContext call(Object target, String method, Object result) throws Exception {
+        Class<?> type = target instanceof ResultSet ? ResultSet.class : Statement.class;
+        return MethodExecutionContext.Builder.create()
+                .target(target)
+                .method(type.getMethod(method))
+                .result(result)
+                .build();
+    }
+
+    @Test
+    @DisplayName("⏱️ Should time updates and record the updated row count")
+    void shouldTimeUpdates() {
+        listener.afterQuery(execution(mock(Statement.class), 3, 12),
+                List.of(new QueryInfo("update pets set name=? where owner_id=?")));
+
+        assertThat(registry.get("sql.statement").tag("type", "update").tag("method", "none").timer().count())
+                .isEqualTo(1);
+        assertThat(registry.get("sql.statement.rows").tag("type", "update").summary().totalAmount())
+                .isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("📊 Should count rows of a query once its result set is closed")
+    void shouldCountQueryRowsOnClose() throws Exception {
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getStatement()).thenReturn(statement);
+
+        listener.afterQuery(execution(statement, resultSet, 5),
+                List.of(new QueryInfo("select id from appointments where petshop_id=?")));
+
+        listener.afterMethod(call(resultSet, "next", true));
+        listener.afterMethod(call(resultSet, "next", true));
+        listener.afterMethod(call(resultSet, "next", false));
+
+        assertThat(registry.get("sql.statement.rows").summary().count()).isZero();
+
+        listener.beforeMethod(call(resultSet, "close", null));
+
+        assertThat(registry.get("sql.statement").tag("type", "select").timer().count()).isEqualTo(1);
+        assertThat(registry.get("sql.statement.rows").tag("type", "select").summary().totalAmount())
+                .isEqualTo(2);
+
+        // Closing the statement afterwards must not record the query twice
+        listener.beforeMethod(call(statement, "close", null));
+        assertThat(registry.get("sql.statement.rows").summary().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("🏷️ Should tag statements with the calling repository method")
+    void shouldTagStatementsWithRepositoryMethod() throws Throwable {
+        MethodInvocation invocation = mock(MethodInvocation.class);
+        when(invocation.getMethod()).thenReturn(Object.class.getMethod("toString"));
+        when(invocation.proceed()).thenAnswer(ignored -> {
+            listener.afterQuery(execution(mock(Statement.class), 1, 1),
+                    List.of(new QueryInfo("delete from pets where id=?")));
+            return RepositoryMethodTracker.current();
+        });
+
+        Object method = new RepositoryMethodTracker(Runnable.class).invoke(invocation);
+
+        assertThat(method).isEqualTo("Runnable.toString");
+        assertThat(RepositoryMethodTracker.current()).isEqualTo(RepositoryMethodTracker.NONE);
+        assertThat(registry.get("sql.statement").tag("method", "Runnable.toString").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("🔤 Should classify statements by their leading keyword")
+    void shouldClassifyStatements() {
+        assertThat(SqlTimingListener.typeOf("  SELECT 1")).isEqualTo("select");
+        assertThat(SqlTimingListener.typeOf("with w as (select 1) select * from w")).isEqualTo("select");
+        assertThat(SqlTimingListener.typeOf("insert into pets values (?)")).isEqualTo("insert");
+        assertThat(SqlTimingListener.typeOf("call next value for seq")).isEqualTo("other");
+    }
+}
@@ -1,12 +1,14 @@
 package com.pettime.repository;
 
 import com.pettime.model.*;
+import com.pettime.repository.projection.AppointmentWindow;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -82,6 +84,14 @@ class AppointmentRepositoryTest {
         );
 }
 
+    /**
+     * A time this many hours ahead, truncated to seconds so the database column
+     * stores exactly the value the assertions compare against.
+     */
+    private static LocalDateTime inHours(long hours) {
+        return LocalDateTime.now().plusHours(hours).truncatedTo(ChronoUnit.SECONDS);
+    }
+
     // =====================================================================
     // ✔ BASICS: Persist and Retrieve
     // =====================================================================
@@ -96,8 +106,8 @@ class AppointmentRepositoryTest {
         Appointment saved = createAppointment(
                 pet,
                 petshop,
-                LocalDateTime.now().plusHours(1),
-                LocalDateTime.now().plusHours(2)
+                inHours(1),
+                inHours(2)
         );
 
         Appointment found = appointmentRepository.findById(saved.getId()).orElse(null);
@@ -119,7 +129,7 @@ class AppointmentRepositoryTest {
         User client = createUser("Jean Dupont", "jean@client.ca", UserRole.CLIENT);
         Pet pet = createPet("Rex", client);
 
-        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime start = inHours(24);
         LocalDateTime end = start.plusHours(2);
 
         createAppointment(pet, petshop, start, end);
@@ -145,7 +155,7 @@ class AppointmentRepositoryTest {
         User client = createUser("Jean Dupont", "jean@client.ca", UserRole.CLIENT);
         Pet pet = createPet("Rex", client);
 
-        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime start = inHours(24);
         LocalDateTime end = start.plusHours(2);
 
         createAppointment(pet, petshop, start, end);
@@ -171,7 +181,7 @@ class AppointmentRepositoryTest {
         User client = createUser("Jean Dupont", "jean@client.ca", UserRole.CLIENT);
         Pet pet = createPet("Buddy", client);
 
-        LocalDateTime now = LocalDateTime.now().plusDays(1);
+        LocalDateTime now = inHours(24);
 
         // A1: [now, now+1h]
         createAppointment(pet, petshop, now, now.plusHours(1));
@@ -191,4 +201,161 @@ class AppointmentRepositoryTest {
         assertThat(overlap)
                 .anySatisfy(appt -> assertThat(appt.getStartTime()).isEqualTo(now));
     }
+
+    // =====================================================================
+    // ✔ EXISTENCE AND WINDOW PROJECTION
+    // =====================================================================
+
+    @Test
+    @DisplayName("⚡ Should answer overlap existence without loading entities")
+    void shouldCheckOverlapExistence() {
+
+        User petshop = createUser("PetShop Québec", "shop@pettime.ca", UserRole.PETSHOP);
+        User client = createUser("Jean Dupont", "jean@client.ca", UserRole.CLIENT);
+        Pet pet = createPet("Rex", client);
+
+        LocalDateTime start = inHours(24);
+        LocalDateTime end = start.plusHours(2);
+
+        createAppointment(pet, petshop, start, end);
+
+        assertThat(appointmentRepository.existsOverlappingAppointment(
+                petshop.getId(), start.plusMinutes(30), end.plusMinutes(30))).isTrue();
+        assertThat(appointmentRepository.existsOverlappingAppointment(
+                petshop.getId(), end, end.plusHours(1))).isFalse();
+    }
+
+    @Test
+    @DisplayName("🪟 Should project only the conflicting windows, ordered by start time")
+    void shouldProjectOverlappingWindows() {
+
+        User petshop = createUser("PetShop Québec", "shop@pettime.ca", UserRole.PETSHOP);
+        User client = createUser("Jean Dupont", "jean@client.ca", UserRole.CLIENT);
+        Pet pet = createPet("Buddy", client);
+
+        LocalDateTime now = inHours(24);
+
+        Appointment second = createAppointment(pet, petshop, now.plusHours(2), now.plusHours(3));
+        Appointment first = createAppointment(pet, petshop, now, now.plusHours(1));
+        createAppointment(pet, petshop, now.plusHours(4), now.plusHours(5));
+
+        List<AppointmentWindow> windows = appointmentRepository.findOverlappingWindows(
+                petshop.getId(),
+                now.plusMinutes(30),
+                now.plusHours(2).plusMinutes(30)
+        );
+
+        assertThat(windows)
+                .extracting(AppointmentWindow::id)
+                .containsExactly(first.getId(), second.getId());
+    }
+
+    // =====================================================================
+    // ✔ STATUS FILTER
+    // =====================================================================
+
+    @Test
+    @DisplayName("❌ Cancelled and completed appointments should not block their slot")
+    void shouldIgnoreInactiveAppointments() {
+
+        User petshop = createUser("PetShop Québec", "shop@pettime.ca", UserRole.PETSHOP);
+        User client = createUser("Jean Dupont", "jean@client.ca", UserRole.CLIENT);
+        Pet pet = createPet("Rex", client);
+
+        LocalDateTime start = inHours(24);
+        LocalDateTime end = start.plusHours(2);
+
+        Appointment cancelled = createAppointment(pet, petshop, start, end);
+        cancelled.setStatus(AppointmentStatus.CANCELLED);
+        appointmentRepository.save(cancelled);
+
+        Appointment completed = createAppointment(pet, petshop, start, end);
+        completed.setStatus(AppointmentStatus.COMPLETED);
+        appointmentRepository.save(completed);
+
+        assertThat(appointmentRepository.existsOverlappingAppointment(petshop.getId(), start, end)).isFalse();
+        assertThat(appointmentRepository.findOverlappingAppointments(petshop.getId(), start, end)).isEmpty();
+        assertThat(appointmentRepository.findOverlappingWindows(petshop.getId(), start, end)).isEmpty();
+
+        Appointment confirmed = createAppointment(pet, petshop, start, end);
+        confirmed.setStatus(AppointmentStatus.CONFIRMED);
+        appointmentRepository.save(confirmed);
+
+        assertThat(appointmentRepository.findOverlappingWindows(petshop.getId(), start, end))
+                .extracting(AppointmentWindow::id)
+                .containsExactly(confirmed.getId());
+    }
+
+    @Test
+    @DisplayName("🚫 cancelActive should cancel only pending or confirmed appointments, keeping other columns")
+    void shouldCancelOnlyActiveAppointments() {
+
+        User petshop = createUser("PetShop Québec", "shop@pettime.ca", UserRole.PETSHOP);
+        User client = createUser("Jean Dupont", "jean@client.ca", UserRole.CLIENT);
+        Pet pet = createPet("Rex", client);
+
+        LocalDateTime start = inHours(24);
+
+        Appointment paid = createAppointment(pet, petshop, start, start.plusHours(1));
+        paid.setStatus(AppointmentStatus.CONFIRMED);
+        paid.setPaid(true);
+        appointmentRepository.save(paid);
+
+        Appointment completed = createAppointment(pet, petshop, start.plusHours(2), start.plusHours(3));
+        completed.setStatus(AppointmentStatus.COMPLETED);
+        appointmentRepository.save(completed);
+
+        assertThat(appointmentRepository.cancelActive(paid.getId(), LocalDateTime.now())).isEqualTo(1);
+        assertThat(appointmentRepository.cancelActive(paid.getId(), LocalDateTime.now())).isZero();
+        assertThat(appointmentRepository.cancelActive(completed.getId(), LocalDateTime.now())).isZero();
+
+        assertThat(appointmentRepository.findById(paid.getId())).get()
+                .extracting(Appointment::getStatus, Appointment::getPaid)
+                .containsExactly(AppointmentStatus.CANCELLED, true);
+        assertThat(appointmentRepository.findById(completed.getId())).get()
+                .extracting(Appointment::getStatus)
+                .isEqualTo(AppointmentStatus.COMPLETED);
+    }
+
+    @Test
+    @DisplayName("🗓️ findExclusiveWindowsEndingAfter should skip shared and finished windows")
+    void shouldLoadOnlyExclusiveWindowsForTheIndex() {
+
+        User petshop = createUser("PetShop Québec", "shop@pettime.ca", UserRole.PETSHOP);
+        User client = createUser("Jean Dupont", "jean@client.ca", UserRole.CLIENT);
+        Pet pet = createPet("Rex", client);
+
+        Appointment exclusive = createAppointment(pet, petshop, inHours(24), inHours(25));
+
+        Appointment shared = createAppointment(pet, petshop, inHours(24), inHours(26));
+        shared.setExclusive(false);
+        appointmentRepository.save(shared);
+
+        createAppointment(pet, petshop, inHours(-3), inHours(-2));
+
+        assertThat(appointmentRepository.findExclusiveWindowsEndingAfter(petshop.getId(), LocalDateTime.now()))
+                .extracting(AppointmentWindow::id)
+                .containsExactly(exclusive.getId());
+    }
+
+    @Test
+    @DisplayName("👥 existsOverlappingSharedAppointment should only see non-exclusive windows")
+    void shouldCheckSharedOverlapsOnly() {
+
+        User petshop = createUser("PetShop Québec", "shop@pettime.ca", UserRole.PETSHOP);
+        User client = createUser("Jean Dupont", "jean@client.ca", UserRole.CLIENT);
+        Pet pet = createPet("Rex", client);
+
+        createAppointment(pet, petshop, inHours(24), inHours(25));
+
+        Appointment shared = createAppointment(pet, petshop, inHours(26), inHours(27));
+        shared.setExclusive(false);
+        appointmentRepository.save(shared);
+
+        assertThat(appointmentRepository.existsOverlappingSharedAppointment(petshop.getId(), inHours(24), inHours(25)))
+                .isFalse();
+        assertThat(appointmentRepository.existsOverlappingSharedAppointment(petshop.getId(), inHours(25), inHours(27)))
+                .isTrue();
+        assertThat(userRepository.findCapacityById(petshop.getId())).contains(1);
+    }
 }
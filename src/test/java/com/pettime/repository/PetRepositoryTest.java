@@ -1,18 +1,25 @@
 package com.pettime.repository;
 
+import com.pettime.dto.PetResponseDto;
 import com.pettime.model.Pet;
 import com.pettime.model.User;
 import com.pettime.model.UserRole;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 
 import java.util.List;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 class PetRepositoryTest {
 
     @Autowired
@@ -21,6 +28,9 @@ class PetRepositoryTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
     @Test
     @DisplayName("✔ Should return all pets belonging to a specific owner")
     void shouldFindPetsByOwner() {
@@ -143,4 +153,86 @@ class PetRepositoryTest {
                 .extracting(Pet::getBreed)
                 .containsExactly("Golden");
     }
+
+    @Test
+    @DisplayName("✔ Should load pets with their owner in a constant number of statements")
+    void shouldNotIssueOneQueryPerPet() {
+
+        User owner = savePetsForNewOwner("few@client.ca", 3);
+        User busyOwner = savePetsForNewOwner("many@client.ca", 30);
+        entityManager.flush();
+
+        long few = statementsFor(() -> petRepository.findResponsesByOwnerId(owner.getId()));
+        long many = statementsFor(() -> petRepository.findResponsesByOwnerId(busyOwner.getId()));
+
+        assertThat(few).isEqualTo(1);
+        assertThat(many).isEqualTo(few);
+
+        assertThat(statementsFor(() -> petRepository
+                .findResponsesAfter(0L, PageRequest.of(0, 20))
+                .getContent()))
+                .isEqualTo(1);
+        Long petId = petRepository.findResponsesByOwnerId(busyOwner.getId()).get(0).getId();
+        assertThat(statementsFor(() -> petRepository.findWithOwnerById(petId)
+                .map(PetResponseDto::fromEntity)
+                .orElseThrow()))
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("✔ Should project owner id and name straight into the response DTO")
+    void shouldProjectPetResponses() {
+
+        User owner = savePetsForNewOwner("projection@client.ca", 2);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<PetResponseDto> result = petRepository.findResponsesByOwnerId(owner.getId());
+
+        assertThat(result)
+                .hasSize(2)
+                .allSatisfy(dto -> {
+                    assertThat(dto.getOwnerId()).isEqualTo(owner.getId());
+                    assertThat(dto.getOwnerName()).isEqualTo("Owner projection@client.ca");
+                });
+
+        assertThat(petRepository.findResponsePage(PageRequest.of(0, 1, Sort.by("id"))).getTotalElements())
+                .isEqualTo(2);
+    }
+
+    private User savePetsForNewOwner(String email, int pets) {
+        User owner = userRepository.save(
+                User.builder()
+                        .name("Owner " + email)
+                        .email(email)
+                        .password("123")
+                        .role(UserRole.CLIENT)
+                        .build()
+        );
+
+        for (int i = 0; i < pets; i++) {
+            petRepository.save(
+                    Pet.builder()
+                            .name("Pet " + i)
+                            .species("Dog")
+                            .owner(owner)
+                            .build()
+            );
+        }
+        return owner;
+    }
+
+    private long statementsFor(Supplier<?> query) {
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManager()
+                .getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+
+        query.get();
+
+        return statistics.getPrepareStatementCount();
+    }
 }
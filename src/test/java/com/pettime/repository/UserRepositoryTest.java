@@ -1,5 +1,9 @@
 package com.pettime.repository;
 
+import com.pettime.exception.ConstraintViolations;
+import com.pettime.exception.InvalidUserDataException;
+import com.pettime.mapper.CursorCodec;
+import com.pettime.model.Pet;
 import com.pettime.model.User;
 import com.pettime.model.UserRole;
 import org.junit.jupiter.api.DisplayName;
@@ -7,7 +11,13 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
@@ -18,6 +28,9 @@ class UserRepositoryTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private PetRepository petRepository;
+
     // ---------------------------------------------------------
     // Helper
     // ---------------------------------------------------------
@@ -62,6 +75,20 @@ class UserRepositoryTest {
         assertThat(found.get().getEmail()).isEqualTo("lookup@pettime.ca");
     }
 
+    @Test
+    @DisplayName("🔠 Should find user by email regardless of case")
+    void shouldFindByEmailIgnoringCase() {
+        // Arrange
+        userRepository.save(createUser(User.normalizeEmail("Mixed.Case@PetTime.ca")));
+
+        // Act
+        Optional<User> found = userRepository.findByEmail("MIXED.case@pettime.CA");
+
+        // Assert
+        assertThat(found).isPresent();
+        assertThat(found.get().getEmail()).isEqualTo("mixed.case@pettime.ca");
+    }
+
     @Test
     @DisplayName("❌ Should return empty when no user matches email")
     void shouldReturnEmptyForUnknownEmail() {
@@ -88,6 +115,49 @@ class UserRepositoryTest {
                 .isInstanceOf(DataIntegrityViolationException.class); // stable, bank independent
     }
 
+    @Test
+    @DisplayName("🔗 Should report deleting a user who still owns pets as still referenced")
+    void shouldRejectDeletingReferencedUser() {
+        // Arrange
+        User owner = userRepository.saveAndFlush(createUser("owner@pettime.ca"));
+        petRepository.saveAndFlush(Pet.builder()
+                .name("Rex")
+                .species("Dog")
+                .breed("Labrador")
+                .owner(owner)
+                .build());
+
+        // Act
+        Throwable thrown = catchThrowable(() -> {
+            userRepository.delete(owner);
+            userRepository.flush();
+        });
+
+        // Assert
+        assertThat(thrown).isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(ConstraintViolations.isStillReferenced(thrown)).isTrue();
+    }
+
+    @Test
+    @DisplayName("🔗 Should not report a pet saved for a missing owner as still referenced")
+    void shouldTellMissingOwnerFromStillReferenced() {
+        // Arrange
+        User missing = userRepository.saveAndFlush(createUser("gone@pettime.ca"));
+        userRepository.delete(missing);
+        userRepository.flush();
+
+        // Act
+        Throwable thrown = catchThrowable(() -> petRepository.saveAndFlush(Pet.builder()
+                .name("Mia")
+                .species("Cat")
+                .owner(missing)
+                .build()));
+
+        // Assert
+        assertThat(ConstraintViolations.isForeignKeyViolation(thrown)).isTrue();
+        assertThat(ConstraintViolations.isStillReferenced(thrown)).isFalse();
+    }
+
     @Test
     @DisplayName("📌 existsByEmail should return true when email exists")
     void shouldReturnTrueWhenEmailExists() {
@@ -110,4 +180,41 @@ class UserRepositoryTest {
         // Assert
         assertThat(exists).isFalse();
     }
+
+    @Test
+    @DisplayName("📄 Should walk every page with cursors until the last one")
+    void shouldWalkPagesWithCursor() {
+        // Arrange
+        for (int i = 1; i <= 5; i++) {
+            userRepository.save(createUser("page" + i + "@pettime.ca"));
+        }
+
+        // Act
+        List<String> emails = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        String cursor = null;
+        Slice<User> page;
+        do {
+            page = userRepository.findByIdGreaterThanOrderByIdAsc(CursorCodec.decode(cursor), PageRequest.of(0, 2));
+            page.forEach(user -> emails.add(user.getEmail()));
+            pageSizes.add(page.getNumberOfElements());
+            cursor = page.hasNext() ? CursorCodec.encode(page.getContent().get(page.getNumberOfElements() - 1).getId()) : null;
+        } while (cursor != null);
+
+        // Assert
+        assertThat(pageSizes).containsExactly(2, 2, 1);
+        assertThat(page.hasNext()).isFalse();
+        assertThat(emails).containsExactly(
+                "page1@pettime.ca", "page2@pettime.ca", "page3@pettime.ca", "page4@pettime.ca", "page5@pettime.ca");
+    }
+
+    @Test
+    @DisplayName("🛑 Should reject a cursor that was not issued by the API")
+    void shouldRejectInvalidCursor() {
+        String forged = Base64.getUrlEncoder().encodeToString("id:abc".getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> CursorCodec.decode(forged))
+                .isInstanceOf(InvalidUserDataException.class)
+                .hasMessage("Invalid cursor");
+    }
 }
@@ -0,0 +1,272 @@
+package com.pettime.security;
+
+import com.pettime.config.LoginThrottleProperties;
+import com.pettime.config.PasswordHashingProperties;
+import com.pettime.dto.LoginRequestDto;
+import com.pettime.dto.TokenResponseDto;
+import com.pettime.exception.InvalidCredentialsException;
+import com.pettime.exception.LoginThrottledException;
+import com.pettime.model.User;
+import com.pettime.model.UserRole;
+import com.pettime.repository.UserRepository;
+import com.pettime.service.cache.UserLookupCache;
+import com.pettime.service.impl.AuthServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * 🧪 Load test: legitimate logins keep their throughput during a credential flood.
+ * (FR) Test de charge : les connexions légitimes gardent leur débit pendant une attaque.
+
+ * Legitimate clients log in concurrently, each from its own address and
+ * account, with correct passwords. Two floods of random credentials are
+ * played against them:
+ * - from a few addresses, far faster than BCrypt could verify: the throttle
+ *   turns it away before BCrypt, so the legitimate rate stays close to its
+ *   baseline measured without flood;
+ * - from many addresses with a fresh random email each time, several times
+ *   the distinct-email rate the account sketch is sized for: nothing can be
+ *   throttled per key, but the sketch must not saturate into throttling
+ *   every account, legitimate ones included.
+ * Tagged "load" and excluded from the default build; run it with
+ * mvn -Pload-test test.
+ */
+@Tag("load")
+class LoginFloodLoadTest {
+
+    private static final long PHASE_MILLIS = 1_500;
+    private static final int FEW_ATTACKER_ADDRESSES = 4;
+    private static final int MANY_ATTACKER_ADDRESSES = 2_000;
+    private static final int FLOOD_THREADS = 4;
+    private static final long FLOOD_PAUSE_NANOS = 50_000;
+    private static final int ACCOUNT_SKETCH_KEYS = 4_096;
+    private static final int RANDOM_EMAIL_ATTEMPTS = 3 * ACCOUNT_SKETCH_KEYS;
+    private static final int LEGITIMATE_LOGINS_PER_THREAD = 25;
+    private static final String PASSWORD = "correct-horse";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LoginThrottleProperties throttleProperties = new LoginThrottleProperties();
+    private final AtomicLong sequence = new AtomicLong();
+    private PasswordHashingService passwordHashingService;
+    private UserRepository userRepository;
+    private String storedHash;
+
+    @BeforeEach
+    void setUp() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        PasswordHashingProperties hashing = new PasswordHashingProperties();
+        hashing.setPoolSize(cores);
+        hashing.setQueueCapacity(cores * 64);
+        hashing.setMaxWait(Duration.ofSeconds(30));
+        passwordHashingService = new PasswordHashingService(new BCryptPasswordEncoder(4), hashing, meterRegistry);
+        storedHash = passwordHashingService.hash(PASSWORD);
+
+        userRepository = mock(UserRepository.class, withSettings().stubOnly());
+        when(userRepository.findByEmail(anyString())).thenAnswer(invocation -> Optional.of(User.builder()
+                .id(1L)
+                .email(invocation.getArgument(0))
+                .password(storedHash)
+                .role(UserRole.CLIENT)
+                .build()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHashingService.destroy();
+    }
+
+    private AuthServiceImpl newAuthService() {
+        TokenService tokenService = mock(TokenService.class, withSettings().stubOnly());
+        when(tokenService.issue(any())).thenReturn(TokenResponseDto.bearer("a", "r", 900));
+
+        return new AuthServiceImpl(
+                userRepository,
+                mock(UserLookupCache.class, withSettings().stubOnly()),
+                passwordHashingService,
+                tokenService,
+                new LoginThrottle(throttleProperties, meterRegistry)
+        );
+    }
+
+    @Test
+    @DisplayName("🚦 Should keep legitimate login throughput during a bad-credential flood from a few addresses")
+    void shouldKeepLegitimateThroughputUnderFlood() throws Exception {
+        int legitimateThreads = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+        Phase baseline = timedPhase(newAuthService(), legitimateThreads, 0);
+        Phase underFlood = timedPhase(newAuthService(), legitimateThreads, FLOOD_THREADS);
+
+        // A run straddling a window boundary may see up to two allowances; each thread overshoots by at most one.
+        long allowance = 2L * FEW_ATTACKER_ADDRESSES * throttleProperties.getMaxAttemptsPerAddress() + FLOOD_THREADS;
+
+        assertThat(underFlood.legitimateThrottled()).isZero();
+        assertThat(underFlood.floodVerified()).isLessThanOrEqualTo(allowance);
+        assertThat(underFlood.legitimatePerSecond())
+                .as("legitimate logins/s under a flood of %d attempts, baseline %.0f/s",
+                        underFlood.floodAttempts(), baseline.legitimatePerSecond())
+                .isGreaterThan(baseline.legitimatePerSecond() * 0.6);
+    }
+
+    @Test
+    @DisplayName("🌊 Should not throttle legitimate accounts after a random-email flood from many addresses")
+    void shouldNotSaturateAccountsUnderRandomEmailFlood() throws Exception {
+        throttleProperties.setExpectedAccountsPerWindow(ACCOUNT_SKETCH_KEYS);
+        int legitimateThreads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        AuthServiceImpl authService = newAuthService();
+
+        AtomicLong remaining = new AtomicLong(RANDOM_EMAIL_ATTEMPTS);
+        Counts flood = new Counts();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < FLOOD_THREADS; t++) {
+            threads.add(new Thread(() -> {
+                awaitQuietly(start);
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (remaining.getAndDecrement() > 0) {
+                    int address = random.nextInt(MANY_ATTACKER_ADDRESSES);
+                    flood(authService, "203.0." + (address >> 8) + "." + (address & 255), flood);
+                }
+            }));
+        }
+        runAll(threads, start);
+
+        // Fresh accounts arriving once the account sketch holds the whole flood
+        Counts legitimate = new Counts();
+        List<Thread> clients = new ArrayList<>();
+        CountDownLatch clientsStart = new CountDownLatch(1);
+        for (int t = 0; t < legitimateThreads; t++) {
+            clients.add(new Thread(() -> {
+                awaitQuietly(clientsStart);
+                for (int i = 0; i < LEGITIMATE_LOGINS_PER_THREAD; i++) {
+                    legitimateLogin(authService, legitimate);
+                }
+            }));
+        }
+        runAll(clients, clientsStart);
+
+        assertThat(flood.throttled.get()).isZero();
+        assertThat(flood.verified.get()).isEqualTo(RANDOM_EMAIL_ATTEMPTS);
+        assertThat(legitimate.throttled.get()).isZero();
+        assertThat(legitimate.verified.get()).isEqualTo((long) legitimateThreads * LEGITIMATE_LOGINS_PER_THREAD);
+    }
+
+    /**
+     * Legitimate clients log in for {@link #PHASE_MILLIS} while flood threads send random credentials
+     * from {@link #FEW_ATTACKER_ADDRESSES} addresses, each at about 20k attempts/s.
+     */
+    private Phase timedPhase(AuthServiceImpl authService, int legitimateThreads, int floodThreads) throws Exception {
+        AtomicBoolean running = new AtomicBoolean(true);
+        Counts legitimate = new Counts();
+        Counts flood = new Counts();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+
+        for (int t = 0; t < legitimateThreads; t++) {
+            threads.add(new Thread(() -> {
+                awaitQuietly(start);
+                while (running.get()) {
+                    legitimateLogin(authService, legitimate);
+                }
+            }));
+        }
+        for (int t = 0; t < floodThreads; t++) {
+            threads.add(new Thread(() -> {
+                awaitQuietly(start);
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (running.get()) {
+                    flood(authService, "203.0.113." + random.nextInt(FEW_ATTACKER_ADDRESSES), flood);
+                    LockSupport.parkNanos(FLOOD_PAUSE_NANOS);
+                }
+            }));
+        }
+
+        threads.forEach(Thread::start);
+        start.countDown();
+        TimeUnit.MILLISECONDS.sleep(PHASE_MILLIS);
+        running.set(false);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        return new Phase(
+                legitimate.verified.get() / (PHASE_MILLIS / 1000.0),
+                legitimate.throttled.get(),
+                flood.verified.get() + flood.throttled.get(),
+                flood.verified.get()
+        );
+    }
+
+    private void legitimateLogin(AuthServiceImpl authService, Counts counts) {
+        long n = sequence.incrementAndGet();
+        try {
+            // Every legitimate login comes from its own address and account.
+            authService.login(
+                    new LoginRequestDto("user" + n + "@client.ca", PASSWORD),
+                    "198." + (n >> 16 & 255) + "." + (n >> 8 & 255) + "." + (n & 255)
+            );
+            counts.verified.incrementAndGet();
+        } catch (LoginThrottledException unexpected) {
+            counts.throttled.incrementAndGet();
+        }
+    }
+
+    private static void flood(AuthServiceImpl authService, String address, Counts counts) {
+        try {
+            String email = "victim" + ThreadLocalRandom.current().nextLong() + "@client.ca";
+            authService.login(new LoginRequestDto(email, "guess"), address);
+        } catch (LoginThrottledException expected) {
+            counts.throttled.incrementAndGet();
+        } catch (InvalidCredentialsException expected) {
+            // Let through to BCrypt: neither the address nor the account reached its limit.
+            counts.verified.incrementAndGet();
+        }
+    }
+
+    private static void runAll(List<Thread> threads, CountDownLatch start) throws InterruptedException {
+        threads.forEach(Thread::start);
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Attempts let through to BCrypt and attempts throttled.
+     */
+    private static final class Counts {
+        private final AtomicLong verified = new AtomicLong();
+        private final AtomicLong throttled = new AtomicLong();
+    }
+
+    private record Phase(double legitimatePerSecond, long legitimateThrottled, long floodAttempts, long floodVerified) {
+    }
+}
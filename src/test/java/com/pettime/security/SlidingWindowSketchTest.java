@@ -0,0 +1,125 @@
+package com.pettime.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for SlidingWindowSketch.
+ * (FR) Tests unitaires pour SlidingWindowSketch.
+ */
+class SlidingWindowSketchTest {
+
+    private static final long WINDOW = 60_000;
+
+    @Test
+    @DisplayName("Should allow up to the limit per key within a window")
+    void shouldEnforceLimitPerKey() {
+        SlidingWindowSketch sketch = new SlidingWindowSketch(WINDOW, 4, 1024);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(sketch.tryAcquire("10.0.0.1", 5, 1_000)).isTrue();
+        }
+        assertThat(sketch.tryAcquire("10.0.0.1", 5, 1_000)).isFalse();
+        assertThat(sketch.tryAcquire("10.0.0.2", 5, 1_000)).isTrue();
+    }
+
+    @Test
+    @DisplayName("🔐 Should not share counters between keys with the same String.hashCode")
+    void shouldSeparateKeysWithEqualHashCodes() {
+        SlidingWindowSketch sketch = new SlidingWindowSketch(WINDOW, 4, 1024);
+        String victim = "AaAa@client.ca";
+        String[] collisions = {"BBBB@client.ca", "AaBB@client.ca", "BBAa@client.ca"};
+
+        for (String key : collisions) {
+            assertThat(key.hashCode()).isEqualTo(victim.hashCode());
+            for (int i = 0; i < 3; i++) {
+                assertThat(sketch.tryAcquire(key, 3, 1_000)).isTrue();
+            }
+            assertThat(sketch.tryAcquire(key, 3, 1_000)).isFalse();
+        }
+
+        assertThat(sketch.tryAcquire(victim, 3, 1_000)).isTrue();
+    }
+
+    @Test
+    @DisplayName("🌊 Should keep other keys under the limit after a flood of distinct keys")
+    void shouldNotSaturateUnderDistinctKeyFlood() {
+        // 12 distinct keys per cell: plain increments would throttle about a third of new keys.
+        SlidingWindowSketch sketch = new SlidingWindowSketch(WINDOW, 4, 1024);
+        for (int i = 0; i < 12 * 1024; i++) {
+            assertThat(sketch.tryAcquire("flood" + i + "@client.ca", 10, 1_000)).isTrue();
+        }
+
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(sketch.tryAcquire("user" + i + "@client.ca", 10, 1_000)).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("Should size the width to the expected distinct keys")
+    void shouldSizeWidthToExpectedKeys() {
+        SlidingWindowSketch sketch = SlidingWindowSketch.forExpectedKeys(WINDOW, 4, 4_096);
+        for (int i = 0; i < 3 * 4_096; i++) {
+            sketch.tryAcquire("flood" + i + "@client.ca", 10, 1_000);
+        }
+
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(sketch.tryAcquire("user" + i + "@client.ca", 10, 1_000)).isTrue();
+        }
+        assertThatThrownBy(() -> SlidingWindowSketch.forExpectedKeys(WINDOW, 4, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should let the previous window fade out as time slides")
+    void shouldSlide() {
+        SlidingWindowSketch sketch = new SlidingWindowSketch(WINDOW, 4, 1024);
+        for (int i = 0; i < 10; i++) {
+            sketch.tryAcquire("key", 10, 59_000);
+        }
+
+        // At the boundary the previous window still weighs fully.
+        assertThat(sketch.tryAcquire("key", 10, 60_000)).isFalse();
+        // Halfway through, 5 of the previous 10 remain: 5 more are allowed.
+        int allowed = 0;
+        for (int i = 0; i < 10; i++) {
+            if (sketch.tryAcquire("key", 10, 90_000)) {
+                allowed++;
+            }
+        }
+        assertThat(allowed).isEqualTo(5);
+        // Two windows later everything is forgotten.
+        assertThat(sketch.tryAcquire("key", 10, 185_000)).isTrue();
+    }
+
+    @Test
+    @DisplayName("🔒 Should never exceed the limit under concurrent increments")
+    void shouldHoldLimitUnderConcurrency() throws Exception {
+        SlidingWindowSketch sketch = new SlidingWindowSketch(WINDOW, 4, 1024);
+        AtomicInteger allowed = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        for (int t = 0; t < 8; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    if (sketch.tryAcquire("hot-key", 100, 1_000)) {
+                        allowed.incrementAndGet();
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        // Check-then-increment can overshoot by at most one per racing thread.
+        assertThat(allowed.get()).isBetween(100, 108);
+    }
+}
@@ -0,0 +1,82 @@
+package com.pettime.security;
+
+import com.pettime.config.JwtConfig;
+import com.pettime.config.TokenProperties;
+import com.pettime.dto.TokenResponseDto;
+import com.pettime.exception.InvalidCredentialsException;
+import com.pettime.model.UserRole;
+import com.pettime.service.cache.CachedUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import javax.crypto.SecretKey;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for TokenService.
+ * (FR) Tests unitaires pour TokenService.
+ */
+class TokenServiceTest {
+
+    static final String SECRET = Base64.getEncoder()
+            .encodeToString("test-only-pettime-token-signing-key".getBytes());
+
+    private final CachedUser user = new CachedUser(7L, "Jean Dupont", "jean@client.ca", UserRole.PETSHOP);
+
+    private JwtDecoder accessTokenDecoder;
+    private TokenService tokenService;
+
+    @BeforeEach
+    void setUp() {
+        TokenProperties properties = new TokenProperties();
+        properties.setSecret(SECRET);
+
+        JwtConfig config = new JwtConfig();
+        SecretKey key = config.tokenSigningKey(properties);
+        accessTokenDecoder = config.jwtDecoder(key, properties);
+        tokenService = new TokenService(config.jwtEncoder(key), key, properties);
+    }
+
+    @Test
+    @DisplayName("Should issue an access token carrying the user id and role")
+    void shouldIssueAccessToken() {
+        TokenResponseDto tokens = tokenService.issue(user);
+
+        Jwt jwt = accessTokenDecoder.decode(tokens.getAccessToken());
+
+        assertThat(tokens.getTokenType()).isEqualTo("Bearer");
+        assertThat(tokens.getExpiresIn()).isEqualTo(900);
+        assertThat(jwt.getSubject()).isEqualTo("7");
+        assertThat(jwt.getClaimAsStringList(TokenService.ROLES_CLAIM)).containsExactly("PETSHOP");
+    }
+
+    @Test
+    @DisplayName("Should not accept a refresh token as an access token, nor the reverse")
+    void shouldKeepTokenTypesApart() {
+        TokenResponseDto tokens = tokenService.issue(user);
+
+        assertThat(tokenService.verifyRefreshToken(tokens.getRefreshToken())).isEqualTo(7L);
+        assertThatThrownBy(() -> accessTokenDecoder.decode(tokens.getRefreshToken()))
+                .isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> tokenService.verifyRefreshToken(tokens.getAccessToken()))
+                .isInstanceOf(InvalidCredentialsException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject tampered tokens")
+    void shouldRejectTamperedToken() {
+        String token = tokenService.issue(user).getAccessToken();
+        String tampered = token.substring(0, token.length() - 2)
+                + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThatThrownBy(() -> accessTokenDecoder.decode(tampered))
+                .isInstanceOf(JwtException.class);
+    }
+}
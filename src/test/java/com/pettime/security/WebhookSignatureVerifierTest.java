@@ -0,0 +1,96 @@
+package com.pettime.security;
+
+import com.pettime.config.PaymentWebhookProperties;
+import com.pettime.exception.InvalidWebhookException;
+import com.pettime.service.payment.StripeWebhookStub;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for WebhookSignatureVerifier.
+ * (FR) Tests unitaires pour WebhookSignatureVerifier.
+ */
+class WebhookSignatureVerifierTest {
+
+    private static final String SECRET = "whsec_test_only";
+    private static final String PAYLOAD = "{\"id\":\"evt_1\",\"type\":\"payment_intent.succeeded\"}";
+
+    private final StripeWebhookStub stripe = new StripeWebhookStub(SECRET);
+    private final Instant now = Instant.now();
+
+    private WebhookSignatureVerifier verifier;
+
+    @BeforeEach
+    void setUp() {
+        verifier = new WebhookSignatureVerifier(properties(SECRET));
+    }
+
+    private static PaymentWebhookProperties properties(String secret) {
+        PaymentWebhookProperties properties = new PaymentWebhookProperties();
+        properties.setSecret(secret);
+        properties.setTolerance(Duration.ofMinutes(5));
+        return properties;
+    }
+
+    @Test
+    @DisplayName("Should accept a payload signed with the endpoint secret")
+    void shouldAcceptValidSignature() {
+        StripeWebhookStub.Delivery delivery = stripe.sign(PAYLOAD, now);
+
+        assertThatCode(() -> verifier.verify(delivery.payload(), delivery.signature(), now))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("Should accept any matching v1 signature while the secret is rolled")
+    void shouldAcceptAnyMatchingSignature() {
+        String rolled = new StripeWebhookStub("whsec_old").sign(PAYLOAD, now).signature();
+        String current = stripe.sign(PAYLOAD, now).signature();
+        String header = rolled + "," + current.substring(current.indexOf("v1="));
+
+        assertThatCode(() -> verifier.verify(PAYLOAD, header, now)).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("Should reject a tampered payload, a foreign secret and a missing header")
+    void shouldRejectInvalidSignatures() {
+        StripeWebhookStub.Delivery delivery = stripe.sign(PAYLOAD, now);
+        String foreign = new StripeWebhookStub("whsec_other").sign(PAYLOAD, now).signature();
+
+        assertThatThrownBy(() -> verifier.verify(PAYLOAD.replace("evt_1", "evt_2"), delivery.signature(), now))
+                .isInstanceOf(InvalidWebhookException.class);
+        assertThatThrownBy(() -> verifier.verify(PAYLOAD, foreign, now))
+                .isInstanceOf(InvalidWebhookException.class);
+        assertThatThrownBy(() -> verifier.verify(PAYLOAD, null, now))
+                .isInstanceOf(InvalidWebhookException.class);
+        assertThatThrownBy(() -> verifier.verify(PAYLOAD, "t=abc,v1=00", now))
+                .isInstanceOf(InvalidWebhookException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject a replay signed outside the tolerance")
+    void shouldRejectStaleSignature() {
+        StripeWebhookStub.Delivery delivery = stripe.sign(PAYLOAD, now.minus(Duration.ofMinutes(6)));
+
+        assertThatThrownBy(() -> verifier.verify(delivery.payload(), delivery.signature(), now))
+                .isInstanceOf(InvalidWebhookException.class)
+                .hasMessageContaining("tolerance");
+    }
+
+    @Test
+    @DisplayName("Should reject everything while no secret is configured")
+    void shouldRejectWithoutSecret() {
+        WebhookSignatureVerifier unconfigured = new WebhookSignatureVerifier(properties(" "));
+        StripeWebhookStub.Delivery delivery = stripe.sign(PAYLOAD, now);
+
+        assertThatThrownBy(() -> unconfigured.verify(delivery.payload(), delivery.signature(), now))
+                .isInstanceOf(InvalidWebhookException.class);
+    }
+}
@@ -0,0 +1,91 @@
+package com.pettime.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.OutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 🧪 Heap check: a million users exported from a real database cursor.
+ * (FR) Contrôle du tas : un million d'utilisateurs exportés depuis un vrai curseur.
+
+ * Tagged "heap", so the default build skips it; run it with
+ * {@code mvn test -Pheap-check}, which caps the heap at 64 MB. The table
+ * lives in a file-backed H2 database and queries run lazily, so the rows
+ * stay on disk and only the export itself has to fit in the heap: a
+ * million user DTOs held in a list would not.
+ */
+@Tag("heap")
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:file:./target/heap-check/export;LAZY_QUERY_EXECUTION=TRUE;CACHE_SIZE=4096",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "app.scheduling.pending-expiry.enabled=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ExportService.class, ObjectMapper.class})
+class ExportServiceHeapTest {
+
+    private static final long LARGE_EXPORT_ROWS = 1_000_000;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("""
+                INSERT INTO users (name, email, password, role, capacity, created_at)
+                SELECT 'User ' || X, 'user' || X || '@example.com', 'hash', 'CLIENT', 1, CURRENT_TIMESTAMP
+                FROM SYSTEM_RANGE(1, ?)
+                """, LARGE_EXPORT_ROWS);
+    }
+
+    @Test
+    @DisplayName("🧪 Should export a million users with flat heap use")
+    void shouldExportMillionUsersWithFlatHeap() throws Exception {
+        LineCountingOutputStream out = new LineCountingOutputStream();
+        long exported = exportService.exportUsers(out);
+
+        assertThat(exported).isEqualTo(LARGE_EXPORT_ROWS);
+        assertThat(out.lines).isEqualTo(LARGE_EXPORT_ROWS);
+    }
+
+    private static final class LineCountingOutputStream extends OutputStream {
+
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                if (buffer[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.pettime.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.pettime.model.Appointment;
+import com.pettime.model.AppointmentStatus;
+import com.pettime.model.Pet;
+import com.pettime.model.User;
+import com.pettime.repository.AppointmentRepository;
+import com.pettime.repository.PetRepository;
+import com.pettime.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ExportService.
+ * (FR) Tests unitaires pour ExportService.
+ */
+@ExtendWith(MockitoExtension.class)
+class ExportServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PetRepository petRepository;
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private ExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new ExportService(
+                userRepository, petRepository, appointmentRepository, entityManager, objectMapper);
+    }
+
+    @Test
+    @DisplayName("Should write one JSON document per pet")
+    void shouldWriteOneLinePerPet() throws Exception {
+        User owner = User.builder().id(1L).name("Alice").build();
+        when(petRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.of(
+                Pet.builder().id(1L).name("Rex").species("Dog").owner(owner).build(),
+                Pet.builder().id(2L).name("Tom").species("Cat").owner(owner).build()
+        ));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long exported = exportService.exportPets(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(exported).isEqualTo(2);
+        assertThat(lines).hasSize(2);
+
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("name").asText()).isEqualTo("Rex");
+        assertThat(first.get("ownerName").asText()).isEqualTo("Alice");
+    }
+
+    @Test
+    @DisplayName("Should export appointments with ISO timestamps")
+    void shouldExportAppointments() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 7, 10, 0);
+        when(appointmentRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.of(
+                Appointment.builder()
+                        .id(5L)
+                        .pet(Pet.builder().id(2L).build())
+                        .petshop(User.builder().id(3L).build())
+                        .startTime(start)
+                        .endTime(start.plusHours(1))
+                        .status(AppointmentStatus.PENDING)
+                        .paid(false)
+                        .build()
+        ));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportAppointments(out);
+
+        JsonNode row = objectMapper.readTree(out.toString(StandardCharsets.UTF_8).trim());
+        assertThat(row.get("petshopId").asLong()).isEqualTo(3L);
+        assertThat(row.get("startTime").asText()).isEqualTo("2030-01-07T10:00:00");
+    }
+}
@@ -0,0 +1,199 @@
+package com.pettime.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pettime.config.UserCacheProperties;
+import com.pettime.dto.PetRequestDto;
+import com.pettime.dto.UserRequestDto;
+import com.pettime.model.Pet;
+import com.pettime.model.User;
+import com.pettime.model.UserRole;
+import com.pettime.repository.PetRepository;
+import com.pettime.repository.UserRepository;
+import com.pettime.security.PasswordHashingService;
+import com.pettime.service.cache.UserLookupCache;
+import com.pettime.service.impl.UserServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 🧪 Second-level cache consistency: writes through the services never leave stale entries.
+ * (FR) Cohérence du cache de second niveau : les écritures ne laissent aucune entrée périmée.
+
+ * Runs without a test transaction so every service call commits, which is
+ * when Hibernate updates or evicts the cached entries.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({
+        PetService.class,
+        ExportService.class,
+        ObjectMapper.class,
+        UserServiceImpl.class,
+        UserLookupCache.class,
+        UserCacheProperties.class,
+        SimpleMeterRegistry.class
+})
+class SecondLevelCacheTest {
+
+    @Autowired
+    private PetService petService;
+
+    @Autowired
+    private UserServiceImpl userService;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PetRepository petRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private PasswordHashingService passwordHashingService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        petRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private User saveUser(String email) {
+        return userRepository.save(User.builder()
+                .name("Owner")
+                .email(email)
+                .password("hash")
+                .role(UserRole.CLIENT)
+                .build());
+    }
+
+    @Test
+    @DisplayName("🐾 updatePet should refresh the cached pet")
+    void updatePetShouldRefreshCachedPet() {
+        User owner = saveUser("owner@pettime.ca");
+        Pet pet = petRepository.save(Pet.builder().name("Rex").species("Dog").owner(owner).build());
+
+        assertThat(petRepository.findById(pet.getId())).get().extracting(Pet::getName).isEqualTo("Rex");
+        assertThat(entityManagerFactory.getCache().contains(Pet.class, pet.getId())).isTrue();
+
+        petService.updatePet(pet.getId(), PetRequestDto.builder()
+                .name("Max")
+                .species("Cat")
+                .ownerId(owner.getId())
+                .build());
+
+        statistics.clear();
+        Pet reloaded = petRepository.findById(pet.getId()).orElseThrow();
+
+        assertThat(reloaded.getName()).isEqualTo("Max");
+        assertThat(reloaded.getSpecies()).isEqualTo("Cat");
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("👤 updateUser should refresh the cached user and its email key")
+    void updateUserShouldRefreshCachedUserAndNaturalId() {
+        User user = saveUser("before@pettime.ca");
+
+        assertThat(userRepository.findByEmail("before@pettime.ca")).isPresent();
+        assertThat(entityManagerFactory.getCache().contains(User.class, user.getId())).isTrue();
+
+        userService.updateUser(user.getId(), UserRequestDto.builder()
+                .name("Renamed")
+                .email("after@pettime.ca")
+                .build());
+
+        assertThat(userRepository.findById(user.getId())).get()
+                .extracting(User::getName, User::getEmail)
+                .containsExactly("Renamed", "after@pettime.ca");
+        assertThat(userRepository.findByEmail("before@pettime.ca")).isEmpty();
+        assertThat(userRepository.findByEmail("after@pettime.ca")).get()
+                .extracting(User::getId)
+                .isEqualTo(user.getId());
+    }
+
+    @Test
+    @DisplayName("🗑️ deleteUser should evict the user and its email key")
+    void deleteUserShouldEvictCachedUser() {
+        User user = saveUser("gone@pettime.ca");
+
+        assertThat(userRepository.findByEmail("gone@pettime.ca")).isPresent();
+
+        userService.deleteUser(user.getId());
+
+        // READ_WRITE regions keep a soft-lock entry after a removal, so check that nothing is served from it
+        statistics.clear();
+        assertThat(userRepository.findById(user.getId())).isEmpty();
+        assertThat(userRepository.findByEmail("gone@pettime.ca")).isEmpty();
+        assertThat(statistics.getSecondLevelCacheHitCount()).isZero();
+        assertThat(statistics.getNaturalIdCacheHitCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("📋 Pets-by-owner query results should be dropped when a pet changes")
+    void cachedPetQueryShouldBeInvalidatedByWrites() {
+        User owner = saveUser("list@pettime.ca");
+        Pet pet = petRepository.save(Pet.builder().name("Rex").species("Dog").owner(owner).build());
+
+        petRepository.findResponsesByOwnerId(owner.getId());
+        statistics.clear();
+        petRepository.findResponsesByOwnerId(owner.getId());
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+
+        petService.updatePet(pet.getId(), PetRequestDto.builder()
+                .name("Max")
+                .species("Dog")
+                .ownerId(owner.getId())
+                .build());
+
+        assertThat(petRepository.findResponsesByOwnerId(owner.getId()))
+                .singleElement()
+                .satisfies(dto -> assertThat(dto.getName()).isEqualTo("Max"));
+    }
+
+    @Test
+    @DisplayName("📤 Exports should neither read nor fill the user and pet regions")
+    void exportShouldBypassSecondLevelCache() throws Exception {
+        User owner = saveUser("export@pettime.ca");
+        Pet pet = petRepository.save(Pet.builder().name("Rex").species("Dog").owner(owner).build());
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+
+        assertThat(exportService.exportUsers(new ByteArrayOutputStream())).isEqualTo(1);
+        assertThat(exportService.exportPets(new ByteArrayOutputStream())).isEqualTo(1);
+
+        assertThat(entityManagerFactory.getCache().contains(User.class, owner.getId())).isFalse();
+        assertThat(entityManagerFactory.getCache().contains(Pet.class, pet.getId())).isFalse();
+        assertThat(statistics.getSecondLevelCachePutCount()).isZero();
+    }
+}
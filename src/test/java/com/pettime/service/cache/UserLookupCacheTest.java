@@ -0,0 +1,98 @@
+package com.pettime.service.cache;
+
+import com.pettime.config.UserCacheProperties;
+import com.pettime.model.User;
+import com.pettime.model.UserRole;
+import com.pettime.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for UserLookupCache.
+ * (FR) Tests unitaires pour UserLookupCache.
+ */
+@ExtendWith(MockitoExtension.class)
+class UserLookupCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserLookupCache cache;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new UserLookupCache(userRepository, new UserCacheProperties(), meterRegistry);
+        user = User.builder()
+                .id(1L)
+                .name("Jean Dupont")
+                .email("jean@client.ca")
+                .role(UserRole.CLIENT)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should load a user once and serve later lookups from memory")
+    void shouldReadThroughById() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        assertThat(cache.findById(1L)).contains(CachedUser.of(user));
+        assertThat(cache.findById(1L)).contains(CachedUser.of(user));
+
+        verify(userRepository, times(1)).findById(1L);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "users.byId").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should resolve emails through the id cache")
+    void shouldReadThroughByEmail() {
+        when(userRepository.findByEmail("jean@client.ca")).thenReturn(Optional.of(user));
+
+        assertThat(cache.findByEmail("jean@client.ca")).map(CachedUser::id).contains(1L);
+        assertThat(cache.findById(1L)).map(CachedUser::name).contains("Jean Dupont");
+        assertThat(cache.findByEmail("jean@client.ca")).isPresent();
+
+        verify(userRepository, times(1)).findByEmail("jean@client.ca");
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Should not cache missing users")
+    void shouldNotCacheMisses() {
+        when(userRepository.findById(2L)).thenReturn(Optional.empty());
+
+        assertThat(cache.findById(2L)).isEmpty();
+        assertThat(cache.findById(2L)).isEmpty();
+
+        verify(userRepository, times(2)).findById(2L);
+    }
+
+    @Test
+    @DisplayName("Should forget the old email when a user changes it")
+    void shouldEvictOldEmailOnInvalidate() {
+        when(userRepository.findByEmail("jean@client.ca"))
+                .thenReturn(Optional.of(user))
+                .thenReturn(Optional.empty());
+        cache.findByEmail("jean@client.ca");
+
+        User renamed = User.builder().id(1L).name("Jean Dupont").email("jd@client.ca").build();
+        when(userRepository.findById(1L)).thenReturn(Optional.of(renamed));
+        cache.invalidate(1L, "jean@client.ca", "jd@client.ca");
+
+        assertThat(cache.findByEmail("jean@client.ca")).isEmpty();
+        assertThat(cache.findById(1L)).map(CachedUser::email).contains("jd@client.ca");
+    }
+}
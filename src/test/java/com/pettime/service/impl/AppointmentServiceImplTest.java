@@ -1,7 +1,14 @@
 package com.pettime.service.impl;
 
 
+import com.pettime.config.PostgresSchemaInitializer;
+import com.pettime.config.SchedulingProperties;
+import com.pettime.dto.AppointmentBatchResultDto;
+import com.pettime.dto.AppointmentRequestDto;
+import com.pettime.exception.AppointmentConflictException;
+import com.pettime.exception.InvalidUserDataException;
 import com.pettime.exception.ResourceNotFoundException;
+import com.pettime.metrics.AppointmentMetrics;
 import com.pettime.model.Appointment;
 import com.pettime.model.AppointmentStatus;
 import com.pettime.model.Pet;
@@ -9,16 +16,28 @@ import com.pettime.model.User;
 import com.pettime.repository.AppointmentRepository;
 import com.pettime.repository.PetRepository;
 import com.pettime.repository.UserRepository;
+import com.pettime.repository.projection.AppointmentWindow;
+import com.pettime.service.cache.UserLookupCache;
+import com.pettime.service.scheduling.AppointmentIntervalIndex;
+import com.pettime.service.scheduling.BookingCoordinator;
+import com.pettime.service.scheduling.PendingExpiryScheduler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -35,6 +54,27 @@ class AppointmentServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private AppointmentIntervalIndex appointmentIntervalIndex;
+
+    @Mock
+    private PostgresSchemaInitializer postgresSchemaInitializer;
+
+    @Mock
+    private UserLookupCache userLookupCache;
+
+    @Mock
+    private PendingExpiryScheduler pendingExpiryScheduler;
+
+    @Spy
+    private BookingCoordinator bookingCoordinator = new BookingCoordinator(new SchedulingProperties());
+
+    @Spy
+    private AppointmentMetrics appointmentMetrics = new AppointmentMetrics(new SimpleMeterRegistry());
+
+    @Spy
+    private TransactionOperations transactionOperations = TransactionOperations.withoutTransaction();
+
     @InjectMocks
     private AppointmentServiceImpl appointmentService;
 
@@ -53,9 +93,10 @@ class AppointmentServiceImplTest {
         LocalDateTime end = start.plusHours(1);
 
         when(petRepository.findById(1L)).thenReturn(Optional.of(pet));
-        when(userRepository.findById(10L)).thenReturn(Optional.of(petshop));
-        when(appointmentRepository.findOverlappingAppointments(10L, start, end))
-                .thenReturn(List.of());
+        when(userRepository.findCapacityById(10L)).thenReturn(Optional.of(1));
+        when(userRepository.getReferenceById(10L)).thenReturn(petshop);
+        when(appointmentRepository.existsOverlappingAppointment(10L, start, end))
+                .thenReturn(false);
         when(appointmentRepository.save(any(Appointment.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
 
@@ -66,13 +107,35 @@ class AppointmentServiceImplTest {
         assertFalse(result.getPaid());
 
         verify(petRepository).findById(1L);
-        verify(userRepository).findById(10L);
+        verify(userRepository).findCapacityById(10L);
         verify(appointmentRepository)
-                .findOverlappingAppointments(10L, start, end);
+                .existsOverlappingAppointment(10L, start, end);
         verify(appointmentRepository).save(any(Appointment.class));
+        verify(appointmentIntervalIndex).register(result);
+        verify(pendingExpiryScheduler).track(result);
 
     }
 
+    @Test
+    void shouldRejectIndexHitWithoutQueryingTheDatabase() {
+        LocalDateTime start = LocalDateTime.now().plusHours(1);
+        LocalDateTime end = start.plusHours(1);
+
+        when(petRepository.findById(1L)).thenReturn(Optional.of(pet));
+        when(userRepository.findCapacityById(10L)).thenReturn(Optional.of(1));
+        when(userRepository.getReferenceById(10L)).thenReturn(petshop);
+        when(appointmentIntervalIndex.hasConflict(10L, start, end)).thenReturn(true);
+
+        assertThrows(
+                AppointmentConflictException.class,
+                () -> appointmentService.create(1L, 10L, start, end)
+        );
+
+        verify(bookingCoordinator).withPetshopLock(eq(10L), ArgumentMatchers.<Supplier<Appointment>>any());
+        verify(appointmentRepository, never()).existsOverlappingAppointment(any(), any(), any());
+        verify(appointmentRepository, never()).save(any(Appointment.class));
+    }
+
     @Test
     void shouldThrowWhenPetNotFound() {
         LocalDateTime start = LocalDateTime.now().plusHours(1);
@@ -96,7 +159,7 @@ class AppointmentServiceImplTest {
         LocalDateTime end = start.plusHours(1);
 
         when(petRepository.findById(1L)).thenReturn(Optional.of(pet));
-        when(userRepository.findById(10L)).thenReturn(Optional.empty());
+        when(userRepository.findCapacityById(10L)).thenReturn(Optional.empty());
 
         assertThrows(
                 ResourceNotFoundException.class,
@@ -104,8 +167,278 @@ class AppointmentServiceImplTest {
         );
 
         verify(petRepository).findById(1L);
-        verify(userRepository).findById(10L);
-        verifyNoInteractions(appointmentRepository);
+        verify(userRepository).findCapacityById(10L);
+        verifyNoInteractions(appointmentRepository, pendingExpiryScheduler);
+    }
+
+    @Test
+    void shouldSkipPreCheckAndTranslateViolationWhenExclusionConstraintIsActive() {
+        LocalDateTime start = LocalDateTime.now().plusHours(1);
+        LocalDateTime end = start.plusHours(1);
+
+        when(petRepository.findById(1L)).thenReturn(Optional.of(pet));
+        when(userRepository.findCapacityById(10L)).thenReturn(Optional.of(1));
+        when(userRepository.getReferenceById(10L)).thenReturn(petshop);
+        when(postgresSchemaInitializer.isExclusionConstraintActive()).thenReturn(true);
+        when(appointmentRepository.saveAndFlush(any(Appointment.class)))
+                .thenThrow(new DataIntegrityViolationException(
+                        "conflicting key value violates exclusion constraint \"appointments_no_exclusive_overlap\""));
+
+        assertThrows(
+                AppointmentConflictException.class,
+                () -> appointmentService.create(1L, 10L, start, end)
+        );
+
+        verify(appointmentRepository, never()).existsOverlappingAppointment(any(), any(), any());
+        verify(appointmentIntervalIndex, never()).hasConflict(any(), any(), any());
+        verify(appointmentIntervalIndex, never()).register(any());
+    }
+
+    @Test
+    void shouldRejectSharedOverlapWhenExclusionConstraintIsActive() {
+        LocalDateTime start = LocalDateTime.now().plusHours(1);
+        LocalDateTime end = start.plusHours(1);
+
+        // Capacity was lowered to one: the constraint does not cover the shared rows booked before
+        when(petRepository.findById(1L)).thenReturn(Optional.of(pet));
+        when(userRepository.findCapacityById(10L)).thenReturn(Optional.of(1));
+        when(userRepository.getReferenceById(10L)).thenReturn(petshop);
+        when(postgresSchemaInitializer.isExclusionConstraintActive()).thenReturn(true);
+        when(appointmentRepository.existsOverlappingSharedAppointment(10L, start, end)).thenReturn(true);
+
+        assertThrows(
+                AppointmentConflictException.class,
+                () -> appointmentService.create(1L, 10L, start, end)
+        );
+
+        verify(appointmentRepository, never()).saveAndFlush(any(Appointment.class));
+    }
+
+    @Test
+    void shouldReadCapacityInsideTheBookingTransaction() {
+        LocalDateTime start = LocalDateTime.now().plusHours(1);
+        LocalDateTime end = start.plusHours(1);
+
+        when(petRepository.findById(1L)).thenReturn(Optional.of(pet));
+        when(userRepository.findCapacityById(10L)).thenReturn(Optional.of(1));
+        when(userRepository.getReferenceById(10L)).thenReturn(petshop);
+        when(appointmentRepository.save(any(Appointment.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        appointmentService.create(1L, 10L, start, end);
+
+        InOrder inOrder = inOrder(transactionOperations, userRepository, appointmentRepository, appointmentIntervalIndex);
+        inOrder.verify(transactionOperations).execute(any());
+        inOrder.verify(userRepository).findCapacityById(10L);
+        inOrder.verify(appointmentRepository).save(any(Appointment.class));
+        inOrder.verify(appointmentIntervalIndex).register(any(Appointment.class));
+        verifyNoInteractions(userLookupCache);
+    }
+
+    @Test
+    void shouldReportPerSlotOutcomesForBatch() {
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+
+        List<AppointmentRequestDto> slots = List.of(
+                new AppointmentRequestDto(1L, 10L, base, base.plusHours(1)),
+                new AppointmentRequestDto(1L, 10L, base.plusMinutes(30), base.plusMinutes(90)),
+                new AppointmentRequestDto(1L, 10L, base.plusHours(2), base.plusHours(3)),
+                new AppointmentRequestDto(99L, 10L, base.plusHours(4), base.plusHours(5)),
+                new AppointmentRequestDto(1L, 10L, base.plusHours(6), base.plusHours(5))
+        );
+
+        when(petRepository.findAllById(any())).thenReturn(List.of(pet));
+        when(userRepository.findAllById(any())).thenReturn(List.of(petshop));
+        when(userRepository.findCapacityById(10L)).thenReturn(Optional.of(1));
+        when(appointmentRepository.findOverlappingWindows(eq(10L), any(), any()))
+                .thenReturn(List.of(new AppointmentWindow(500L, base.plusHours(2).plusMinutes(30), base.plusHours(4))));
+        when(appointmentRepository.saveAll(ArgumentMatchers.<Appointment>anyList()))
+                .thenAnswer(invocation -> {
+                    List<Appointment> appointments = invocation.getArgument(0);
+                    appointments.forEach(appointment -> appointment.setId(100L));
+                    return appointments;
+                });
+
+        List<AppointmentBatchResultDto> results = appointmentService.createBatch(slots);
+
+        assertEquals(
+                List.of(
+                        AppointmentBatchResultDto.CREATED,
+                        AppointmentBatchResultDto.CONFLICT,
+                        AppointmentBatchResultDto.CONFLICT,
+                        AppointmentBatchResultDto.NOT_FOUND,
+                        AppointmentBatchResultDto.INVALID
+                ),
+                results.stream().map(AppointmentBatchResultDto::getStatus).toList()
+        );
+        assertEquals(100L, results.get(0).getAppointmentId());
+
+        verify(petRepository).findAllById(any());
+        verify(userRepository).findAllById(any());
+        verify(appointmentRepository).findOverlappingWindows(eq(10L), any(), any());
+        verify(appointmentRepository).saveAll(ArgumentMatchers.<Appointment>anyList());
+        verify(appointmentIntervalIndex, times(1)).register(any(Appointment.class));
     }
 
+    @Test
+    void shouldAcceptOverlappingBatchSlotsWithinCapacity() {
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+
+        List<AppointmentRequestDto> slots = List.of(
+                new AppointmentRequestDto(1L, 10L, base, base.plusHours(1)),
+                new AppointmentRequestDto(1L, 10L, base.plusMinutes(30), base.plusMinutes(90)),
+                new AppointmentRequestDto(1L, 10L, base.plusMinutes(45), base.plusHours(2))
+        );
+
+        when(petRepository.findAllById(any())).thenReturn(List.of(pet));
+        when(userRepository.findAllById(any())).thenReturn(List.of(petshop));
+        when(userRepository.findCapacityById(10L)).thenReturn(Optional.of(2));
+        when(appointmentRepository.findOverlappingWindows(eq(10L), any(), any())).thenReturn(List.of());
+        when(appointmentRepository.saveAll(ArgumentMatchers.<Appointment>anyList()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<AppointmentBatchResultDto> results = appointmentService.createBatch(slots);
+
+        assertEquals(
+                List.of(
+                        AppointmentBatchResultDto.CREATED,
+                        AppointmentBatchResultDto.CREATED,
+                        AppointmentBatchResultDto.CONFLICT
+                ),
+                results.stream().map(AppointmentBatchResultDto::getStatus).toList()
+        );
+        verify(appointmentRepository).saveAll(argThat((List<Appointment> saved) ->
+                saved.size() == 2 && saved.stream().noneMatch(Appointment::getExclusive)));
+    }
+
+    @Test
+    void shouldCancelAndReleaseSlot() {
+        LocalDateTime start = LocalDateTime.now().plusHours(1);
+        Appointment cancelled = Appointment.builder()
+                .id(5L)
+                .pet(pet)
+                .petshop(petshop)
+                .startTime(start)
+                .endTime(start.plusHours(1))
+                .status(AppointmentStatus.CANCELLED)
+                .paid(true)
+                .build();
+
+        when(appointmentRepository.cancelActive(eq(5L), any())).thenReturn(1);
+        when(appointmentRepository.findById(5L)).thenReturn(Optional.of(cancelled));
+
+        Appointment result = appointmentService.cancel(5L);
+
+        assertEquals(AppointmentStatus.CANCELLED, result.getStatus());
+        assertTrue(result.getPaid());
+        verify(appointmentRepository, never()).save(any(Appointment.class));
+        verify(appointmentIntervalIndex).release(cancelled);
+        verify(pendingExpiryScheduler).untrack(5L);
+    }
+
+    @Test
+    void shouldLeaveCancelledAppointmentUntouched() {
+        Appointment cancelled = Appointment.builder()
+                .id(6L)
+                .petshop(petshop)
+                .status(AppointmentStatus.CANCELLED)
+                .build();
+
+        when(appointmentRepository.cancelActive(eq(6L), any())).thenReturn(0);
+        when(appointmentRepository.findById(6L)).thenReturn(Optional.of(cancelled));
+
+        assertSame(cancelled, appointmentService.cancel(6L));
+
+        verify(appointmentRepository, never()).save(any(Appointment.class));
+        verifyNoInteractions(appointmentIntervalIndex);
+    }
+
+    @Test
+    void shouldRefuseToCancelAppointmentCompletedConcurrently() {
+        Appointment completed = Appointment.builder()
+                .id(7L)
+                .petshop(petshop)
+                .status(AppointmentStatus.COMPLETED)
+                .build();
+
+        when(appointmentRepository.cancelActive(eq(7L), any())).thenReturn(0);
+        when(appointmentRepository.findById(7L)).thenReturn(Optional.of(completed));
+
+        assertThrows(InvalidUserDataException.class, () -> appointmentService.cancel(7L));
+
+        verifyNoInteractions(appointmentIntervalIndex);
+    }
+
+    @Test
+    void shouldBookOverlapWhilePetshopHasCapacityLeft() {
+        LocalDateTime start = LocalDateTime.now().plusHours(1);
+        LocalDateTime end = start.plusHours(1);
+
+        when(petRepository.findById(1L)).thenReturn(Optional.of(pet));
+        when(userRepository.findCapacityById(10L)).thenReturn(Optional.of(2));
+        when(userRepository.getReferenceById(10L)).thenReturn(petshop);
+        when(appointmentRepository.findOverlappingWindows(10L, start, end))
+                .thenReturn(List.of(new AppointmentWindow(7L, start.minusMinutes(30), start.plusMinutes(30))));
+        when(appointmentRepository.save(any(Appointment.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        Appointment result = appointmentService.create(1L, 10L, start, end);
+
+        assertFalse(result.getExclusive());
+        verify(appointmentRepository, never()).existsOverlappingAppointment(anyLong(), any(), any());
+        verify(appointmentIntervalIndex, never()).hasConflict(any(), any(), any());
+    }
+
+    @Test
+    void shouldRejectWhenPetshopCapacityIsReached() {
+        LocalDateTime start = LocalDateTime.now().plusHours(1);
+        LocalDateTime end = start.plusHours(1);
+
+        when(petRepository.findById(1L)).thenReturn(Optional.of(pet));
+        when(userRepository.findCapacityById(10L)).thenReturn(Optional.of(2));
+        when(userRepository.getReferenceById(10L)).thenReturn(petshop);
+        when(appointmentRepository.findOverlappingWindows(10L, start, end))
+                .thenReturn(List.of(
+                        new AppointmentWindow(7L, start, end),
+                        new AppointmentWindow(8L, start.plusMinutes(15), end)
+                ));
+
+        assertThrows(
+                AppointmentConflictException.class,
+                () -> appointmentService.create(1L, 10L, start, end)
+        );
+
+        verify(appointmentRepository, never()).save(any(Appointment.class));
+    }
+
+    @Test
+    void shouldConfirmPaymentAndStopExpiryTimer() {
+        Appointment confirmed = Appointment.builder()
+                .id(9L)
+                .petshop(petshop)
+                .status(AppointmentStatus.CONFIRMED)
+                .paid(true)
+                .build();
+
+        when(appointmentRepository.confirmPending(eq(9L), any())).thenReturn(1);
+        when(appointmentRepository.findById(9L)).thenReturn(Optional.of(confirmed));
+
+        assertSame(confirmed, appointmentService.confirmPayment(9L));
+        verify(pendingExpiryScheduler).untrack(9L);
+    }
+
+    @Test
+    void shouldRejectPaymentForExpiredAppointment() {
+        Appointment expired = Appointment.builder()
+                .id(9L)
+                .petshop(petshop)
+                .status(AppointmentStatus.CANCELLED)
+                .paid(false)
+                .build();
+
+        when(appointmentRepository.confirmPending(eq(9L), any())).thenReturn(0);
+        when(appointmentRepository.findById(9L)).thenReturn(Optional.of(expired));
+
+        assertThrows(InvalidUserDataException.class, () -> appointmentService.confirmPayment(9L));
+    }
 }
@@ -0,0 +1,156 @@
+package com.pettime.service.impl;
+
+import com.pettime.dto.LoginRequestDto;
+import com.pettime.dto.RefreshTokenRequestDto;
+import com.pettime.dto.TokenResponseDto;
+import com.pettime.exception.InvalidCredentialsException;
+import com.pettime.exception.LoginThrottledException;
+import com.pettime.model.User;
+import com.pettime.model.UserRole;
+import com.pettime.repository.UserRepository;
+import com.pettime.security.LoginThrottle;
+import com.pettime.security.PasswordHashingService;
+import com.pettime.security.TokenService;
+import com.pettime.service.cache.CachedUser;
+import com.pettime.service.cache.UserLookupCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserLookupCache userLookupCache;
+
+    @Mock
+    private PasswordHashingService passwordHashingService;
+
+    @Mock
+    private TokenService tokenService;
+
+    @Mock
+    private LoginThrottle loginThrottle;
+
+    private AuthServiceImpl authService;
+    private User user;
+    private final TokenResponseDto tokens = TokenResponseDto.bearer("access", "refresh", 900);
+
+    @BeforeEach
+    void setUp() {
+        when(passwordHashingService.hash(anyString())).thenReturn("$2a$10$unknown");
+        authService = new AuthServiceImpl(userRepository, userLookupCache, passwordHashingService, tokenService, loginThrottle);
+
+        user = User.builder()
+                .id(1L)
+                .name("Jean Dupont")
+                .email("jean@client.ca")
+                .password("$2a$10$hash")
+                .role(UserRole.CLIENT)
+                .build();
+    }
+
+    @Test
+    void shouldIssueTokensWhenPasswordMatches() {
+        when(userRepository.findByEmail("jean@client.ca")).thenReturn(Optional.of(user));
+        when(passwordHashingService.matches("secret", "$2a$10$hash")).thenReturn(true);
+        when(tokenService.issue(CachedUser.of(user))).thenReturn(tokens);
+
+        TokenResponseDto result = authService.login(new LoginRequestDto("jean@client.ca", "secret"), "10.0.0.1");
+
+        assertSame(tokens, result);
+    }
+
+    @Test
+    void shouldThrottleAndLookUpTheNormalizedEmail() {
+        when(userRepository.findByEmail("jean@client.ca")).thenReturn(Optional.of(user));
+        when(passwordHashingService.matches("secret", "$2a$10$hash")).thenReturn(true);
+        when(tokenService.issue(CachedUser.of(user))).thenReturn(tokens);
+
+        authService.login(new LoginRequestDto("Jean@Client.CA", "secret"), "10.0.0.1");
+
+        verify(loginThrottle).acquire("10.0.0.1", "jean@client.ca");
+    }
+
+    @Test
+    void shouldRejectWrongPassword() {
+        when(userRepository.findByEmail("jean@client.ca")).thenReturn(Optional.of(user));
+        when(passwordHashingService.matches("wrong", "$2a$10$hash")).thenReturn(false);
+
+        assertThrows(
+                InvalidCredentialsException.class,
+                () -> authService.login(new LoginRequestDto("jean@client.ca", "wrong"), "10.0.0.1")
+        );
+        verify(tokenService, never()).issue(any());
+    }
+
+    @Test
+    void shouldSpendOneHashCheckOnUnknownEmail() {
+        when(userRepository.findByEmail("ghost@client.ca")).thenReturn(Optional.empty());
+
+        assertThrows(
+                InvalidCredentialsException.class,
+                () -> authService.login(new LoginRequestDto("ghost@client.ca", "secret"), "10.0.0.1")
+        );
+        verify(passwordHashingService).matches(eq("secret"), eq("$2a$10$unknown"));
+    }
+
+    @Test
+    void shouldRefreshForExistingUser() {
+        when(tokenService.verifyRefreshToken("refresh")).thenReturn(1L);
+        when(userLookupCache.findById(1L)).thenReturn(Optional.of(CachedUser.of(user)));
+        when(tokenService.issue(CachedUser.of(user))).thenReturn(tokens);
+
+        assertSame(tokens, authService.refresh(new RefreshTokenRequestDto("refresh")));
+    }
+
+    @Test
+    void shouldRejectRefreshForDeletedUser() {
+        when(tokenService.verifyRefreshToken("refresh")).thenReturn(1L);
+        when(userLookupCache.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(
+                InvalidCredentialsException.class,
+                () -> authService.refresh(new RefreshTokenRequestDto("refresh"))
+        );
+    }
+
+    @Test
+    void shouldRehashWhenStoredCostDiffers() {
+        when(userRepository.findByEmail("jean@client.ca")).thenReturn(Optional.of(user));
+        when(passwordHashingService.matches("secret", "$2a$10$hash")).thenReturn(true);
+        when(passwordHashingService.needsRehash("$2a$10$hash")).thenReturn(true);
+        when(passwordHashingService.hash("secret")).thenReturn("$2a$12$rehashed");
+        when(tokenService.issue(any())).thenReturn(tokens);
+
+        authService.login(new LoginRequestDto("jean@client.ca", "secret"), "10.0.0.1");
+
+        assertEquals("$2a$12$rehashed", user.getPassword());
+        verify(userRepository).save(user);
+    }
+
+    @Test
+    void shouldRejectThrottledAttemptBeforeHashing() {
+        doThrow(new LoginThrottledException()).when(loginThrottle).acquire("10.0.0.1", "jean@client.ca");
+
+        assertThrows(
+                LoginThrottledException.class,
+                () -> authService.login(new LoginRequestDto("jean@client.ca", "secret"), "10.0.0.1")
+        );
+        verifyNoInteractions(userRepository);
+        verify(passwordHashingService, never()).matches(any(), any());
+    }
+}
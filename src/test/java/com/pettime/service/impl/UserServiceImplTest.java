@@ -0,0 +1,172 @@
+package com.pettime.service.impl;
+
+import com.pettime.dto.UserRequestDto;
+import com.pettime.dto.UserResponseDto;
+import com.pettime.exception.EmailAlreadyExistsException;
+import com.pettime.model.User;
+import com.pettime.model.UserRole;
+import com.pettime.repository.UserRepository;
+import com.pettime.security.PasswordHashingService;
+import com.pettime.service.cache.CachedUser;
+import com.pettime.service.cache.UserLookupCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for UserServiceImpl.
+ * (FR) Tests unitaires pour UserServiceImpl.
+ */
+@ExtendWith(MockitoExtension.class)
+class UserServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PasswordHashingService passwordHashingService;
+
+    @Mock
+    private UserLookupCache userLookupCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private UserServiceImpl userService;
+
+    private UserRequestDto request(String email) {
+        return UserRequestDto.builder()
+                .name("Alice")
+                .email(email)
+                .password("secret")
+                .build();
+    }
+
+    private static CachedUser cached(Long id, String email) {
+        return new CachedUser(id, "Alice", email, UserRole.CLIENT);
+    }
+
+    private static DataIntegrityViolationException violationOf(String constraint) {
+        return new DataIntegrityViolationException("could not execute statement; constraint [" + constraint + "]");
+    }
+
+    @Test
+    @DisplayName("✅ Should create a user with a single insert and no email lookup")
+    void shouldCreateWithSingleInsert() {
+        when(passwordHashingService.hash("secret")).thenReturn("hash");
+        when(userRepository.saveAndFlush(any(User.class))).thenAnswer(invocation -> {
+            User user = invocation.getArgument(0);
+            user.setId(1L);
+            return user;
+        });
+
+        UserResponseDto created = userService.createUser(request("alice@pettime.ca"));
+
+        assertThat(created.getId()).isEqualTo(1L);
+        verify(userRepository).saveAndFlush(any(User.class));
+        verify(userRepository, never()).existsByEmail(anyString());
+        verify(userLookupCache).invalidate(1L, "alice@pettime.ca");
+    }
+
+    @Test
+    @DisplayName("🔐 Should hash the password before opening the transaction")
+    void shouldHashOutsideTransaction() {
+        when(passwordHashingService.hash("secret")).thenReturn("hash");
+        when(userRepository.saveAndFlush(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(User.builder().id(1L).email("alice@pettime.ca").build()));
+        when(userLookupCache.findById(1L)).thenReturn(Optional.of(cached(1L, "alice@pettime.ca")));
+
+        userService.createUser(request("alice@pettime.ca"));
+        userService.updateUser(1L, request("alice@pettime.ca"));
+
+        InOrder inOrder = inOrder(passwordHashingService, transactionManager);
+        for (int call = 0; call < 2; call++) {
+            inOrder.verify(passwordHashingService).hash("secret");
+            inOrder.verify(transactionManager).getTransaction(any());
+            inOrder.verify(transactionManager).commit(any());
+        }
+    }
+
+    @Test
+    @DisplayName("🔠 Should store the email in lower case")
+    void shouldNormalizeEmailOnCreate() {
+        when(passwordHashingService.hash("secret")).thenReturn("hash");
+        when(userRepository.saveAndFlush(any(User.class))).thenAnswer(invocation -> {
+            User user = invocation.getArgument(0);
+            user.setId(1L);
+            return user;
+        });
+
+        UserResponseDto created = userService.createUser(request("Alice@PetTime.ca"));
+
+        assertThat(created.getEmail()).isEqualTo("alice@pettime.ca");
+        verify(userLookupCache).invalidate(1L, "alice@pettime.ca");
+    }
+
+    @Test
+    @DisplayName("🛑 Should translate the unique email violation into EmailAlreadyExistsException")
+    void shouldTranslateEmailViolationOnCreate() {
+        when(passwordHashingService.hash("secret")).thenReturn("hash");
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(violationOf(User.EMAIL_CONSTRAINT));
+
+        assertThatThrownBy(() -> userService.createUser(request("taken@pettime.ca")))
+                .isInstanceOf(EmailAlreadyExistsException.class)
+                .hasMessageContaining("taken@pettime.ca");
+        verifyNoInteractions(userLookupCache);
+    }
+
+    @Test
+    @DisplayName("🔁 Should rethrow violations of other constraints unchanged")
+    void shouldRethrowOtherViolations() {
+        when(passwordHashingService.hash("secret")).thenReturn("hash");
+        DataIntegrityViolationException other = violationOf("fk_something_else");
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(other);
+
+        assertThatThrownBy(() -> userService.createUser(request("alice@pettime.ca"))).isSameAs(other);
+    }
+
+    @Test
+    @DisplayName("✏️ Should reject an email change onto another user's email")
+    void shouldTranslateEmailViolationOnUpdate() {
+        User existing = User.builder()
+                .id(5L)
+                .name("Bob")
+                .email("bob@pettime.ca")
+                .password("hash")
+                .role(UserRole.CLIENT)
+                .build();
+        when(userRepository.findById(5L)).thenReturn(Optional.of(existing));
+        when(userLookupCache.findById(5L)).thenReturn(Optional.of(cached(5L, "bob@pettime.ca")));
+        when(passwordHashingService.hash("secret")).thenReturn("hash");
+        when(userRepository.saveAndFlush(existing)).thenThrow(violationOf("ux_users_email_lower"));
+
+        assertThatThrownBy(() -> userService.updateUser(5L, request("Alice@pettime.ca")))
+                .isInstanceOf(EmailAlreadyExistsException.class);
+        verify(userLookupCache, never()).findByEmail(anyString());
+    }
+
+    @Test
+    @DisplayName("🔍 Should not hash the password when the user to update does not exist")
+    void shouldSkipHashingForUnknownUser() {
+        when(userLookupCache.findById(9L)).thenReturn(Optional.empty());
+
+        assertThat(userService.updateUser(9L, request("alice@pettime.ca"))).isEmpty();
+        verifyNoInteractions(passwordHashingService, transactionManager);
+        verify(userRepository, never()).findById(9L);
+    }
+}
@@ -0,0 +1,95 @@
+package com.pettime.service.payment;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pettime.config.PaymentWebhookProperties;
+import com.pettime.exception.PaymentConfirmationFailedException;
+import com.pettime.security.WebhookSignatureVerifier;
+import com.pettime.service.scheduling.PendingExpiryScheduler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 🧪 Payment confirmations: a delivery is answered only once its batch is committed.
+ * (FR) Confirmations de paiement : un appel n'est acquitté qu'une fois son lot validé.
+
+ * The UPDATE is mocked so a batch can fail on demand; every attempt of the
+ * first delivery fails, the redelivery goes through.
+ */
+@ExtendWith(MockitoExtension.class)
+class PaymentConfirmationBatcherTest {
+
+    private static final String SECRET = "whsec_test_only";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PendingExpiryScheduler pendingExpiryScheduler;
+
+    private final StripeWebhookStub stripe = new StripeWebhookStub(SECRET);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private PaymentConfirmationBatcher batcher;
+    private PaymentWebhookService webhookService;
+
+    @BeforeEach
+    void setUp() {
+        PaymentWebhookProperties properties = new PaymentWebhookProperties();
+        properties.setSecret(SECRET);
+        properties.setFlushInterval(Duration.ofMillis(1));
+        properties.setMaxAttempts(2);
+        properties.setRetryDelay(Duration.ofMillis(1));
+
+        WebhookIdempotencyStore idempotencyStore = new WebhookIdempotencyStore(properties, meterRegistry);
+        batcher = new PaymentConfirmationBatcher(jdbcTemplate, pendingExpiryScheduler, idempotencyStore, properties, meterRegistry);
+        batcher.afterPropertiesSet();
+        webhookService = new PaymentWebhookService(
+                new WebhookSignatureVerifier(properties), idempotencyStore, batcher, new ObjectMapper(), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        batcher.destroy();
+    }
+
+    @Test
+    @DisplayName("🔁 Should fail the delivery when the batch UPDATE fails, so Stripe redelivers it")
+    void shouldFailDeliveryWhenBatchUpdateFails() {
+        when(jdbcTemplate.update(anyString(), any(Object[].class)))
+                .thenThrow(new QueryTimeoutException("database unavailable"))
+                .thenThrow(new QueryTimeoutException("database unavailable"))
+                .thenReturn(1);
+        StripeWebhookStub.Delivery delivery = stripe.paymentSucceeded("evt_failed", 42L);
+
+        // 1️⃣ Every attempt fails: the delivery is not acknowledged, but the payment window is stopped
+        assertThatThrownBy(() -> stripe.send(webhookService, delivery))
+                .isInstanceOf(PaymentConfirmationFailedException.class)
+                .hasCauseInstanceOf(QueryTimeoutException.class);
+        verify(pendingExpiryScheduler).untrack(42L);
+        assertThat(meterRegistry.get("payment.confirmation.failed").counter().count()).isEqualTo(1);
+
+        // 2️⃣ The redelivery is processed again instead of being dropped as a duplicate
+        assertThat(stripe.send(webhookService, delivery)).isEqualTo(PaymentWebhookService.Outcome.ACCEPTED);
+        verify(jdbcTemplate, times(3)).update(anyString(), any(Object[].class));
+        assertThat(meterRegistry.get("payment.confirmation.confirmed").counter().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,221 @@
+package com.pettime.service.payment;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pettime.config.PaymentWebhookProperties;
+import com.pettime.config.SchedulingProperties;
+import com.pettime.exception.InvalidWebhookException;
+import com.pettime.model.Appointment;
+import com.pettime.model.AppointmentStatus;
+import com.pettime.model.Pet;
+import com.pettime.model.User;
+import com.pettime.model.UserRole;
+import com.pettime.repository.AppointmentRepository;
+import com.pettime.repository.PetRepository;
+import com.pettime.repository.UserRepository;
+import com.pettime.security.WebhookSignatureVerifier;
+import com.pettime.service.scheduling.AppointmentIntervalIndex;
+import com.pettime.service.scheduling.PendingExpiryScheduler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 🧪 Payment webhook: signed Stripe events confirm appointments through the batcher.
+ * (FR) Webhook de paiement : les événements Stripe signés confirment les rendez-vous par lots.
+
+ * A local stub signs deliveries like Stripe. Runs without a test transaction
+ * because the batcher writes from its own thread.
+ */
+@DataJpaTest(properties = {
+        "app.stripe.webhook.secret=" + PaymentWebhookServiceTest.SECRET,
+        "app.stripe.webhook.flush-interval=20ms",
+        "app.scheduling.pending-expiry.enabled=false"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({
+        PaymentWebhookService.class,
+        PaymentConfirmationBatcher.class,
+        WebhookIdempotencyStore.class,
+        WebhookSignatureVerifier.class,
+        PaymentWebhookProperties.class,
+        PendingExpiryScheduler.class,
+        AppointmentIntervalIndex.class,
+        SchedulingProperties.class,
+        SimpleMeterRegistry.class,
+        ObjectMapper.class
+})
+class PaymentWebhookServiceTest {
+
+    static final String SECRET = "whsec_test_only";
+
+    private final StripeWebhookStub stripe = new StripeWebhookStub(SECRET);
+
+    @Autowired
+    private PaymentWebhookService webhookService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PetRepository petRepository;
+
+    private User petshop;
+    private Pet pet;
+
+    @BeforeEach
+    void setUp() {
+        petshop = userRepository.save(User.builder()
+                .name("PetShop Québec").email("shop@pettime.ca").password("123").role(UserRole.PETSHOP).build());
+        User client = userRepository.save(User.builder()
+                .name("Jean Dupont").email("jean@client.ca").password("123").role(UserRole.CLIENT).build());
+        pet = petRepository.save(Pet.builder().name("Rex").species("Dog").owner(client).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        appointmentRepository.deleteAll();
+        petRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private List<Appointment> saveAll(int count, AppointmentStatus status) {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        List<Appointment> appointments = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            appointments.add(Appointment.builder()
+                    .pet(pet)
+                    .petshop(petshop)
+                    .startTime(start.plusHours(i))
+                    .endTime(start.plusHours(i).plusMinutes(30))
+                    .status(status)
+                    .paid(false)
+                    .build());
+        }
+        return appointmentRepository.saveAll(appointments);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition reached in time").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+
+    @Test
+    @DisplayName("✅ Should confirm a burst of paid appointments in a few batched UPDATEs and ignore redeliveries")
+    void shouldConfirmBurstInBatches() throws Exception {
+        List<Appointment> appointments = saveAll(300, AppointmentStatus.PENDING);
+        double batchesBefore = meterRegistry.get("payment.confirmation.batch").timer().count();
+
+        // Every event is delivered twice, concurrently and out of order
+        List<StripeWebhookStub.Delivery> deliveries = new ArrayList<>();
+        for (Appointment appointment : appointments) {
+            StripeWebhookStub.Delivery delivery = stripe.paymentSucceeded("evt_" + appointment.getId(), appointment.getId());
+            deliveries.add(delivery);
+            deliveries.add(delivery);
+        }
+        Collections.shuffle(deliveries);
+
+        ExecutorService senders = Executors.newFixedThreadPool(8);
+        List<Future<PaymentWebhookService.Outcome>> outcomes = new ArrayList<>();
+        try {
+            for (StripeWebhookStub.Delivery delivery : deliveries) {
+                outcomes.add(senders.submit(() -> stripe.send(webhookService, delivery)));
+            }
+
+            int accepted = 0;
+            int duplicates = 0;
+            for (Future<PaymentWebhookService.Outcome> outcome : outcomes) {
+                switch (outcome.get()) {
+                    case ACCEPTED -> accepted++;
+                    case DUPLICATE -> duplicates++;
+                    default -> throw new AssertionError("Unexpected outcome");
+                }
+            }
+            assertThat(accepted).isEqualTo(300);
+            assertThat(duplicates).isEqualTo(300);
+        } finally {
+            senders.shutdownNow();
+        }
+
+        List<Long> ids = appointments.stream().map(Appointment::getId).toList();
+        await(() -> appointmentRepository.findAllById(ids).stream()
+                .allMatch(appointment -> appointment.getStatus() == AppointmentStatus.CONFIRMED));
+
+        assertThat(appointmentRepository.findAllById(ids)).extracting(Appointment::getPaid).containsOnly(true);
+        assertThat(meterRegistry.get("payment.confirmation.batch").timer().count() - batchesBefore)
+                .isLessThan(300);
+    }
+
+    @Test
+    @DisplayName("❌ Should reject deliveries that are not signed with the endpoint secret")
+    void shouldRejectUnsignedDeliveries() {
+        Appointment appointment = saveAll(1, AppointmentStatus.PENDING).get(0);
+        StripeWebhookStub.Delivery forged = new StripeWebhookStub("whsec_other")
+                .paymentSucceeded("evt_forged", appointment.getId());
+        StripeWebhookStub.Delivery genuine = stripe.paymentSucceeded("evt_genuine", appointment.getId());
+
+        assertThatThrownBy(() -> stripe.send(webhookService, forged))
+                .isInstanceOf(InvalidWebhookException.class);
+        assertThatThrownBy(() -> webhookService.receive(genuine.payload().replace("evt_genuine", "evt_other"), genuine.signature()))
+                .isInstanceOf(InvalidWebhookException.class);
+        assertThat(stripe.send(webhookService, genuine))
+                .isEqualTo(PaymentWebhookService.Outcome.ACCEPTED);
+    }
+
+    @Test
+    @DisplayName("⚠️ Should ignore unpaid events and leave cancelled appointments cancelled")
+    void shouldIgnoreUnpaidEventsAndCancelledAppointments() throws Exception {
+        Appointment unpaid = saveAll(1, AppointmentStatus.PENDING).get(0);
+        Appointment cancelled = appointmentRepository.save(Appointment.builder()
+                .pet(pet)
+                .petshop(petshop)
+                .startTime(unpaid.getStartTime().plusDays(1))
+                .endTime(unpaid.getEndTime().plusDays(1))
+                .status(AppointmentStatus.CANCELLED)
+                .paid(false)
+                .build());
+        double unmatchedBefore = meterRegistry.get("payment.confirmation.unmatched").counter().count();
+
+        assertThat(stripe.send(webhookService, stripe.checkoutCompleted("evt_unpaid", unpaid.getId(), "unpaid")))
+                .isEqualTo(PaymentWebhookService.Outcome.IGNORED);
+        assertThat(stripe.send(webhookService, stripe.event("evt_refund", "charge.refunded")))
+                .isEqualTo(PaymentWebhookService.Outcome.IGNORED);
+        assertThat(stripe.send(webhookService, stripe.paymentSucceeded("evt_late", cancelled.getId())))
+                .isEqualTo(PaymentWebhookService.Outcome.ACCEPTED);
+
+        await(() -> meterRegistry.get("payment.confirmation.unmatched").counter().count() > unmatchedBefore);
+
+        assertThat(appointmentRepository.findById(cancelled.getId())).get()
+                .extracting(Appointment::getStatus).isEqualTo(AppointmentStatus.CANCELLED);
+        assertThat(appointmentRepository.findById(unpaid.getId())).get()
+                .extracting(Appointment::getStatus).isEqualTo(AppointmentStatus.PENDING);
+    }
+}
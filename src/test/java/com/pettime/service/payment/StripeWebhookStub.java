@@ -0,0 +1,79 @@
+package com.pettime.service.payment;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.CompletionException;
+
+/**
+ * 🧪 Local stand-in for Stripe: builds payment events and signs them like the real sender.
+ * (FR) Remplaçant local de Stripe : construit des événements de paiement signés comme l'original.
+ */
+public final class StripeWebhookStub {
+
+    /**
+     * One webhook call: the raw body and its {@code Stripe-Signature} header.
+     */
+    public record Delivery(String payload, String signature) {
+    }
+
+    private final String secret;
+
+    public StripeWebhookStub(String secret) {
+        this.secret = secret;
+    }
+
+    public Delivery paymentSucceeded(String eventId, long appointmentId) {
+        return sign(event(eventId, "payment_intent.succeeded", """
+                {"id":"pi_%s","object":"payment_intent","status":"succeeded","metadata":{"appointmentId":"%d"}}"""
+                .formatted(eventId, appointmentId)), Instant.now());
+    }
+
+    public Delivery checkoutCompleted(String eventId, long appointmentId, String paymentStatus) {
+        return sign(event(eventId, "checkout.session.completed", """
+                {"id":"cs_%s","object":"checkout.session","payment_status":"%s","metadata":{"appointmentId":"%d"}}"""
+                .formatted(eventId, paymentStatus, appointmentId)), Instant.now());
+    }
+
+    public Delivery event(String eventId, String type) {
+        return sign(event(eventId, type, "{\"id\":\"obj_" + eventId + "\",\"metadata\":{}}"), Instant.now());
+    }
+
+    public Delivery sign(String payload, Instant signedAt) {
+        long timestamp = signedAt.getEpochSecond();
+        return new Delivery(payload, "t=" + timestamp + ",v1=" + hmac(timestamp + "." + payload));
+    }
+
+    /**
+     * Posts the delivery to the webhook service and waits for the answer, as the HTTP endpoint would.
+     */
+    public PaymentWebhookService.Outcome send(PaymentWebhookService service, Delivery delivery) {
+        try {
+            return service.receive(delivery.payload(), delivery.signature()).join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private static String event(String eventId, String type, String object) {
+        return """
+                {"id":"%s","object":"event","type":"%s","livemode":false,"data":{"object":%s}}"""
+                .formatted(eventId, type, object);
+    }
+
+    private String hmac(String content) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return HexFormat.of().formatHex(mac.doFinal(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
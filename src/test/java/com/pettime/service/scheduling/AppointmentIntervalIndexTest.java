@@ -0,0 +1,144 @@
+package com.pettime.service.scheduling;
+
+import com.pettime.config.SchedulingProperties;
+import com.pettime.model.Appointment;
+import com.pettime.model.AppointmentStatus;
+import com.pettime.model.User;
+import com.pettime.repository.AppointmentRepository;
+import com.pettime.repository.projection.AppointmentWindow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AppointmentIntervalIndex.
+ * (FR) Tests unitaires pour AppointmentIntervalIndex.
+ */
+@ExtendWith(MockitoExtension.class)
+class AppointmentIntervalIndexTest {
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    private AppointmentIntervalIndex index;
+
+    private User petshop;
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        index = new AppointmentIntervalIndex(appointmentRepository, new SchedulingProperties());
+        petshop = User.builder().id(10L).build();
+        base = LocalDateTime.now().plusDays(1).withHour(10).withMinute(0).withSecond(0).withNano(0);
+    }
+
+    private Appointment appointment(long id, LocalDateTime start, LocalDateTime end) {
+        return Appointment.builder()
+                .id(id)
+                .petshop(petshop)
+                .startTime(start)
+                .endTime(end)
+                .status(AppointmentStatus.PENDING)
+                .paid(false)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should warm the calendar once and detect overlaps from memory")
+    void shouldWarmLazilyAndDetectOverlaps() {
+        when(appointmentRepository.findExclusiveWindowsEndingAfter(eq(10L), any()))
+                .thenReturn(List.of(new AppointmentWindow(1L, base, base.plusHours(1))));
+
+        assertThat(index.hasConflict(10L, base.plusMinutes(30), base.plusMinutes(90))).isTrue();
+        assertThat(index.hasConflict(10L, base.minusMinutes(30), base.plusMinutes(1))).isTrue();
+        assertThat(index.hasConflict(10L, base.plusHours(1), base.plusHours(2))).isFalse();
+        assertThat(index.hasConflict(10L, base.minusHours(1), base)).isFalse();
+
+        verify(appointmentRepository, times(1)).findExclusiveWindowsEndingAfter(eq(10L), any());
+    }
+
+    @Test
+    @DisplayName("Should track registered and released appointments")
+    void shouldTrackRegisterAndRelease() {
+        when(appointmentRepository.findExclusiveWindowsEndingAfter(eq(10L), any()))
+                .thenReturn(List.of());
+
+        assertThat(index.hasConflict(10L, base, base.plusHours(1))).isFalse();
+
+        Appointment booked = appointment(2L, base, base.plusHours(1));
+        index.register(booked);
+        assertThat(index.hasConflict(10L, base.plusMinutes(15), base.plusMinutes(45))).isTrue();
+
+        index.release(booked);
+        assertThat(index.hasConflict(10L, base.plusMinutes(15), base.plusMinutes(45))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should keep only exclusive appointments in the calendar")
+    void shouldIgnoreNonExclusiveAppointments() {
+        when(appointmentRepository.findExclusiveWindowsEndingAfter(eq(10L), any()))
+                .thenReturn(List.of());
+        assertThat(index.hasConflict(10L, base, base.plusHours(1))).isFalse();
+
+        // Shared windows may overlap each other; the overlap query accounts for them
+        Appointment shared = appointment(5L, base, base.plusHours(2));
+        shared.setExclusive(false);
+        index.register(shared);
+        index.register(appointment(6L, base.plusHours(3), base.plusHours(4)));
+
+        assertThat(index.hasConflict(10L, base.plusMinutes(30), base.plusHours(1))).isFalse();
+        assertThat(index.hasConflict(10L, base.plusMinutes(210), base.plusHours(5))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should ignore registrations for petshops that were never warmed")
+    void shouldIgnoreRegistrationForColdPetshop() {
+        index.register(appointment(3L, base, base.plusHours(1)));
+
+        verifyNoInteractions(appointmentRepository);
+    }
+
+    @Test
+    @DisplayName("Should not cache a calendar loaded while a window was being released")
+    void shouldNotCacheLoadRacingWithRelease() {
+        Appointment cancelled = appointment(4L, base, base.plusHours(1));
+        when(appointmentRepository.findExclusiveWindowsEndingAfter(eq(10L), any()))
+                .thenAnswer(invocation -> {
+                    // The cancellation commits and releases while this snapshot is being read
+                    index.release(cancelled);
+                    return List.of(new AppointmentWindow(4L, base, base.plusHours(1)));
+                })
+                .thenReturn(List.of());
+
+        assertThat(index.hasConflict(10L, base, base.plusHours(1))).isTrue();
+        assertThat(index.hasConflict(10L, base, base.plusHours(1))).isFalse();
+
+        verify(appointmentRepository, times(2)).findExclusiveWindowsEndingAfter(eq(10L), any());
+    }
+
+    @Test
+    @DisplayName("Should reload a calendar once its TTL has passed")
+    void shouldReloadExpiredCalendar() {
+        SchedulingProperties properties = new SchedulingProperties();
+        properties.setIntervalIndexTtl(Duration.ZERO);
+        AppointmentIntervalIndex expiring = new AppointmentIntervalIndex(appointmentRepository, properties);
+        when(appointmentRepository.findExclusiveWindowsEndingAfter(eq(10L), any()))
+                .thenReturn(List.of(new AppointmentWindow(1L, base, base.plusHours(1))))
+                .thenReturn(List.of());
+
+        assertThat(expiring.hasConflict(10L, base, base.plusHours(1))).isTrue();
+        assertThat(expiring.hasConflict(10L, base, base.plusHours(1))).isFalse();
+    }
+}
@@ -0,0 +1,122 @@
+package com.pettime.service.scheduling;
+
+import com.pettime.config.SchedulingProperties;
+import com.pettime.model.Appointment;
+import com.pettime.model.AppointmentStatus;
+import com.pettime.model.Pet;
+import com.pettime.model.User;
+import com.pettime.model.UserRole;
+import com.pettime.repository.AppointmentRepository;
+import com.pettime.repository.PetRepository;
+import com.pettime.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 🧪 Lifecycle job: finished confirmed appointments become COMPLETED, in chunks.
+ * (FR) Tâche de cycle de vie : les rendez-vous confirmés terminés passent à COMPLETED.
+
+ * Runs without a test transaction so each chunk commits on its own, as in production.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({
+        AppointmentLifecycleJob.class,
+        SchedulingProperties.class,
+        SimpleMeterRegistry.class
+})
+class AppointmentLifecycleJobTest {
+
+    @Autowired
+    private AppointmentLifecycleJob job;
+
+    @Autowired
+    private SchedulingProperties schedulingProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PetRepository petRepository;
+
+    private User petshop;
+    private Pet pet;
+
+    @BeforeEach
+    void setUp() {
+        schedulingProperties.getLifecycle().setChunkSize(2);
+        schedulingProperties.getLifecycle().setGrace(Duration.ZERO);
+
+        petshop = userRepository.save(User.builder()
+                .name("PetShop Québec").email("shop@pettime.ca").password("123").role(UserRole.PETSHOP).build());
+        User client = userRepository.save(User.builder()
+                .name("Jean Dupont").email("jean@client.ca").password("123").role(UserRole.CLIENT).build());
+        pet = petRepository.save(Pet.builder().name("Rex").species("Dog").owner(client).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        appointmentRepository.deleteAll();
+        petRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private Appointment save(LocalDateTime end, AppointmentStatus status) {
+        return appointmentRepository.save(Appointment.builder()
+                .pet(pet)
+                .petshop(petshop)
+                .startTime(end.minusHours(1))
+                .endTime(end)
+                .status(status)
+                .paid(status == AppointmentStatus.CONFIRMED)
+                .build());
+    }
+
+    @Test
+    @DisplayName("✅ Should complete every finished confirmed appointment across several chunks")
+    void shouldCompleteFinishedConfirmedAppointments() {
+        LocalDateTime past = LocalDateTime.now().minusHours(2);
+
+        Appointment first = save(past, AppointmentStatus.CONFIRMED);
+        Appointment second = save(past.minusDays(1), AppointmentStatus.CONFIRMED);
+        Appointment third = save(past.minusDays(2), AppointmentStatus.CONFIRMED);
+        Appointment upcoming = save(LocalDateTime.now().plusDays(1), AppointmentStatus.CONFIRMED);
+        Appointment unpaid = save(past, AppointmentStatus.PENDING);
+
+        assertThat(job.runOnce()).isEqualTo(3);
+
+        assertThat(appointmentRepository.findAllById(
+                List.of(first.getId(), second.getId(), third.getId())))
+                .extracting(Appointment::getStatus)
+                .containsOnly(AppointmentStatus.COMPLETED);
+        assertThat(appointmentRepository.findById(upcoming.getId())).get()
+                .extracting(Appointment::getStatus).isEqualTo(AppointmentStatus.CONFIRMED);
+        assertThat(appointmentRepository.findById(unpaid.getId())).get()
+                .extracting(Appointment::getStatus).isEqualTo(AppointmentStatus.PENDING);
+
+        assertThat(meterRegistry.get("appointment.lifecycle.completed").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("appointment.lifecycle.run").timer().count()).isEqualTo(1);
+        assertThat(job.runOnce()).isZero();
+    }
+}
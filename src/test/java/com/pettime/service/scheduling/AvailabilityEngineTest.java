@@ -0,0 +1,121 @@
+package com.pettime.service.scheduling;
+
+import com.pettime.config.SchedulingProperties;
+import com.pettime.dto.AvailableSlotDto;
+import com.pettime.repository.projection.AppointmentWindow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for AvailabilityEngine.
+ * (FR) Tests unitaires pour AvailabilityEngine.
+ */
+class AvailabilityEngineTest {
+
+    // A Monday, so no closed day is involved unless the test crosses Sunday.
+    private static final LocalDate MONDAY = LocalDate.of(2030, 1, 7);
+
+    private AvailabilityEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        SchedulingProperties properties = new SchedulingProperties();
+        properties.setOpeningTime(LocalTime.of(9, 0));
+        properties.setClosingTime(LocalTime.of(12, 0));
+        properties.setSlotGranularity(Duration.ofMinutes(15));
+        engine = new AvailabilityEngine(properties);
+    }
+
+    private static AppointmentWindow booked(LocalDateTime start, LocalDateTime end) {
+        return new AppointmentWindow(1L, start, end);
+    }
+
+    private static List<LocalDateTime> starts(List<AvailableSlotDto> slots) {
+        return slots.stream().map(AvailableSlotDto::getStartTime).toList();
+    }
+
+    @Test
+    @DisplayName("Should skip booked windows and realign to the slot granularity")
+    void shouldSkipBookedWindows() {
+        LocalDateTime from = MONDAY.atTime(9, 0);
+        LocalDateTime to = MONDAY.atTime(12, 0);
+
+        Iterator<AppointmentWindow> bookedWindows = List.of(
+                booked(MONDAY.atTime(9, 30), MONDAY.atTime(10, 10)),
+                booked(MONDAY.atTime(11, 0), MONDAY.atTime(11, 45))
+        ).iterator();
+
+        List<AvailableSlotDto> slots = engine.findFreeSlots(bookedWindows, from, to, Duration.ofMinutes(30), 10);
+
+        assertThat(starts(slots)).containsExactly(
+                MONDAY.atTime(9, 0),
+                MONDAY.atTime(10, 15)
+        );
+    }
+
+    @Test
+    @DisplayName("Should continue on the next business day and skip closed days")
+    void shouldRollOverClosedDays() {
+        LocalDate saturday = MONDAY.plusDays(5);
+        LocalDateTime from = saturday.atTime(11, 30);
+        LocalDateTime to = MONDAY.plusWeeks(1).atTime(12, 0);
+
+        List<AvailableSlotDto> slots = engine.findFreeSlots(
+                Collections.emptyIterator(), from, to, Duration.ofHours(1), 1);
+
+        assertThat(starts(slots)).containsExactly(MONDAY.plusWeeks(1).atTime(9, 0));
+    }
+
+    @Test
+    @DisplayName("Should stop consuming booked windows once enough slots are found")
+    void shouldStopEarly() {
+        AtomicInteger consumed = new AtomicInteger();
+        Iterator<AppointmentWindow> bookedWindows = Stream.iterate(MONDAY.plusDays(1).atTime(9, 0), t -> t.plusDays(1))
+                .map(start -> booked(start, start.plusHours(3)))
+                .peek(window -> consumed.incrementAndGet())
+                .limit(10_000)
+                .iterator();
+
+        List<AvailableSlotDto> slots = engine.findFreeSlots(
+                bookedWindows, MONDAY.atTime(9, 0), MONDAY.plusYears(5).atTime(9, 0), Duration.ofMinutes(45), 3);
+
+        assertThat(slots).hasSize(3);
+        assertThat(consumed.get()).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should offer overlapping slots while capacity remains and report what is left")
+    void shouldReportRemainingCapacity() {
+        LocalDateTime from = MONDAY.atTime(9, 0);
+        LocalDateTime to = MONDAY.atTime(11, 0);
+
+        Iterator<AppointmentWindow> bookedWindows = List.of(
+                booked(MONDAY.atTime(9, 0), MONDAY.atTime(10, 0)),
+                booked(MONDAY.atTime(9, 0), MONDAY.atTime(9, 30)),
+                booked(MONDAY.atTime(10, 0), MONDAY.atTime(10, 30))
+        ).iterator();
+
+        List<AvailableSlotDto> slots = engine.findFreeSlots(
+                bookedWindows, from, to, Duration.ofMinutes(30), 10, 2);
+
+        assertThat(starts(slots)).containsExactly(
+                MONDAY.atTime(9, 30),
+                MONDAY.atTime(10, 0),
+                MONDAY.atTime(10, 30)
+        );
+        assertThat(slots).extracting(AvailableSlotDto::getRemainingCapacity).containsExactly(1, 1, 2);
+    }
+}
@@ -0,0 +1,202 @@
+package com.pettime.service.scheduling;
+
+import com.pettime.config.PostgresSchemaInitializer;
+import com.pettime.config.SchedulingProperties;
+import com.pettime.config.UserCacheProperties;
+import com.pettime.exception.AppointmentConflictException;
+import com.pettime.metrics.AppointmentMetrics;
+import com.pettime.model.Appointment;
+import com.pettime.model.Pet;
+import com.pettime.model.User;
+import com.pettime.repository.AppointmentRepository;
+import com.pettime.repository.PetRepository;
+import com.pettime.repository.UserRepository;
+import com.pettime.repository.projection.AppointmentWindow;
+import com.pettime.service.cache.UserLookupCache;
+import com.pettime.service.impl.AppointmentServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionOperations;
+
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * 🧪 Multi-threaded stress test for the lock-striped booking path.
+ * (FR) Test de charge multi-thread pour le chemin de réservation à verrous répartis.
+
+ * Many threads book random one-hour slots across a few petshops against an
+ * in-memory store that deliberately yields between the overlap check and
+ * the insert. The store must never end up with two overlapping appointments
+ * for the same petshop. Every thread count starts from an empty store and a
+ * fresh service and interval index, so bookings of earlier runs cannot turn
+ * attempts into early index rejections. Throughput is measured by the JMH
+ * BookingBenchmark, not here.
+ */
+class BookingCoordinatorStressTest {
+
+    private static final int PETSHOPS = 8;
+    private static final int SLOTS_PER_PETSHOP = 200;
+    private static final int ATTEMPTS_PER_RUN = 20_000;
+
+    private final Map<Long, List<Appointment>> store = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+    private final LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+
+    private AppointmentRepository appointmentRepository;
+    private PetRepository petRepository;
+    private UserRepository userRepository;
+    private AppointmentServiceImpl appointmentService;
+
+    @BeforeEach
+    void setUp() {
+        appointmentRepository = mock(AppointmentRepository.class, withSettings().stubOnly());
+        petRepository = mock(PetRepository.class, withSettings().stubOnly());
+        userRepository = mock(UserRepository.class, withSettings().stubOnly());
+
+        when(petRepository.findById(anyLong()))
+                .thenAnswer(invocation -> Optional.of(Pet.builder().id(invocation.getArgument(0)).build()));
+        when(userRepository.findById(anyLong()))
+                .thenAnswer(invocation -> Optional.of(User.builder().id(invocation.getArgument(0)).build()));
+        when(userRepository.findCapacityById(anyLong())).thenReturn(Optional.of(1));
+        when(userRepository.getReferenceById(anyLong()))
+                .thenAnswer(invocation -> User.builder().id(invocation.getArgument(0)).build());
+
+        when(appointmentRepository.findExclusiveWindowsEndingAfter(anyLong(), any()))
+                .thenAnswer(invocation -> snapshot(invocation.getArgument(0)).stream()
+                        .map(a -> new AppointmentWindow(a.getId(), a.getStartTime(), a.getEndTime()))
+                        .toList());
+
+        when(appointmentRepository.existsOverlappingAppointment(anyLong(), any(), any()))
+                .thenAnswer(invocation -> {
+                    LocalDateTime start = invocation.getArgument(1);
+                    LocalDateTime end = invocation.getArgument(2);
+                    boolean overlaps = snapshot(invocation.getArgument(0)).stream()
+                            .anyMatch(a -> a.getStartTime().isBefore(end) && a.getEndTime().isAfter(start));
+                    // Widen the race window between the check and the insert.
+                    Thread.yield();
+                    return overlaps;
+                });
+
+        when(appointmentRepository.save(any(Appointment.class)))
+                .thenAnswer(invocation -> {
+                    Appointment appointment = invocation.getArgument(0);
+                    appointment.setId(ids.incrementAndGet());
+                    List<Appointment> appointments = store.computeIfAbsent(
+                            appointment.getPetshop().getId(), id -> new ArrayList<>());
+                    synchronized (appointments) {
+                        appointments.add(appointment);
+                    }
+                    return appointment;
+                });
+    }
+
+    private AppointmentServiceImpl newService() {
+        return new AppointmentServiceImpl(
+                appointmentRepository,
+                petRepository,
+                userRepository,
+                new AppointmentIntervalIndex(appointmentRepository, new SchedulingProperties()),
+                new BookingCoordinator(new SchedulingProperties()),
+                mock(PostgresSchemaInitializer.class),
+                new AvailabilityEngine(new SchedulingProperties()),
+                new SchedulingProperties(),
+                new UserLookupCache(userRepository, new UserCacheProperties(), new SimpleMeterRegistry()),
+                new AppointmentMetrics(new SimpleMeterRegistry()),
+                mock(PendingExpiryScheduler.class),
+                TransactionOperations.withoutTransaction()
+        );
+    }
+
+    private List<Appointment> snapshot(Long petshopId) {
+        List<Appointment> appointments = store.get(petshopId);
+        if (appointments == null) {
+            return List.of();
+        }
+        synchronized (appointments) {
+            return new ArrayList<>(appointments);
+        }
+    }
+
+    @Test
+    @DisplayName("🔒 Should never double-book a petshop slot under concurrent load")
+    void shouldNeverDoubleBookUnderConcurrentLoad() throws Exception {
+        int maxThreads = Math.max(8, Runtime.getRuntime().availableProcessors() * 4);
+
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            store.clear();
+            appointmentService = newService();
+
+            runBookings(threads);
+
+            int booked = store.values().stream().mapToInt(List::size).sum();
+            assertThat(booked).isPositive().isLessThanOrEqualTo(PETSHOPS * SLOTS_PER_PETSHOP);
+            store.forEach((petshopId, appointments) -> assertNoOverlap(appointments));
+        }
+    }
+
+    private void runBookings(int threads) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        int attemptsPerThread = ATTEMPTS_PER_RUN / threads;
+
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < attemptsPerThread; i++) {
+                        long petshopId = 1 + random.nextInt(PETSHOPS);
+                        // Half-hour offsets make partial overlaps as common as exact collisions.
+                        LocalDateTime slotStart = base.plusMinutes(30L * random.nextInt(SLOTS_PER_PETSHOP * 2));
+                        try {
+                            appointmentService.create(1L, petshopId, slotStart, slotStart.plusHours(1));
+                        } catch (AppointmentConflictException expected) {
+                            // Losing the race for a slot is the expected outcome under contention.
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        start.countDown();
+        done.await();
+
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private void assertNoOverlap(List<Appointment> appointments) {
+        List<Appointment> sorted = new ArrayList<>(appointments);
+        sorted.sort(Comparator.comparing(Appointment::getStartTime));
+        for (int i = 1; i < sorted.size(); i++) {
+            assertThat(sorted.get(i).getStartTime())
+                    .as("appointment %d overlaps %d", sorted.get(i).getId(), sorted.get(i - 1).getId())
+                    .isAfterOrEqualTo(sorted.get(i - 1).getEndTime());
+        }
+    }
+}
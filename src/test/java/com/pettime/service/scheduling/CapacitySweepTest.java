@@ -0,0 +1,101 @@
+package com.pettime.service.scheduling;
+
+import com.pettime.repository.projection.AppointmentWindow;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for CapacitySweep.
+ * (FR) Tests unitaires pour CapacitySweep.
+ */
+class CapacitySweepTest {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 1, 7);
+
+    private static AppointmentWindow window(int fromHour, int fromMinute, int toHour, int toMinute) {
+        return new AppointmentWindow(1L, DAY.atTime(fromHour, fromMinute), DAY.atTime(toHour, toMinute));
+    }
+
+    private static LocalDateTime at(int hour, int minute) {
+        return DAY.atTime(hour, minute);
+    }
+
+    @Test
+    @DisplayName("Should count the highest simultaneous bookings, not the total")
+    void shouldCountPeakNotTotal() {
+        List<AppointmentWindow> windows = List.of(
+                window(9, 0, 10, 0),
+                window(9, 30, 10, 30),
+                window(10, 0, 11, 0),
+                window(10, 45, 11, 30)
+        );
+
+        assertThat(CapacitySweep.peak(windows, at(9, 0), at(12, 0))).isEqualTo(2);
+        assertThat(CapacitySweep.isFull(windows, at(9, 0), at(12, 0), 2)).isTrue();
+        assertThat(CapacitySweep.isFull(windows, at(9, 0), at(12, 0), 3)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should treat windows as half-open and ignore parts outside the range")
+    void shouldClipToRange() {
+        List<AppointmentWindow> windows = List.of(
+                window(9, 0, 10, 0),
+                window(10, 0, 11, 0),
+                window(8, 0, 12, 0)
+        );
+
+        assertThat(CapacitySweep.peak(windows, at(9, 0), at(11, 0))).isEqualTo(2);
+        assertThat(CapacitySweep.peak(windows, at(11, 0), at(12, 0))).isEqualTo(1);
+        assertThat(CapacitySweep.peak(windows, at(12, 0), at(13, 0))).isZero();
+    }
+
+    @Test
+    @DisplayName("Should admit overlapping candidates up to the capacity, in start order")
+    void shouldAdmitOverlappingCandidatesUpToCapacity() {
+        List<AppointmentWindow> candidates = List.of(
+                window(9, 30, 10, 30),
+                window(9, 0, 10, 0),
+                window(9, 45, 11, 0),
+                window(10, 0, 11, 0)
+        );
+
+        assertThat(CapacitySweep.admit(List.of(), candidates, 2)).containsExactly(true, true, false, true);
+        assertThat(CapacitySweep.admit(List.of(), candidates, 1)).containsExactly(false, true, false, true);
+    }
+
+    @Test
+    @DisplayName("Should give way to a booked window starting while a candidate runs")
+    void shouldPushOutTheCandidateEndingLast() {
+        List<AppointmentWindow> booked = List.of(window(10, 0, 10, 30));
+        List<AppointmentWindow> candidates = List.of(
+                window(9, 0, 12, 0),
+                window(9, 30, 10, 15),
+                window(10, 30, 11, 0)
+        );
+
+        // At 10:00 the booked window is one too many; the candidate running until 12:00 leaves.
+        assertThat(CapacitySweep.admit(booked, candidates, 2)).containsExactly(false, true, true);
+    }
+
+    @Test
+    @DisplayName("Should count booked windows that overlap each other")
+    void shouldHandleOverlappingBookedWindows() {
+        List<AppointmentWindow> booked = List.of(
+                window(9, 0, 12, 0),
+                window(9, 30, 10, 0)
+        );
+        List<AppointmentWindow> candidates = List.of(
+                window(10, 30, 11, 0),
+                window(12, 0, 13, 0)
+        );
+
+        assertThat(CapacitySweep.admit(booked, candidates, 1)).containsExactly(false, true);
+        assertThat(CapacitySweep.admit(booked, candidates, 2)).containsExactly(true, true);
+    }
+}
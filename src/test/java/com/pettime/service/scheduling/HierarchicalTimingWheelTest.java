@@ -0,0 +1,93 @@
+package com.pettime.service.scheduling;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for HierarchicalTimingWheel.
+ * (FR) Tests unitaires pour HierarchicalTimingWheel.
+ */
+class HierarchicalTimingWheelTest {
+
+    @Test
+    @DisplayName("Should fire each timer exactly at its deadline, across every wheel level")
+    void shouldFireAtDeadlineAcrossLevels() {
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(0, 16);
+        long[] deadlines = {1, 255, 256, 257, 65_535, 65_536, 65_537, 16_777_216, 16_777_217, 70_000_000};
+
+        for (int key = 0; key < deadlines.length; key++) {
+            wheel.schedule(key, deadlines[key]);
+        }
+
+        for (int key = 0; key < deadlines.length; key++) {
+            assertThat(wheel.advance(deadlines[key] - 1)).isEmpty();
+            assertThat(wheel.advance(deadlines[key])).containsExactly(key);
+        }
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not fire cancelled or rescheduled timers at their old deadline")
+    void shouldHonourCancelAndReschedule() {
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(1_000, 16);
+
+        wheel.schedule(1, 1_010);
+        wheel.schedule(2, 1_010);
+        wheel.schedule(2, 1_500);
+        assertThat(wheel.cancel(1)).isTrue();
+        assertThat(wheel.cancel(1)).isFalse();
+
+        assertThat(wheel.advance(1_010)).isEmpty();
+        assertThat(wheel.advance(2_000)).containsExactly(2);
+    }
+
+    @Test
+    @DisplayName("Should match a reference model under random schedule, cancel and advance")
+    void shouldMatchReferenceModel() {
+        Random random = new Random(42);
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(123_456, 4);
+        Map<Long, Long> expected = new HashMap<>();
+        long now = 123_456;
+
+        for (int step = 0; step < 50_000; step++) {
+            long key = random.nextInt(5_000);
+            int op = random.nextInt(10);
+
+            if (op < 5) {
+                long delay = random.nextBoolean() ? random.nextInt(300) : random.nextInt(5_000_000);
+                long deadline = Math.max(now + delay, now + 1);
+                wheel.schedule(key, deadline);
+                expected.put(key, deadline);
+            } else if (op < 7) {
+                assertThat(wheel.cancel(key)).isEqualTo(expected.remove(key) != null);
+            } else {
+                long to = now + random.nextInt(random.nextInt(10) == 0 ? 100_000 : 50);
+                Set<Long> fired = new HashSet<>();
+                for (long expiredKey : wheel.advance(to)) {
+                    fired.add(expiredKey);
+                }
+
+                Set<Long> due = new HashSet<>();
+                expected.forEach((k, deadline) -> {
+                    if (deadline <= to) {
+                        due.add(k);
+                    }
+                });
+
+                assertThat(fired).isEqualTo(due);
+                due.forEach(expected::remove);
+                now = to;
+            }
+
+            assertThat(wheel.size()).isEqualTo(expected.size());
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.pettime.service.scheduling;
+
+import com.pettime.config.SchedulingProperties;
+import com.pettime.model.Appointment;
+import com.pettime.model.AppointmentStatus;
+import com.pettime.model.Pet;
+import com.pettime.model.User;
+import com.pettime.model.UserRole;
+import com.pettime.repository.AppointmentRepository;
+import com.pettime.repository.PetRepository;
+import com.pettime.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 🧪 Pending expiry: unpaid appointments past their payment window are cancelled in bulk.
+ * (FR) Expiration : les rendez-vous non payés après le délai sont annulés en lot.
+
+ * The background thread is disabled; the test drives rebuild and tick itself,
+ * ticking slightly ahead because overdue timers fire on the next tick.
+ */
+@DataJpaTest(properties = "app.scheduling.pending-expiry.enabled=false")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({
+        PendingExpiryScheduler.class,
+        AppointmentIntervalIndex.class,
+        SchedulingProperties.class,
+        SimpleMeterRegistry.class
+})
+class PendingExpirySchedulerTest {
+
+    @Autowired
+    private PendingExpiryScheduler scheduler;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PetRepository petRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User petshop;
+    private Pet pet;
+
+    @BeforeEach
+    void setUp() {
+        petshop = userRepository.save(User.builder()
+                .name("PetShop Québec").email("shop@pettime.ca").password("123").role(UserRole.PETSHOP).build());
+        User client = userRepository.save(User.builder()
+                .name("Jean Dupont").email("jean@client.ca").password("123").role(UserRole.CLIENT).build());
+        pet = petRepository.save(Pet.builder().name("Rex").species("Dog").owner(client).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        appointmentRepository.deleteAll();
+        petRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private Appointment saveCreatedAgo(long minutes, AppointmentStatus status, boolean paid) {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).plusHours(minutes);
+        Appointment appointment = appointmentRepository.save(Appointment.builder()
+                .pet(pet)
+                .petshop(petshop)
+                .startTime(start)
+                .endTime(start.plusMinutes(30))
+                .status(status)
+                .paid(paid)
+                .build());
+        jdbcTemplate.update("UPDATE appointments SET created_at = ? WHERE id = ?",
+                LocalDateTime.now().minusMinutes(minutes), appointment.getId());
+        return appointment;
+    }
+
+    private AppointmentStatus statusOf(Appointment appointment) {
+        return appointmentRepository.findById(appointment.getId()).orElseThrow().getStatus();
+    }
+
+    @Test
+    @DisplayName("⏰ Should rebuild timers from the table and cancel only expired unpaid appointments")
+    void shouldRebuildAndExpireUnpaidAppointments() {
+        Appointment abandoned = saveCreatedAgo(60, AppointmentStatus.PENDING, false);
+        Appointment alsoAbandoned = saveCreatedAgo(30, AppointmentStatus.PENDING, false);
+        Appointment recent = saveCreatedAgo(1, AppointmentStatus.PENDING, false);
+        Appointment paid = saveCreatedAgo(60, AppointmentStatus.CONFIRMED, true);
+
+        scheduler.rebuild();
+        assertThat(scheduler.pending()).isEqualTo(3);
+
+        scheduler.untrack(alsoAbandoned.getId());
+        scheduler.tick(LocalDateTime.now().plusSeconds(2));
+
+        assertThat(statusOf(abandoned)).isEqualTo(AppointmentStatus.CANCELLED);
+        assertThat(statusOf(alsoAbandoned)).isEqualTo(AppointmentStatus.PENDING);
+        assertThat(statusOf(recent)).isEqualTo(AppointmentStatus.PENDING);
+        assertThat(statusOf(paid)).isEqualTo(AppointmentStatus.CONFIRMED);
+        assertThat(scheduler.pending()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("💳 A payment confirmed before the tick should win over the expiry")
+    void shouldNotCancelAppointmentPaidMeanwhile() {
+        Appointment appointment = saveCreatedAgo(60, AppointmentStatus.PENDING, false);
+        scheduler.rebuild();
+
+        appointmentRepository.confirmPending(appointment.getId(), LocalDateTime.now());
+        scheduler.tick(LocalDateTime.now().plusSeconds(2));
+
+        assertThat(statusOf(appointment)).isEqualTo(AppointmentStatus.CONFIRMED);
+    }
+}